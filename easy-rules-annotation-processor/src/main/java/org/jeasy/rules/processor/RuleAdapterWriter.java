@@ -0,0 +1,320 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.processor;
+
+import org.jeasy.rules.annotation.Fact;
+import org.jeasy.rules.annotation.Rule;
+import org.jeasy.rules.api.FactKey;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.core.MissingFactPolicy;
+import org.jeasy.rules.core.RuleAdapter;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the source of the {@link RuleAdapter} of a validated rule definition.
+ */
+class RuleAdapterWriter {
+
+    private final Elements elements;
+    private final Types types;
+    private final RuleDefinition definition;
+    private final String packageName;
+    private final String simpleName;
+    private final String targetType;
+    private final Map<String, String> factKeys = new LinkedHashMap<>();
+    private final StringBuilder source = new StringBuilder();
+
+    RuleAdapterWriter(ProcessingEnvironment processingEnvironment, RuleDefinition definition) {
+        this.elements = processingEnvironment.getElementUtils();
+        this.types = processingEnvironment.getTypeUtils();
+        this.definition = definition;
+        TypeElement type = definition.getType();
+        this.packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        this.simpleName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_')
+                + RuleAdapter.SUFFIX;
+        this.targetType = erasure(type.asType());
+    }
+
+    String getQualifiedName() {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    void write(Writer writer) throws IOException {
+        if (!packageName.isEmpty()) {
+            line("package %s;", packageName);
+            line("");
+        }
+        line("/**");
+        line(" * Adapter of rule {@link %s}, generated by {@code %s}.", targetType, RuleProcessor.class.getName());
+        line(" */");
+        line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line("public final class %s extends %s<%s> {", simpleName, RuleAdapter.class.getName(), targetType);
+        line("");
+        writeFactKeys();
+        writeReadFacts();
+        writeConstructor();
+        writeEvaluate();
+        writeExecute();
+        if (definition.getCompareToMethod() != null) {
+            writeCompareTo();
+        }
+        line("}");
+        writer.write(source.toString());
+    }
+
+    private void writeConstructor() {
+        TypeElement type = definition.getType();
+        Rule annotation = type.getAnnotation(Rule.class);
+        String name = annotation.name().equals(org.jeasy.rules.api.Rule.DEFAULT_NAME)
+                ? type.getSimpleName().toString() : annotation.name();
+        String description = annotation.description().equals(org.jeasy.rules.api.Rule.DEFAULT_DESCRIPTION)
+                ? defaultDescription() : annotation.description();
+        String priority = definition.getPriorityMethod() != null
+                ? invocation("target", definition.getPriorityMethod()) + "()"
+                : String.valueOf(annotation.priority());
+        line("    public %s(%s target) {", simpleName, targetType);
+        line("        this(target, %s.LOG);", MissingFactPolicy.class.getName());
+        line("    }");
+        line("");
+        line("    public %s(%s target, %s missingFactPolicy) {", simpleName, targetType, MissingFactPolicy.class.getName());
+        line("        super(target, %s, %s, %s, missingFactPolicy);", literal(name), literal(description), priority);
+        line("    }");
+        line("");
+    }
+
+    /*
+     * Writes a FactKey constant for each fact injected into the condition or action
+     * methods, so that facts are read by key rather than looked up by name.
+     */
+    private void writeFactKeys() {
+        List<ExecutableElement> methods = new ArrayList<>();
+        methods.add(definition.getConditionMethod());
+        methods.addAll(definition.getActionMethods());
+        for (ExecutableElement method : methods) {
+            for (VariableElement parameter : method.getParameters()) {
+                Fact fact = parameter.getAnnotation(Fact.class);
+                if (fact != null && !factKeys.containsKey(fact.value())) {
+                    String factKey = "FACT_KEY_" + factKeys.size();
+                    factKeys.put(fact.value(), factKey);
+                    line("    private static final %s<?> %s = %s.of(%s);",
+                            FactKey.class.getName(), factKey, FactKey.class.getName(), literal(fact.value()));
+                }
+            }
+        }
+        if (!factKeys.isEmpty()) {
+            line("");
+        }
+    }
+
+    /*
+     * Writes the constant set of the facts declared by the condition method,
+     * returned by getReadFacts, or null if the condition method takes all facts.
+     */
+    private void writeReadFacts() {
+        StringBuilder factNames = new StringBuilder();
+        for (VariableElement parameter : definition.getConditionMethod().getParameters()) {
+            Fact fact = parameter.getAnnotation(Fact.class);
+            if (fact == null) {
+                factNames = null;
+                break;
+            }
+            if (factNames.length() > 0) {
+                factNames.append(", ");
+            }
+            factNames.append(literal(fact.value()));
+        }
+        String readFacts = factNames != null ? "readFacts(" + factNames + ")" : "null";
+        line("    private static final %s<String> READ_FACTS = %s;", Set.class.getName(), readFacts);
+        line("");
+        line("    @Override");
+        line("    public %s<String> getReadFacts() {", Set.class.getName());
+        line("        return READ_FACTS;");
+        line("    }");
+        line("");
+    }
+
+    private void writeEvaluate() {
+        ExecutableElement conditionMethod = definition.getConditionMethod();
+        String fallback = "return conditionNotApplicable(facts, %s, " + literal(conditionMethod.getSimpleName().toString()) + ");";
+        line("    @Override");
+        line("    public boolean evaluate(%s facts) {", Facts.class.getName());
+        String arguments = writeArguments(conditionMethod, "fact", fallback, "        ");
+        line("        return %s(%s);", invocation("target", conditionMethod), arguments);
+        line("    }");
+        line("");
+    }
+
+    private void writeExecute() {
+        line("    @Override");
+        line("    public void execute(%s facts) throws Exception {", Facts.class.getName());
+        List<ExecutableElement> actionMethods = definition.getActionMethods();
+        for (int i = 0; i < actionMethods.size(); i++) {
+            ExecutableElement actionMethod = actionMethods.get(i);
+            String fallback = "throw actionNotApplicable(facts, %s, " + literal(actionMethod.getSimpleName().toString()) + ");";
+            String arguments = writeArguments(actionMethod, "action" + i + "Fact", fallback, "        ");
+            line("        %s(%s);", invocation("target", actionMethod), arguments);
+        }
+        line("    }");
+        line("");
+    }
+
+    private void writeCompareTo() {
+        ExecutableElement compareToMethod = definition.getCompareToMethod();
+        String otherType = boxedErasure(compareToMethod.getParameters().get(0).asType());
+        line("    @Override");
+        line("    public int compareTo(%s otherRule) {", org.jeasy.rules.api.Rule.class.getName());
+        line("        Object otherTarget = targetOf(otherRule);");
+        line("        if (otherTarget instanceof %s) {", otherType);
+        line("            return %s((%s) otherTarget);", invocation("target", compareToMethod), otherType);
+        line("        }");
+        line("        return super.compareTo(otherRule);");
+        line("    }");
+        line("");
+    }
+
+    /*
+     * Writes the lookup and type check of each fact injected into the method and
+     * returns the list of actual parameters. Facts are read through the FactKey
+     * constants written by writeFactKeys. Int, long, double and boolean facts
+     * are read with the primitive accessors of Fact, without boxing. Facts injected
+     * into primitive parameters may be widened, as with reflective invocation.
+     */
+    private String writeArguments(ExecutableElement method, String variablePrefix, String fallback, String indent) {
+        StringBuilder arguments = new StringBuilder();
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            String parameterType = boxedErasure(parameter.asType());
+            Fact fact = parameter.getAnnotation(Fact.class);
+            String argument;
+            String primitiveAccessor = primitiveAccessor(parameter.asType().getKind());
+            if (fact != null && primitiveAccessor != null) {
+                String variable = variablePrefix + i;
+                line("%s%s<?> %s = facts.getFact(%s);", indent, org.jeasy.rules.api.Fact.class.getName(), variable, factKeys.get(fact.value()));
+                line("%sif (!isWidenable(%s, %s.class)) {", indent, variable, parameterType);
+                line("%s    %s", indent, String.format(fallback, literal(fact.value())));
+                line("%s}", indent);
+                argument = primitiveAccessor + "(" + variable + ")";
+            } else if (fact != null && parameter.asType().getKind().isPrimitive()) {
+                String variable = variablePrefix + i;
+                line("%sObject %s = widen(facts.get(%s), %s.class);", indent, variable, factKeys.get(fact.value()), parameterType);
+                line("%sif (%s == null) {", indent, variable);
+                line("%s    %s", indent, String.format(fallback, literal(fact.value())));
+                line("%s}", indent);
+                argument = "(" + parameterType + ") " + variable;
+            } else if (fact != null) {
+                String variable = variablePrefix + i;
+                line("%sObject %s = facts.get(%s);", indent, variable, factKeys.get(fact.value()));
+                line("%sif (!(%s instanceof %s)) {", indent, variable, parameterType);
+                line("%s    %s", indent, String.format(fallback, literal(fact.value())));
+                line("%s}", indent);
+                argument = "(" + parameterType + ") " + variable;
+            } else if (parameterType.equals(Facts.class.getName())) {
+                argument = "facts";
+            } else {
+                line("%sif (!(facts instanceof %s)) {", indent, parameterType);
+                line("%s    %s", indent, String.format(fallback, "null"));
+                line("%s}", indent);
+                argument = "(" + parameterType + ") facts";
+            }
+            if (arguments.length() > 0) {
+                arguments.append(", ");
+            }
+            arguments.append(argument);
+        }
+        return arguments.toString();
+    }
+
+    private static String primitiveAccessor(TypeKind kind) {
+        switch (kind) {
+            case INT:
+                return "intValue";
+            case LONG:
+                return "longValue";
+            case DOUBLE:
+                return "doubleValue";
+            case BOOLEAN:
+                return "booleanValue";
+            default:
+                return null;
+        }
+    }
+
+    private String defaultDescription() {
+        // Default description = "when " + conditionMethodName + " then " + comma separated actionMethodsNames
+        StringBuilder description = new StringBuilder();
+        description.append("when ").append(definition.getConditionMethod().getSimpleName()).append(" then ");
+        Iterator<ExecutableElement> iterator = definition.getActionMethods().iterator();
+        while (iterator.hasNext()) {
+            description.append(iterator.next().getSimpleName());
+            if (iterator.hasNext()) {
+                description.append(",");
+            }
+        }
+        return description.toString();
+    }
+
+    private String invocation(String target, ExecutableElement method) {
+        String receiver = method.getModifiers().contains(Modifier.STATIC) ? targetType : target;
+        return receiver + "." + method.getSimpleName();
+    }
+
+    private String boxedErasure(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return erasure(type);
+    }
+
+    private String erasure(TypeMirror type) {
+        return types.erasure(type).toString();
+    }
+
+    private String literal(String value) {
+        return elements.getConstantExpression(value);
+    }
+
+    private void line(String format, Object... arguments) {
+        source.append(String.format(format, arguments)).append('\n');
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.processor;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+
+/**
+ * Validated definition of an annotated rule class.
+ */
+class RuleDefinition {
+
+    private final TypeElement type;
+    private final ExecutableElement conditionMethod;
+    private final List<ExecutableElement> actionMethods;
+    private final ExecutableElement priorityMethod;
+    private final ExecutableElement compareToMethod;
+
+    RuleDefinition(TypeElement type, ExecutableElement conditionMethod, List<ExecutableElement> actionMethods,
+                   ExecutableElement priorityMethod, ExecutableElement compareToMethod) {
+        this.type = type;
+        this.conditionMethod = conditionMethod;
+        this.actionMethods = actionMethods;
+        this.priorityMethod = priorityMethod;
+        this.compareToMethod = compareToMethod;
+    }
+
+    TypeElement getType() {
+        return type;
+    }
+
+    ExecutableElement getConditionMethod() {
+        return conditionMethod;
+    }
+
+    /**
+     * @return action methods, in execution order
+     */
+    List<ExecutableElement> getActionMethods() {
+        return actionMethods;
+    }
+
+    /**
+     * @return the priority method or null if the rule has none
+     */
+    ExecutableElement getPriorityMethod() {
+        return priorityMethod;
+    }
+
+    /**
+     * @return the compareTo method or null if the rule has none
+     */
+    ExecutableElement getCompareToMethod() {
+        return compareToMethod;
+    }
+}
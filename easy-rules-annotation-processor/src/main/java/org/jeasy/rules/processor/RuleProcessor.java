@@ -0,0 +1,276 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.processor;
+
+import org.jeasy.rules.annotation.Action;
+import org.jeasy.rules.annotation.Condition;
+import org.jeasy.rules.annotation.Fact;
+import org.jeasy.rules.annotation.Priority;
+import org.jeasy.rules.annotation.Rule;
+import org.jeasy.rules.api.Facts;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Annotation processor that validates classes annotated with {@link Rule} at build
+ * time and generates, for each of them, a {@link org.jeasy.rules.core.RuleAdapter}
+ * that calls the condition and action methods directly.
+ *
+ * Validation rules are the same as those applied at runtime by the rule proxy.
+ * Classes that cannot be referenced from a generated class (like local, anonymous,
+ * private, abstract or generic classes) are validated but not adapted, and keep
+ * being proxied at runtime.
+ *
+ * The processor is registered as a service, so adding this module to the
+ * compilation class path (for example with the {@code provided} scope) is enough
+ * to enable it.
+ */
+@SupportedAnnotationTypes("org.jeasy.rules.annotation.Rule")
+public class RuleProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(Rule.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue; // meta-annotations are resolved at runtime
+            }
+            TypeElement type = (TypeElement) element;
+            RuleDefinition definition = validate(type);
+            if (definition != null && isAdaptable(type)) {
+                write(definition);
+            }
+        }
+        return false;
+    }
+
+    private RuleDefinition validate(TypeElement type) {
+        List<ExecutableElement> conditionMethods = new ArrayList<>();
+        List<ExecutableElement> actionMethods = new ArrayList<>();
+        List<ExecutableElement> priorityMethods = new ArrayList<>();
+        List<ExecutableElement> compareToMethods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!isPublic(method)) {
+                continue; // like at runtime, only public methods are considered
+            }
+            if (method.getAnnotation(Condition.class) != null) {
+                conditionMethods.add(method);
+            }
+            if (method.getAnnotation(Action.class) != null) {
+                actionMethods.add(method);
+            }
+            if (method.getAnnotation(Priority.class) != null) {
+                priorityMethods.add(method);
+            }
+            if (method.getSimpleName().contentEquals("compareTo")) {
+                compareToMethods.add(method);
+            }
+        }
+
+        boolean valid = true;
+        if (conditionMethods.size() != 1) {
+            error(type, "Rule '%s' must have exactly one public method annotated with '%s'", type, Condition.class.getName());
+            valid = false;
+        } else if (!isWellDefined(conditionMethods.get(0), TypeKind.BOOLEAN)) {
+            error(conditionMethods.get(0), "Condition method '%s' defined in rule '%s' must be public, must return boolean type and may have parameters annotated with @Fact (and/or exactly one parameter of type Facts or one of its sub-types).", conditionMethods.get(0), type);
+            valid = false;
+        }
+
+        if (actionMethods.isEmpty()) {
+            error(type, "Rule '%s' must have at least one public method annotated with '%s'", type, Action.class.getName());
+            valid = false;
+        }
+        for (ExecutableElement actionMethod : actionMethods) {
+            if (!isWellDefined(actionMethod, TypeKind.VOID)) {
+                error(actionMethod, "Action method '%s' defined in rule '%s' must be public, must return void type and may have parameters annotated with @Fact (and/or exactly one parameter of type Facts or one of its sub-types).", actionMethod, type);
+                valid = false;
+            }
+        }
+
+        ExecutableElement priorityMethod = null;
+        if (priorityMethods.size() > 1) {
+            error(type, "Rule '%s' must have exactly one method annotated with '%s'", type, Priority.class.getName());
+            valid = false;
+        } else if (priorityMethods.size() == 1) {
+            priorityMethod = priorityMethods.get(0);
+            if (!isPublic(priorityMethod) || priorityMethod.getReturnType().getKind() != TypeKind.INT || !priorityMethod.getParameters().isEmpty()) {
+                error(priorityMethod, "Priority method '%s' defined in rule '%s' must be public, have no parameters and return integer type.", priorityMethod, type);
+                valid = false;
+            }
+        }
+
+        ExecutableElement compareToMethod = null;
+        for (ExecutableElement method : compareToMethods) {
+            if (method.getParameters().size() == 1) {
+                compareToMethod = method;
+                break;
+            }
+        }
+        if (compareToMethod == null && !compareToMethods.isEmpty()) {
+            error(compareToMethods.get(0), "compareTo method must have a single argument");
+            valid = false;
+        }
+
+        if (!valid) {
+            return null;
+        }
+        // actions are executed by order, then by name and parameter types, like at runtime
+        actionMethods.sort(Comparator.<ExecutableElement>comparingInt(method -> method.getAnnotation(Action.class).order())
+                .thenComparing(method -> method.getSimpleName().toString())
+                .thenComparing(this::parameterTypes));
+        return new RuleDefinition(type, conditionMethods.get(0), actionMethods, priorityMethod, compareToMethod);
+    }
+
+    private boolean isWellDefined(ExecutableElement method, TypeKind returnType) {
+        if (!isPublic(method) || method.getReturnType().getKind() != returnType) {
+            return false;
+        }
+        TypeMirror factsType = processingEnv.getElementUtils().getTypeElement(Facts.class.getName()).asType();
+        int notAnnotatedParameterCount = 0;
+        for (VariableElement parameter : method.getParameters()) {
+            List<AnnotationMirror> annotations = runtimeAnnotations(parameter);
+            if (annotations.isEmpty()) {
+                notAnnotatedParameterCount++;
+                if (!processingEnv.getTypeUtils().isSubtype(parameter.asType(), factsType)) {
+                    return false;
+                }
+            }
+            // like at runtime, annotation types have to be Fact
+            for (AnnotationMirror annotation : annotations) {
+                if (!((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(Fact.class.getName())) {
+                    return false;
+                }
+            }
+        }
+        return notAnnotatedParameterCount <= 1;
+    }
+
+    /*
+     * Annotations of a parameter that the runtime validator sees through
+     * Method.getParameterAnnotations, that is those retained at runtime.
+     */
+    private List<AnnotationMirror> runtimeAnnotations(VariableElement parameter) {
+        List<AnnotationMirror> annotations = new ArrayList<>();
+        for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+            Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+            if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+                annotations.add(annotation);
+            }
+        }
+        return annotations;
+    }
+
+    /*
+     * Parameter types of a method, named as by Class.getTypeName at runtime.
+     */
+    private String parameterTypes(ExecutableElement method) {
+        StringBuilder parameterTypes = new StringBuilder();
+        for (VariableElement parameter : method.getParameters()) {
+            parameterTypes.append(typeName(processingEnv.getTypeUtils().erasure(parameter.asType()))).append(',');
+        }
+        return parameterTypes.toString();
+    }
+
+    private String typeName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return typeName(((ArrayType) type).getComponentType()) + "[]";
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+        }
+        return type.toString();
+    }
+
+    private boolean isPublic(ExecutableElement method) {
+        return method.getModifiers().contains(Modifier.PUBLIC);
+    }
+
+    /*
+     * A generated adapter lives in the package of the rule class and must be able
+     * to reference it, its methods and their parameter types.
+     */
+    private boolean isAdaptable(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        Element element = type;
+        while (element instanceof TypeElement) {
+            TypeElement enclosingType = (TypeElement) element;
+            NestingKind nestingKind = enclosingType.getNestingKind();
+            if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS
+                    || enclosingType.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            element = enclosingType.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private void write(RuleDefinition definition) {
+        RuleAdapterWriter adapterWriter = new RuleAdapterWriter(processingEnv, definition);
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(adapterWriter.getQualifiedName(), definition.getType())
+                .openWriter()) {
+            adapterWriter.write(writer);
+        } catch (IOException e) {
+            error(definition.getType(), "Unable to write adapter of rule '%s': %s", definition.getType(), e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message, Object... arguments) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, format(message, arguments), element);
+    }
+
+}
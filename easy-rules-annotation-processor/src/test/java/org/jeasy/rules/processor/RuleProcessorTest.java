@@ -0,0 +1,379 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.processor;
+
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.core.MissingFactPolicy;
+import org.jeasy.rules.core.NoSuchFactException;
+import org.jeasy.rules.core.RuleAdapter;
+import org.jeasy.rules.core.RuleProxy;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RuleProcessorTest {
+
+    @org.junit.Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File sourceDirectory;
+    private File outputDirectory;
+    private DiagnosticCollector<JavaFileObject> diagnostics;
+
+    @Before
+    public void setUp() throws Exception {
+        sourceDirectory = temporaryFolder.newFolder("sources");
+        outputDirectory = temporaryFolder.newFolder("classes");
+        diagnostics = new DiagnosticCollector<>();
+    }
+
+    @Test
+    public void adapterShouldBeGeneratedAndUsedByRuleProxy() throws Exception {
+        // given
+        source("com.acme.AgeRule",
+                "package com.acme;",
+                "import org.jeasy.rules.annotation.*;",
+                "import org.jeasy.rules.api.Facts;",
+                "import java.util.List;",
+                "@Rule(name = \"age rule\")",
+                "public class AgeRule {",
+                "    @Condition",
+                "    public boolean isAdult(@Fact(\"age\") int age, Facts facts) { return age >= 18; }",
+                "    @Action(order = 2)",
+                "    public void second(@Fact(\"log\") List<String> log) { log.add(\"second\"); }",
+                "    @Action(order = 1)",
+                "    public void first(@Fact(\"log\") List<String> log) { log.add(\"first\"); }",
+                "    @Priority",
+                "    public int getPriority() { return 3; }",
+                "}");
+
+        // when
+        boolean compiled = compile();
+
+        // then
+        assertThat(compiled).as(diagnostics.getDiagnostics().toString()).isTrue();
+        assertThat(new File(outputDirectory, "com/acme/AgeRule_RuleAdapter.class")).exists();
+        String adapterSource = new String(Files.readAllBytes(
+                new File(outputDirectory, "com/acme/AgeRule_RuleAdapter.java").toPath()), StandardCharsets.UTF_8);
+        assertThat(adapterSource)
+                .contains("FactKey<?> FACT_KEY_0 = org.jeasy.rules.api.FactKey.of(\"age\")")
+                .contains("FactKey<?> FACT_KEY_1 = org.jeasy.rules.api.FactKey.of(\"log\")")
+                .doesNotContain("FACT_KEY_2")
+                .doesNotContain("facts.get(\"")
+                .doesNotContain("facts.getFact(\"");
+
+        Rule rule = RuleProxy.asRule(newInstance("com.acme.AgeRule"));
+        assertThat(rule).isInstanceOf(RuleAdapter.class);
+        assertThat(rule.getName()).isEqualTo("age rule");
+        assertThat(rule.getDescription()).isEqualTo("when isAdult then first,second");
+        assertThat(rule.getPriority()).isEqualTo(3);
+        assertThat(rule.getReadFacts()).isNull(); // the condition takes the facts
+
+        List<String> log = new ArrayList<>();
+        Facts facts = new Facts();
+        facts.put("log", log);
+        assertThat(rule.evaluate(facts)).isFalse(); // missing fact
+        facts.put("age", "eighteen");
+        assertThat(rule.evaluate(facts)).isFalse(); // mismatched fact type
+        facts.put("age", 17);
+        assertThat(rule.evaluate(facts)).isFalse();
+        facts.put("age", 18);
+        assertThat(rule.evaluate(facts)).isTrue();
+        facts.putInt("age", 20);
+        assertThat(rule.evaluate(facts)).isTrue();
+
+        rule.execute(facts);
+        assertThat(log).containsExactly("first", "second");
+
+        Rule failingRule = RuleProxy.asRule(newInstance("com.acme.AgeRule"), MissingFactPolicy.FAIL);
+        assertThat(failingRule).isInstanceOf(RuleAdapter.class);
+        facts.remove("age");
+        assertThatThrownBy(() -> failingRule.evaluate(facts)).isInstanceOf(NoSuchFactException.class);
+    }
+
+    @Test
+    public void adapterShouldWidenPrimitiveFacts() throws Exception {
+        // given
+        source("com.acme.WideningRule",
+                "package com.acme;",
+                "import org.jeasy.rules.annotation.*;",
+                "@Rule",
+                "public class WideningRule {",
+                "    @Condition",
+                "    public boolean when(@Fact(\"age\") long age, @Fact(\"weight\") double weight, @Fact(\"height\") float height) {",
+                "        return age >= 18 && weight > 50 && height > 1;",
+                "    }",
+                "    @Action",
+                "    public void then() { }",
+                "}");
+
+        // when
+        boolean compiled = compile();
+
+        // then
+        assertThat(compiled).as(diagnostics.getDiagnostics().toString()).isTrue();
+        Rule rule = RuleProxy.asRule(newInstance("com.acme.WideningRule"));
+        assertThat(rule).isInstanceOf(RuleAdapter.class);
+        assertThat(rule.getReadFacts()).containsExactly("age", "weight", "height")
+                .isSameAs(rule.getReadFacts());
+        Facts facts = new Facts();
+        facts.put("age", 30);
+        facts.putLong("weight", 70);
+        facts.put("height", (short) 2);
+        assertThat(rule.evaluate(facts)).isTrue();
+        facts.put("weight", 'A'); // char widens to double
+        assertThat(rule.evaluate(facts)).isTrue();
+        facts.put("age", 30.0); // double does not narrow to long
+        assertThat(rule.evaluate(facts)).isFalse();
+    }
+
+    @Test
+    public void adapterShouldBeGeneratedForNestedClasses() throws Exception {
+        // given
+        source("com.acme.Rules",
+                "package com.acme;",
+                "import org.jeasy.rules.annotation.*;",
+                "public class Rules {",
+                "    @Rule",
+                "    static class NestedRule implements Comparable<NestedRule> {",
+                "        private final int rank;",
+                "        public NestedRule(int rank) { this.rank = rank; }",
+                "        @Condition",
+                "        public boolean when() { return true; }",
+                "        @Action",
+                "        public void then() { }",
+                "        public int compareTo(NestedRule other) { return Integer.compare(other.rank, rank); }",
+                "    }",
+                "}");
+
+        // when
+        boolean compiled = compile();
+
+        // then
+        assertThat(compiled).as(diagnostics.getDiagnostics().toString()).isTrue();
+        Constructor<?> constructor = load("com.acme.Rules$NestedRule").getDeclaredConstructor(int.class);
+        constructor.setAccessible(true);
+        Rule rule1 = RuleProxy.asRule(constructor.newInstance(1));
+        Rule rule2 = RuleProxy.asRule(constructor.newInstance(2));
+        assertThat(rule1.getClass().getName()).isEqualTo("com.acme.Rules_NestedRule_RuleAdapter");
+        assertThat(rule1.getName()).isEqualTo("NestedRule");
+        assertThat(rule1.compareTo(rule2)).isPositive();
+        assertThat(rule2.compareTo(rule1)).isNegative();
+    }
+
+    @Test
+    public void adapterShouldOrderActionsLikeRuleProxy() throws Exception {
+        // given
+        source("com.acme.OrderedRule",
+                "package com.acme;",
+                "import org.jeasy.rules.annotation.*;",
+                "import java.util.List;",
+                "@Rule",
+                "public class OrderedRule {",
+                "    @Condition",
+                "    public boolean when() { return true; }",
+                "    @Action",
+                "    public void zulu(@Fact(\"log\") List<String> log) { log.add(\"zulu\"); }",
+                "    @Action",
+                "    public void alpha(@Fact(\"log\") List<String> log, @Fact(\"count\") int count) { log.add(\"alpha(int)\"); }",
+                "    @Action",
+                "    public void alpha(@Fact(\"log\") List<String> log) { log.add(\"alpha\"); }",
+                "    @Action(order = -1)",
+                "    public void first(@Fact(\"log\") List<String> log) { log.add(\"first\"); }",
+                "}");
+        assertThat(compile()).as(diagnostics.getDiagnostics().toString()).isTrue();
+        Rule adapter = RuleProxy.asRule(newInstance("com.acme.OrderedRule"));
+        assertThat(new File(outputDirectory, "com/acme/OrderedRule_RuleAdapter.class").delete()).isTrue();
+        Rule proxy = RuleProxy.asRule(newInstance("com.acme.OrderedRule"));
+        List<String> adapterLog = new ArrayList<>();
+        List<String> proxyLog = new ArrayList<>();
+
+        // when
+        adapter.execute(facts(adapterLog));
+        proxy.execute(facts(proxyLog));
+
+        // then
+        assertThat(adapter).isInstanceOf(RuleAdapter.class);
+        assertThat(proxy).isInstanceOf(RuleProxy.class);
+        assertThat(adapter.getDescription())
+                .isEqualTo(proxy.getDescription())
+                .isEqualTo("when when then first,alpha,alpha,zulu");
+        assertThat(adapterLog)
+                .isEqualTo(proxyLog)
+                .containsExactly("first", "alpha", "alpha(int)", "zulu");
+        assertThat(adapter).isEqualTo(proxy);
+    }
+
+    @Test
+    public void invalidRuleShouldNotCompile() throws Exception {
+        // given
+        source("com.acme.InvalidRule",
+                "package com.acme;",
+                "import org.jeasy.rules.annotation.*;",
+                "@Rule",
+                "public class InvalidRule {",
+                "    @Condition",
+                "    public String when() { return \"true\"; }",
+                "}");
+
+        // when
+        boolean compiled = compile();
+
+        // then
+        assertThat(compiled).isFalse();
+        assertThat(errors())
+                .anyMatch(message -> message.startsWith("Condition method 'when()' defined in rule 'com.acme.InvalidRule' must be public, must return boolean type"))
+                .anyMatch(message -> message.startsWith("Rule 'com.acme.InvalidRule' must have at least one public method annotated with"));
+    }
+
+    @Test
+    public void parametersWithOtherRuntimeAnnotationsShouldBeRejected() throws Exception {
+        // given
+        source("com.acme.NotNull",
+                "package com.acme;",
+                "import java.lang.annotation.*;",
+                "@Retention(RetentionPolicy.RUNTIME)",
+                "public @interface NotNull { }");
+        source("com.acme.Documented",
+                "package com.acme;",
+                "public @interface Documented { }");
+        source("com.acme.AnnotatedParametersRule",
+                "package com.acme;",
+                "import org.jeasy.rules.annotation.*;",
+                "import org.jeasy.rules.api.Facts;",
+                "@Rule",
+                "public class AnnotatedParametersRule {",
+                "    @Condition",
+                "    public boolean when(@Fact(\"x\") @NotNull String x, @Documented Facts facts) { return true; }",
+                "    @Action",
+                "    public void then(@NotNull Facts facts) { }",
+                "}");
+
+        // when
+        boolean compiled = compile();
+
+        // then
+        assertThat(compiled).isFalse();
+        assertThat(errors())
+                .anyMatch(message -> message.startsWith("Condition method 'when(java.lang.String,org.jeasy.rules.api.Facts)' defined in rule 'com.acme.AnnotatedParametersRule' must be public"))
+                .anyMatch(message -> message.startsWith("Action method 'then(org.jeasy.rules.api.Facts)' defined in rule 'com.acme.AnnotatedParametersRule' must be public"));
+    }
+
+    @Test
+    public void localClassesShouldNotBeAdapted() throws Exception {
+        // given
+        source("com.acme.Factory",
+                "package com.acme;",
+                "import org.jeasy.rules.annotation.*;",
+                "public class Factory {",
+                "    public static Object create() {",
+                "        @Rule",
+                "        class LocalRule {",
+                "            @Condition",
+                "            public boolean when() { return true; }",
+                "            @Action",
+                "            public void then() { }",
+                "        }",
+                "        return new LocalRule();",
+                "    }",
+                "}");
+
+        // when
+        boolean compiled = compile();
+
+        // then
+        assertThat(compiled).as(diagnostics.getDiagnostics().toString()).isTrue();
+        Object localRule = load("com.acme.Factory").getMethod("create").invoke(null);
+        assertThat(RuleProxy.asRule(localRule)).isInstanceOf(RuleProxy.class);
+    }
+
+    private void source(String className, String... lines) throws Exception {
+        File file = new File(sourceDirectory, className.replace('.', '/') + ".java");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+
+    private boolean compile() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<File> files = new ArrayList<>();
+            Files.walk(sourceDirectory.toPath()).filter(Files::isRegularFile).forEach(path -> files.add(path.toFile()));
+            List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", outputDirectory.getPath(),
+                    "-s", outputDirectory.getPath());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(singletonList(new RuleProcessor()));
+            return task.call();
+        }
+    }
+
+    private List<String> errors() {
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    private Class<?> load(String className) throws Exception {
+        ClassLoader classLoader = new URLClassLoader(new URL[]{outputDirectory.toURI().toURL()}, getClass().getClassLoader());
+        return Class.forName(className, true, classLoader);
+    }
+
+    private static Facts facts(List<String> log) {
+        Facts facts = new Facts();
+        facts.put("log", log);
+        facts.put("count", 1);
+        return facts;
+    }
+
+    private Object newInstance(String className) throws Exception {
+        return load(className).getConstructor().newInstance();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rules;
+import org.jeasy.rules.api.RulesEngine;
+import org.jeasy.rules.api.RulesEngineParameters;
+import org.jeasy.rules.core.InferenceRulesEngine;
+import org.jeasy.rules.core.RuleBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires a large rule base where each rule reads its own fact, while a single
+ * rule updates a counter over 10 inference cycles. With refraction, the
+ * {@link InferenceRulesEngine} evaluates again only the rule reading the counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AffectedRulesBenchmark {
+
+    private static final int CYCLES = 10;
+
+    @Param({"false", "true"})
+    private boolean refraction;
+
+    @Param({"1000", "10000"})
+    private int ruleCount;
+
+    private Rules rules;
+    private RulesEngine rulesEngine;
+    private Facts facts;
+
+    @Setup
+    public void setup() {
+        rules = new Rules();
+        for (int i = 0; i < ruleCount; i++) {
+            String amount = "amount" + i;
+            rules.register(new RuleBuilder()
+                    .name("suspicious " + amount)
+                    .when(facts -> facts.<Integer>get(amount) > 10_000)
+                    .then(facts -> facts.put("suspicious", true))
+                    .reads(amount)
+                    .build());
+        }
+        rules.register(new RuleBuilder()
+                .name("counter")
+                .when(facts -> facts.<Integer>get("count") < CYCLES)
+                .then(facts -> facts.put("count", facts.<Integer>get("count") + 1))
+                .reads("count")
+                .build());
+        rulesEngine = new InferenceRulesEngine(new RulesEngineParameters().refraction(refraction));
+        facts = new Facts();
+        for (int i = 0; i < ruleCount; i++) {
+            facts.put("amount" + i, i);
+        }
+    }
+
+    @Benchmark
+    public Facts fire() {
+        facts.put("count", 0);
+        rulesEngine.fire(rules, facts);
+        return facts;
+    }
+}
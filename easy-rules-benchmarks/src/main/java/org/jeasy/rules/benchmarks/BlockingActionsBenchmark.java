@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.api.Action;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rules;
+import org.jeasy.rules.api.RulesEngine;
+import org.jeasy.rules.core.ConcurrentAction;
+import org.jeasy.rules.core.DefaultRulesEngine;
+import org.jeasy.rules.core.RuleBuilder;
+import org.jeasy.rules.core.VirtualThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires 500 concurrent requests on a rule with two actions blocking for 1 ms each
+ * (simulating calls to a database and a cache), on a fixed pool of 16 platform
+ * threads or on {@link VirtualThreads#newExecutor()}, with actions executed one
+ * after the other or concurrently. Scores are in fires per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockingActionsBenchmark {
+
+    private static final int CONCURRENT_FIRES = 500;
+
+    @Param({"fixedPool", "virtualThreads"})
+    private String executorType;
+
+    @Param({"false", "true"})
+    private boolean concurrentActions;
+
+    private ExecutorService executor;
+    private ExecutorService actionExecutor;
+    private Rules rules;
+    private RulesEngine rulesEngine;
+
+    @Setup
+    public void setup() {
+        executor = executorType.equals("fixedPool") ? Executors.newFixedThreadPool(16) : VirtualThreads.newExecutor();
+        actionExecutor = VirtualThreads.newExecutor();
+        Action queryDatabase = facts -> Thread.sleep(1);
+        Action updateCache = facts -> Thread.sleep(1);
+        RuleBuilder ruleBuilder = new RuleBuilder()
+                .name("lookup")
+                .when(facts -> true);
+        if (concurrentActions) {
+            ruleBuilder.then(new ConcurrentAction(actionExecutor, queryDatabase, updateCache));
+        } else {
+            ruleBuilder.then(queryDatabase).then(updateCache);
+        }
+        rules = new Rules(ruleBuilder.build());
+        rulesEngine = new DefaultRulesEngine();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        actionExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_FIRES)
+    public void fire() {
+        CompletableFuture<?>[] fires = new CompletableFuture<?>[CONCURRENT_FIRES];
+        for (int i = 0; i < CONCURRENT_FIRES; i++) {
+            fires[i] = rulesEngine.fireAsync(rules, new Facts(), executor);
+        }
+        CompletableFuture.allOf(fires).join();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.api.FactKey;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.core.RuleBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates 100 rules reading the same facts by name or by {@link FactKey}, on
+ * facts reused across evaluations or created for each evaluation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactKeyBenchmark {
+
+    private static final int RULE_COUNT = 100;
+    private static final FactKey<Integer> AMOUNT = FactKey.of("amount");
+    private static final FactKey<String> COUNTRY = FactKey.of("country");
+
+    @Param({"false", "true"})
+    private boolean newFacts;
+
+    private Facts facts;
+    private Rule[] nameRules;
+    private Rule[] keyRules;
+
+    @Setup
+    public void setup() {
+        facts = facts();
+        nameRules = new Rule[RULE_COUNT];
+        keyRules = new Rule[RULE_COUNT];
+        for (int i = 0; i < RULE_COUNT; i++) {
+            int threshold = i * 10;
+            nameRules[i] = new RuleBuilder()
+                    .name("rule" + i)
+                    .when(facts -> facts.<Integer>get("amount") > threshold && facts.<String>get("country").equals("FR"))
+                    .build();
+            keyRules[i] = new RuleBuilder()
+                    .name("rule" + i)
+                    .when(facts -> facts.get(AMOUNT) > threshold && facts.get(COUNTRY).equals("FR"))
+                    .reads(AMOUNT, COUNTRY)
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public int names() {
+        return evaluate(nameRules);
+    }
+
+    @Benchmark
+    public int keys() {
+        return evaluate(keyRules);
+    }
+
+    private int evaluate(Rule[] rules) {
+        Facts facts = newFacts ? facts() : this.facts;
+        int matches = 0;
+        for (Rule rule : rules) {
+            if (rule.evaluate(facts)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static Facts facts() {
+        Facts facts = new Facts();
+        for (int i = 0; i < 20; i++) {
+            facts.put("fact" + i, i);
+        }
+        facts.put("amount", 500);
+        facts.put("country", "FR");
+        return facts;
+    }
+}
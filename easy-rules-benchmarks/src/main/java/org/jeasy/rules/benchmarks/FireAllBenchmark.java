@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.api.BatchReport;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rules;
+import org.jeasy.rules.api.RulesEngine;
+import org.jeasy.rules.api.RulesEngineParameters;
+import org.jeasy.rules.core.DefaultRulesEngine;
+import org.jeasy.rules.core.RuleBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires a 20 rule set on 10k records, one call per record or with a single
+ * batch call, on the common fork/join pool or on the calling thread.
+ * Scores are in records per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FireAllBenchmark {
+
+    private static final int RULE_COUNT = 20;
+    private static final int RECORD_COUNT = 10_000;
+
+    private Rules rules;
+    private List<Facts> records;
+    private RulesEngine rulesEngine;
+    private RulesEngine callingThreadRulesEngine;
+
+    @Setup
+    public void setup() {
+        rules = new Rules();
+        for (int i = 0; i < RULE_COUNT; i++) {
+            int threshold = i * 50;
+            rules.register(new RuleBuilder()
+                    .name("rule" + i)
+                    .priority(i)
+                    .when(facts -> facts.<Integer>get("amount") > threshold)
+                    .then(facts -> facts.put("level", threshold))
+                    .build());
+        }
+        records = new ArrayList<>(RECORD_COUNT);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            Facts facts = new Facts();
+            facts.put("amount", i % 1000);
+            records.add(facts);
+        }
+        rulesEngine = new DefaultRulesEngine(new RulesEngineParameters());
+        callingThreadRulesEngine = new DefaultRulesEngine(new RulesEngineParameters().batchExecutor(Runnable::run));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public List<Facts> fireInLoop() {
+        for (Facts facts : records) {
+            rulesEngine.fire(rules, facts);
+        }
+        return records;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public BatchReport fireAll() {
+        return rulesEngine.fireAll(rules, records);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public BatchReport fireAllOnCallingThread() {
+        return callingThreadRulesEngine.fireAll(rules, records);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.api.Fact;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rules;
+import org.jeasy.rules.api.RulesEngine;
+import org.jeasy.rules.core.DefaultRulesEngine;
+import org.jeasy.rules.core.RuleBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds per-request facts on top of shared facts (configuration, reference data)
+ * and fires a rule reading both, either by copying the shared facts in each request
+ * or by using them as frozen parent of the request facts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayeredFactsBenchmark {
+
+    @Param({"10", "100"})
+    private int sharedFactCount;
+
+    private Facts shared;
+    private Rules rules;
+    private RulesEngine rulesEngine;
+
+    @Setup
+    public void setup() {
+        Facts config = new Facts();
+        for (int i = 0; i < sharedFactCount; i++) {
+            config.put("config" + i, i);
+        }
+        shared = config.frozenCopy();
+        rules = new Rules(new RuleBuilder()
+                .name("over limit")
+                .when(facts -> facts.<Integer>get("amount") > facts.<Integer>get("config0"))
+                .then(facts -> facts.put("rejected", true))
+                .build());
+        rulesEngine = new DefaultRulesEngine();
+    }
+
+    @Benchmark
+    public Facts copy() {
+        Facts facts = new Facts();
+        for (Fact<?> fact : shared) {
+            facts.add(fact);
+        }
+        return fire(facts);
+    }
+
+    @Benchmark
+    public Facts layered() {
+        return fire(new Facts(shared));
+    }
+
+    private Facts fire(Facts facts) {
+        facts.put("amount", 42);
+        facts.put("user", "foo");
+        rulesEngine.fire(rules, facts);
+        return facts;
+    }
+}
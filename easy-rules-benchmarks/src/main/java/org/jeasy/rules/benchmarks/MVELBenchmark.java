@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.api.Condition;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.mvel.MVELCondition;
+import org.mvel2.MVEL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates the conditions of a 200-rule MVEL rule set, resolving variables from
+ * a copy of the facts (as done before {@link org.jeasy.rules.mvel.FactsVariableResolverFactory})
+ * and directly from facts through {@link MVELCondition}.
+ *
+ * Run with {@code -prof gc} to compare allocation rates ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MVELBenchmark {
+
+    private static final int RULE_COUNT = 200;
+    private static final int FACT_COUNT = 20;
+
+    private Facts facts;
+    private Serializable[] compiledExpressions;
+    private Condition[] conditions;
+
+    @Setup
+    public void setup() {
+        facts = new Facts();
+        for (int i = 0; i < FACT_COUNT; i++) {
+            facts.put("amount" + i, i * 100);
+        }
+        compiledExpressions = new Serializable[RULE_COUNT];
+        conditions = new Condition[RULE_COUNT];
+        for (int i = 0; i < RULE_COUNT; i++) {
+            String expression = "amount" + (i % FACT_COUNT) + " > " + (i * 10);
+            compiledExpressions[i] = MVEL.compileExpression(expression);
+            conditions[i] = new MVELCondition(expression);
+        }
+    }
+
+    @Benchmark
+    public int mapCopy() {
+        int matches = 0;
+        for (Serializable compiledExpression : compiledExpressions) {
+            if ((boolean) MVEL.executeExpression(compiledExpression, facts.asMap())) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int factsVariableResolverFactory() {
+        int matches = 0;
+        for (Condition condition : conditions) {
+            if (condition.evaluate(facts)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.annotation.Action;
+import org.jeasy.rules.annotation.Condition;
+import org.jeasy.rules.annotation.Fact;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.core.RuleProxy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates a counter and an amount then evaluates and executes an annotated rule
+ * reading them, with boxed facts or with primitive facts. Run with {@code -prof gc}
+ * to compare the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveFactsBenchmark {
+
+    private Rule rule;
+    private Facts facts;
+    private long counter;
+
+    @Setup
+    public void setup() {
+        rule = RuleProxy.asRule(new ScoreRule());
+        facts = new Facts();
+    }
+
+    @Benchmark
+    public Facts boxed() throws Exception {
+        counter++;
+        facts.put("count", counter);
+        facts.put("amount", counter * 1.5);
+        if (rule.evaluate(facts)) {
+            rule.execute(facts);
+        }
+        return facts;
+    }
+
+    @Benchmark
+    public Facts primitive() throws Exception {
+        counter++;
+        facts.putLong("count", counter);
+        facts.putDouble("amount", counter * 1.5);
+        if (rule.evaluate(facts)) {
+            rule.execute(facts);
+        }
+        return facts;
+    }
+
+    @org.jeasy.rules.annotation.Rule
+    public static class ScoreRule {
+
+        private double total;
+
+        @Condition
+        public boolean when(@Fact("count") long count, @Fact("amount") double amount) {
+            return count % 2 == 0 && amount > 0;
+        }
+
+        @Action
+        public void then(@Fact("amount") double amount) {
+            total += amount;
+        }
+    }
+}
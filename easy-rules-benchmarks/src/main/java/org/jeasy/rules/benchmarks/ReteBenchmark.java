@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rules;
+import org.jeasy.rules.api.RulesEngine;
+import org.jeasy.rules.api.RulesEngineParameters;
+import org.jeasy.rules.core.InferenceRulesEngine;
+import org.jeasy.rules.core.PatternRuleBuilder;
+import org.jeasy.rules.core.ReteRulesEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Fires pattern rules over 20 inference cycles with the {@link InferenceRulesEngine}
+ * (with and without refraction) and the {@link ReteRulesEngine}, as rule and fact
+ * counts grow.
+ *
+ * Each rule matches a "stage" fact and one of the other facts, and updates the
+ * latter. At each stage, a last rule moves to the next stage, so each cycle fires
+ * a different slice of the rules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReteBenchmark {
+
+    private static final int CYCLES = 20;
+
+    @Param({"inference", "refraction", "rete"})
+    private String engine;
+
+    @Param({"100", "1000", "3000"})
+    private int ruleCount;
+
+    @Param({"10", "100"})
+    private int factCount;
+
+    private Rules rules;
+    private RulesEngine rulesEngine;
+
+    @Setup
+    public void setup() {
+        rules = new Rules();
+        Predicate<Integer> positive = value -> value >= 0;
+        for (int i = 0; i < CYCLES; i++) {
+            int stage = i;
+            Predicate<Integer> atStage = value -> value == stage;
+            for (int j = 0; j < ruleCount / CYCLES; j++) {
+                String fact = "fact" + ((i * ruleCount / CYCLES + j) % factCount);
+                rules.register(new PatternRuleBuilder()
+                        .name("rule " + stage + "-" + j)
+                        .priority(j)
+                        .when("stage", Integer.class, atStage)
+                        .when(fact, Integer.class, positive)
+                        .then(facts -> facts.put(fact, facts.<Integer>get(fact) + 1))
+                        .build());
+            }
+            rules.register(new PatternRuleBuilder()
+                    .name("next stage " + stage)
+                    .priority(Integer.MAX_VALUE - 1)
+                    .when("stage", Integer.class, atStage)
+                    .then(facts -> facts.put("stage", stage + 1))
+                    .build());
+        }
+        switch (engine) {
+            case "rete":
+                rulesEngine = new ReteRulesEngine();
+                break;
+            case "refraction":
+                rulesEngine = new InferenceRulesEngine(new RulesEngineParameters().refraction(true));
+                break;
+            default:
+                rulesEngine = new InferenceRulesEngine();
+        }
+    }
+
+    @Benchmark
+    public Facts fire() {
+        Facts facts = new Facts();
+        facts.put("stage", 0);
+        for (int i = 0; i < factCount; i++) {
+            facts.put("fact" + i, 0);
+        }
+        rulesEngine.fire(rules, facts);
+        return facts;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.annotation.Action;
+import org.jeasy.rules.annotation.Condition;
+import org.jeasy.rules.annotation.Fact;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.core.BasicRule;
+import org.jeasy.rules.core.RuleBuilder;
+import org.jeasy.rules.core.RuleProxy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates and executes 100 equivalent rules defined as annotated objects
+ * (through {@link RuleProxy}), with the {@link RuleBuilder} and as {@link BasicRule}
+ * subclasses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleInvocationBenchmark {
+
+    private static final int RULE_COUNT = 100;
+
+    private Facts facts;
+    private Rule[] annotatedRules;
+    private Rule[] builderRules;
+    private Rule[] basicRules;
+
+    @Setup
+    public void setup() {
+        facts = new Facts();
+        facts.put("amount", 500);
+        facts.put("counter", new Counter());
+        annotatedRules = new Rule[RULE_COUNT];
+        builderRules = new Rule[RULE_COUNT];
+        basicRules = new Rule[RULE_COUNT];
+        for (int i = 0; i < RULE_COUNT; i++) {
+            int threshold = i * 10;
+            annotatedRules[i] = RuleProxy.asRule(new AnnotatedRule(threshold));
+            builderRules[i] = new RuleBuilder()
+                    .name("rule" + i)
+                    .when(facts -> facts.<Integer>get("amount") > threshold)
+                    .then(facts -> facts.<Counter>get("counter").increment())
+                    .build();
+            basicRules[i] = new ThresholdRule(threshold);
+        }
+    }
+
+    @Benchmark
+    public int annotatedRules() throws Exception {
+        return fire(annotatedRules);
+    }
+
+    @Benchmark
+    public int builderRules() throws Exception {
+        return fire(builderRules);
+    }
+
+    @Benchmark
+    public int basicRules() throws Exception {
+        return fire(basicRules);
+    }
+
+    private int fire(Rule[] rules) throws Exception {
+        Counter counter = facts.get("counter");
+        counter.value = 0;
+        for (Rule rule : rules) {
+            if (rule.evaluate(facts)) {
+                rule.execute(facts);
+            }
+        }
+        return counter.value;
+    }
+
+    public static class Counter {
+
+        private int value;
+
+        void increment() {
+            value++;
+        }
+    }
+
+    @org.jeasy.rules.annotation.Rule
+    public static class AnnotatedRule {
+
+        private final int threshold;
+
+        AnnotatedRule(int threshold) {
+            this.threshold = threshold;
+        }
+
+        @Condition
+        public boolean when(@Fact("amount") int amount) {
+            return amount > threshold;
+        }
+
+        @Action
+        public void then(@Fact("counter") Counter counter) {
+            counter.increment();
+        }
+    }
+
+    public static class ThresholdRule extends BasicRule {
+
+        private final int threshold;
+
+        ThresholdRule(int threshold) {
+            super("rule" + threshold);
+            this.threshold = threshold;
+        }
+
+        @Override
+        public boolean evaluate(Facts facts) {
+            return facts.<Integer>get("amount") > threshold;
+        }
+
+        @Override
+        public void execute(Facts facts) {
+            facts.<Counter>get("counter").increment();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.annotation.Action;
+import org.jeasy.rules.annotation.Condition;
+import org.jeasy.rules.annotation.Fact;
+import org.jeasy.rules.annotation.Priority;
+import org.jeasy.rules.api.Rules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers 50k annotated rule instances, created from a few parameterized rule
+ * classes (as done for per-tenant rules), in a {@link Rules} set.
+ *
+ * The first iteration includes the validation of the rule classes, the following
+ * ones only create rules for new instances of known classes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RuleRegistrationBenchmark {
+
+    private static final int RULE_COUNT = 50_000;
+
+    private Object[] ruleObjects;
+
+    @Setup
+    public void setup() {
+        ruleObjects = new Object[RULE_COUNT];
+        for (int i = 0; i < RULE_COUNT; i++) {
+            switch (i % 4) {
+                case 0:
+                    ruleObjects[i] = new AmountRule(i, i * 10);
+                    break;
+                case 1:
+                    ruleObjects[i] = new AgeRule(i, i % 100);
+                    break;
+                case 2:
+                    ruleObjects[i] = new CountryRule(i, "country" + i % 200);
+                    break;
+                default:
+                    ruleObjects[i] = new VipRule(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public int register() {
+        Rules rules = new Rules();
+        rules.register(ruleObjects);
+        return rules.size();
+    }
+
+    public abstract static class TenantRule {
+
+        private final int priority;
+
+        TenantRule(int priority) {
+            this.priority = priority;
+        }
+
+        @Priority
+        public int getPriority() {
+            return priority;
+        }
+
+        @Action
+        public void then(@Fact("decisions") StringBuilder decisions) {
+            decisions.append(priority).append(',');
+        }
+    }
+
+    @org.jeasy.rules.annotation.Rule(name = "amount rule")
+    public static class AmountRule extends TenantRule {
+
+        private final int threshold;
+
+        AmountRule(int priority, int threshold) {
+            super(priority);
+            this.threshold = threshold;
+        }
+
+        @Condition
+        public boolean when(@Fact("amount") int amount) {
+            return amount > threshold;
+        }
+    }
+
+    @org.jeasy.rules.annotation.Rule(name = "age rule")
+    public static class AgeRule extends TenantRule {
+
+        private final int minimumAge;
+
+        AgeRule(int priority, int minimumAge) {
+            super(priority);
+            this.minimumAge = minimumAge;
+        }
+
+        @Condition
+        public boolean when(@Fact("age") int age) {
+            return age >= minimumAge;
+        }
+    }
+
+    @org.jeasy.rules.annotation.Rule(name = "country rule")
+    public static class CountryRule extends TenantRule {
+
+        private final String country;
+
+        CountryRule(int priority, String country) {
+            super(priority);
+            this.country = country;
+        }
+
+        @Condition
+        public boolean when(@Fact("country") String country) {
+            return this.country.equals(country);
+        }
+    }
+
+    @org.jeasy.rules.annotation.Rule(name = "vip rule")
+    public static class VipRule extends TenantRule {
+
+        VipRule(int priority) {
+            super(priority);
+        }
+
+        @Condition
+        public boolean when(@Fact("vip") boolean vip) {
+            return vip;
+        }
+    }
+}
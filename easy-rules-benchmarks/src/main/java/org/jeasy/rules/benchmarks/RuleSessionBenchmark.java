@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.RuleSession;
+import org.jeasy.rules.api.Rules;
+import org.jeasy.rules.api.RulesEngineParameters;
+import org.jeasy.rules.core.DefaultRulesEngine;
+import org.jeasy.rules.core.InferenceRulesEngine;
+import org.jeasy.rules.core.RuleBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies 1M single-fact updates to 1k rules, each reading its own fact, and
+ * fires rules after each update: either with a {@link RuleSession}, or
+ * statelessly with a {@link DefaultRulesEngine}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class RuleSessionBenchmark {
+
+    private static final int RULES = 1_000;
+    private static final int UPDATES = 1_000_000;
+
+    @Param({"session", "stateless"})
+    private String mode;
+
+    private Rules rules;
+    private DefaultRulesEngine statelessEngine;
+    private RuleSession session;
+    private Facts facts;
+
+    @Setup
+    public void setup() {
+        rules = new Rules();
+        for (int i = 0; i < RULES; i++) {
+            String reading = "reading" + i;
+            rules.register(new RuleBuilder()
+                    .name("threshold " + reading)
+                    .when(facts -> facts.<Integer>get(reading) > 90)
+                    .then(facts -> facts.put("alert", reading))
+                    .reads(reading)
+                    .build());
+        }
+        statelessEngine = new DefaultRulesEngine(new RulesEngineParameters().ruleTracing(false));
+        session = new InferenceRulesEngine(new RulesEngineParameters().ruleTracing(false)).newSession(rules);
+        facts = session.getFacts();
+        for (int i = 0; i < RULES; i++) {
+            session.insert("reading" + i, 0);
+        }
+        session.fireAll();
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public int updates() {
+        int executions = 0;
+        for (int i = 0; i < UPDATES; i++) {
+            String reading = "reading" + (i % RULES);
+            int value = (i * 7) % 100;
+            if (mode.equals("session")) {
+                session.update(reading, value);
+                executions += session.fireAll();
+            } else {
+                facts.put(reading, value);
+                statelessEngine.fire(rules, facts);
+            }
+        }
+        return executions;
+    }
+}
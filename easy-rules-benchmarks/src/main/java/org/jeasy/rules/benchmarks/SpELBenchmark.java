@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.benchmarks;
+
+import org.jeasy.rules.api.Condition;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.spel.SpELCondition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates the conditions of a 200-rule SpEL rule set in each {@link SpelCompilerMode}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpELBenchmark {
+
+    private static final int RULE_COUNT = 200;
+    private static final int FACT_COUNT = 20;
+
+    @Param({"OFF", "IMMEDIATE", "MIXED"})
+    private SpelCompilerMode compilerMode;
+
+    private Facts facts;
+    private Condition[] conditions;
+
+    @Setup
+    public void setup() {
+        facts = new Facts();
+        for (int i = 0; i < FACT_COUNT; i++) {
+            facts.put("amount" + i, i * 100);
+        }
+        conditions = new Condition[RULE_COUNT];
+        for (int i = 0; i < RULE_COUNT; i++) {
+            String expression = "#{ amount" + (i % FACT_COUNT) + " > " + (i * 10) + " }";
+            conditions[i] = new SpELCondition(expression, ParserContext.TEMPLATE_EXPRESSION, null, compilerMode);
+        }
+    }
+
+    @Benchmark
+    public int evaluate() {
+        int matches = 0;
+        for (Condition condition : conditions) {
+            if (condition.evaluate(facts)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
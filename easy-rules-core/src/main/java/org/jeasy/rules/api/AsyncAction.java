@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.api;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A rule action that completes asynchronously, like a call to a non-blocking client.
+ *
+ * When rules are fired with {@link RulesEngine#fireAsync(Rules, Facts, java.util.concurrent.Executor)},
+ * the next actions and rules are chained on the returned stage instead of blocking
+ * a thread until it completes. When rules are fired synchronously, {@link #execute(Facts)}
+ * waits for the returned stage to complete.
+ */
+@FunctionalInterface
+public interface AsyncAction extends Action {
+
+    /**
+     * Start the action when the rule's condition evaluates to true.
+     *
+     * @param facts known at the time of execution of the action
+     * @return a stage completed when the action is done
+     * @throws Exception when unable to start the action
+     */
+    CompletionStage<Void> executeAsync(Facts facts) throws Exception;
+
+    /**
+     * Execute the action and wait for it to complete.
+     *
+     * @param facts known at the time of execution of the action
+     * @throws Exception when the action failed
+     */
+    @Override
+    default void execute(Facts facts) throws Exception {
+        try {
+            executeAsync(facts).toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.api;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report of a {@link RulesEngine#fireAll(Rules, Iterable)} call: how many facts
+ * were fired, how long it took, and how long each batch took.
+ */
+public final class BatchReport {
+
+    private final long factsCount;
+    private final long elapsedNanos;
+    private final long[] batchNanos;
+
+    /**
+     * Create a new {@link BatchReport}.
+     *
+     * @param factsCount number of facts fired
+     * @param elapsedNanos wall clock time of the whole call, in nanoseconds
+     * @param batchNanos time spent firing each batch, in nanoseconds and in batch order
+     */
+    public BatchReport(final long factsCount, final long elapsedNanos, final long[] batchNanos) {
+        this.factsCount = factsCount;
+        this.elapsedNanos = elapsedNanos;
+        this.batchNanos = batchNanos.clone();
+    }
+
+    /**
+     * Return the number of facts fired.
+     *
+     * @return the number of facts fired
+     */
+    public long getFactsCount() {
+        return factsCount;
+    }
+
+    /**
+     * Return the wall clock time of the whole call.
+     *
+     * @return the elapsed time
+     */
+    public Duration getElapsedTime() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * Return the number of batches.
+     *
+     * @return the number of batches
+     */
+    public int getBatchCount() {
+        return batchNanos.length;
+    }
+
+    /**
+     * Return the time spent firing each batch, in batch order.
+     *
+     * @return an unmodifiable list of batch times
+     */
+    public List<Duration> getBatchTimes() {
+        List<Duration> batchTimes = new ArrayList<>(batchNanos.length);
+        for (long nanos : batchNanos) {
+            batchTimes.add(Duration.ofNanos(nanos));
+        }
+        return Collections.unmodifiableList(batchTimes);
+    }
+
+    /**
+     * Return how many facts were fired per second of wall clock time.
+     *
+     * @return the throughput in facts per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : factsCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Batch report { " +
+                "factsCount = " + factsCount +
+                ", batchCount = " + batchNanos.length +
+                ", elapsedTime = " + getElapsedTime() +
+                ", throughput = " + String.format("%.1f", getThroughput()) + " facts/s" +
+                " }";
+    }
+}
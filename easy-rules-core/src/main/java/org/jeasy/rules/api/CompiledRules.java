@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.api;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a {@link Rules} set, as returned by {@link Rules#compile()}.
+ *
+ * The rules are frozen in their natural order into an array, along with their
+ * names and priorities, so that rules engines can iterate over them without
+ * walking the underlying sorted set or querying each rule again.
+ */
+public final class CompiledRules {
+
+    private final Rule[] rules;
+    private final String[] names;
+    private final int[] priorities;
+    private final boolean sortedByPriority;
+
+    CompiledRules(final Iterable<Rule> rules, final int size) {
+        this.rules = new Rule[size];
+        this.names = new String[size];
+        this.priorities = new int[size];
+        boolean sortedByPriority = true;
+        int i = 0;
+        for (Rule rule : rules) {
+            this.rules[i] = rule;
+            this.names[i] = rule.getName();
+            this.priorities[i] = rule.getPriority();
+            if (i > 0 && priorities[i] < priorities[i - 1]) {
+                sortedByPriority = false; // rules with a custom order
+            }
+            i++;
+        }
+        this.sortedByPriority = sortedByPriority;
+    }
+
+    /**
+     * Return how many rules are in this snapshot.
+     *
+     * @return the number of rules
+     */
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * Check if this snapshot is empty.
+     *
+     * @return true if there are no rules, false otherwise
+     */
+    public boolean isEmpty() {
+        return rules.length == 0;
+    }
+
+    /**
+     * Return the rule at the given index.
+     *
+     * @param index of the rule, in natural order
+     * @return the rule at the given index
+     */
+    public Rule getRule(final int index) {
+        return rules[index];
+    }
+
+    /**
+     * Return the name of the rule at the given index, as it was when the rules were compiled.
+     *
+     * @param index of the rule, in natural order
+     * @return the name of the rule at the given index
+     */
+    public String getName(final int index) {
+        return names[index];
+    }
+
+    /**
+     * Return the priority of the rule at the given index, as it was when the rules were compiled.
+     *
+     * @param index of the rule, in natural order
+     * @return the priority of the rule at the given index
+     */
+    public int getPriority(final int index) {
+        return priorities[index];
+    }
+
+    /**
+     * Return the index of the given rule, found by binary search in natural order.
+     *
+     * @param rule to look for
+     * @return the index of the rule, or -1 if it is not in this snapshot
+     */
+    public int indexOf(final Rule rule) {
+        int index = Arrays.binarySearch(rules, rule);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Return the index of the first rule whose priority exceeds the given threshold.
+     * Rules from this index on should be skipped.
+     *
+     * @param priorityThreshold rule priority threshold
+     * @return the index of the first rule whose priority exceeds the threshold, or
+     * {@link #size()} if there is none
+     */
+    public int cutoff(final int priorityThreshold) {
+        if (priorityThreshold == Integer.MAX_VALUE) {
+            return rules.length;
+        }
+        if (!sortedByPriority) {
+            for (int i = 0; i < priorities.length; i++) {
+                if (priorities[i] > priorityThreshold) {
+                    return i;
+                }
+            }
+            return priorities.length;
+        }
+        // search the first index of priorityThreshold + 1, priorities may contain duplicates
+        int index = Arrays.binarySearch(priorities, priorityThreshold + 1);
+        if (index < 0) {
+            return -(index + 1);
+        }
+        while (index > 0 && priorities[index - 1] == priorityThreshold + 1) {
+            index--;
+        }
+        return index;
+    }
+}
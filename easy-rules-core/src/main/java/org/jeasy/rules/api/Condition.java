@@ -23,6 +23,8 @@
  */
 package org.jeasy.rules.api;
 
+import java.util.Set;
+
 /**
  * This interface represents a rule's condition.
  *
@@ -40,6 +42,19 @@ public interface Condition {
      */
     boolean evaluate(Facts facts);
 
+    /**
+     * Return the names of the facts read by this condition, if known. Inference
+     * engines use them to evaluate the condition again only when one of these
+     * facts changes. A condition reading facts that are not declared here may be
+     * left with a stale result.
+     *
+     * @return the names of the facts read by this condition, or null if unknown
+     * (the condition is then evaluated again when any fact changes)
+     */
+    default Set<String> getReadFacts() {
+        return null;
+    }
+
     /**
      * A NoOp {@link Condition} that always returns false.
      */
@@ -49,6 +49,15 @@ public class Fact<T> {
 		this.value = value;
 	}
 
+	/*
+	 * Create a fact whose value is held by a subclass (see PrimitiveFact).
+	 */
+	Fact(String name) {
+		Objects.requireNonNull(name, "name must not be null");
+		this.name = name;
+		this.value = null;
+	}
+
 	/**
 	 * Get the fact name.
 	 * @return fact name
@@ -65,11 +74,55 @@ public class Fact<T> {
 		return value;
 	}
 
+	/**
+	 * Get the type of the fact value, that is the wrapper type for primitive values.
+	 * @return fact value type
+	 */
+	public Class<?> getType() {
+		return value.getClass();
+	}
+
+	/**
+	 * Get the fact value as an int, without boxing if it is held as a primitive.
+	 * @return fact value
+	 * @throws ClassCastException if the fact value is not an {@link Integer}
+	 */
+	public int getInt() {
+		return (Integer) value;
+	}
+
+	/**
+	 * Get the fact value as a long, without boxing if it is held as a primitive.
+	 * @return fact value
+	 * @throws ClassCastException if the fact value is not a {@link Long}
+	 */
+	public long getLong() {
+		return (Long) value;
+	}
+
+	/**
+	 * Get the fact value as a double, without boxing if it is held as a primitive.
+	 * @return fact value
+	 * @throws ClassCastException if the fact value is not a {@link Double}
+	 */
+	public double getDouble() {
+		return (Double) value;
+	}
+
+	/**
+	 * Get the fact value as a boolean, without boxing if it is held as a primitive.
+	 * @return fact value
+	 * @throws ClassCastException if the fact value is not a {@link Boolean}
+	 */
+	public boolean getBoolean() {
+		return (Boolean) value;
+	}
+
 	@Override
 	public String toString() {
 		return "Fact{" +
 				"name='" + name + '\'' +
-				", value=" + value +
+				", value=" + getValue() +
 				'}';
 	}
 
@@ -81,7 +134,7 @@ public class Fact<T> {
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
-		if (o == null || getClass() != o.getClass()) return false;
+		if (!(o instanceof Fact)) return false;
 		Fact<?> fact = (Fact<?>) o;
 		return name.equals(fact.name);
 	}
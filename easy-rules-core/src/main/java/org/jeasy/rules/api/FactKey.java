@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.api;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A typed handle on the facts with a given name. Keys are interned: there is a
+ * single key per name, identified by a unique index that {@link Facts} use to
+ * resolve the fact to an array slot, so reading a fact with its key (see
+ * {@link Facts#get(FactKey)}) does not hash or compare its name.
+ *
+ * Keys are never released, so they should be created for a bounded set of names,
+ * typically as constants:
+ * <pre>
+ * static final FactKey&lt;Integer&gt; AGE = FactKey.of("age");
+ * ...
+ * Rule rule = new RuleBuilder()
+ *         .when(facts -&gt; facts.get(AGE) &gt;= 18)
+ *         .reads(AGE)
+ *         ...
+ * </pre>
+ *
+ * @param <T> type of the fact value
+ */
+public final class FactKey<T> {
+
+    private static final ConcurrentMap<String, FactKey<?>> KEYS = new ConcurrentHashMap<>();
+    private static final AtomicInteger INDEXES = new AtomicInteger();
+
+    private final String name;
+    final int index;
+
+    private FactKey(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * Get the key of the facts with the given name.
+     *
+     * @param name of the facts, must not be null
+     * @param <T> type of the fact value
+     * @return the key of the given name
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> FactKey<T> of(String name) {
+        Objects.requireNonNull(name, "fact name must not be null");
+        FactKey<?> key = KEYS.get(name);
+        if (key == null) {
+            key = KEYS.computeIfAbsent(name, n -> new FactKey<>(n, INDEXES.getAndIncrement()));
+        }
+        return (FactKey<T>) key;
+    }
+
+    /*
+     * Get the key of the given name if one was created.
+     */
+    static FactKey<?> find(String name) {
+        return KEYS.get(name);
+    }
+
+    /**
+     * Get the name of the facts designated by this key.
+     *
+     * @return fact name
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "FactKey{" +
+                "name='" + name + '\'' +
+                '}';
+    }
+}
@@ -23,10 +23,14 @@
  */
 package org.jeasy.rules.api;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
@@ -34,11 +38,102 @@ import java.util.Set;
  * This class encapsulates a set of facts and represents a facts namespace.
  * Facts have unique names within a <code>Facts</code> object.
  *
+ * Facts are indexed by name, so looking up, adding or removing a fact
+ * takes constant time regardless of the number of facts in the namespace.
+ *
+ * Facts shared by many namespaces (configuration, reference data, etc) can be
+ * put once in a frozen namespace (see {@link #frozenCopy()}) used as parent of
+ * each namespace (see {@link #Facts(Facts)}). Reads fall through to the parent,
+ * while writes and removals only affect the child namespace, so creating a child
+ * costs nothing whatever the size of the parent. A frozen namespace cannot be
+ * modified and can be shared between threads.
+ *
+ * Int, long, double and boolean facts can be put and read without boxing with
+ * primitive accessors like {@link #putLong(String, long)} and {@link #getLong(String)}.
+ * Like any other fact, a primitive fact is immutable: putting a new value replaces
+ * the fact, so facts obtained before with {@link #getFact(String)} or by iteration
+ * keep the value they had.
+ *
+ * Facts can also be read with a {@link FactKey}: each namespace caches the facts
+ * it resolves by key in an array indexed by key, so reading a fact again with the
+ * same key (see {@link #get(FactKey)}) is an array access until the fact changes.
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public class Facts implements Iterable<Fact<?>> {
 
-    private final Set<Fact<?>> facts = new HashSet<>();
+    private static final FactsListener[] NO_LISTENERS = new FactsListener[0];
+    // cached in slots of facts that are not in the namespace
+    private static final Fact<?> MISSING = new Fact<>("");
+
+    private final Map<String, Fact<?>> facts;
+    private final Facts parent;
+    private final boolean frozen;
+    // names of facts of the parent removed from this namespace
+    private Set<String> hidden;
+    // facts resolved by key, indexed by key (null if not resolved yet), not used by frozen facts
+    private Fact<?>[] slots;
+    private Map<String, Object> unmodifiableMap;
+    private FactsListener[] listeners = NO_LISTENERS;
+    // token of the pool these facts are borrowed from, if any
+    Object lease;
+
+    /**
+     * Create a new empty facts namespace.
+     */
+    public Facts() {
+        this.facts = new HashMap<>();
+        this.parent = null;
+        this.frozen = false;
+    }
+
+    /**
+     * Create a new facts namespace on top of a frozen parent namespace. Facts
+     * of the parent are visible in this namespace unless they are replaced or
+     * removed. The parent is not modified.
+     *
+     * @param parent frozen namespace, must not be null
+     * @throws IllegalArgumentException if the parent is not frozen
+     * @see #frozenCopy()
+     */
+    public Facts(Facts parent) {
+        Objects.requireNonNull(parent, "parent facts must not be null");
+        if (!parent.frozen) {
+            throw new IllegalArgumentException("Parent facts must be frozen");
+        }
+        this.facts = new HashMap<>();
+        this.parent = parent;
+        this.frozen = false;
+    }
+
+    private Facts(Iterable<Fact<?>> facts) {
+        this.facts = new HashMap<>();
+        for (Fact<?> fact : facts) {
+            this.facts.put(fact.getName(), fact);
+        }
+        this.parent = null;
+        this.frozen = true;
+    }
+
+    /**
+     * Return a frozen copy of these facts, including facts of the parent namespace
+     * if any. A frozen copy cannot be modified and can be shared between threads,
+     * for instance as parent of other namespaces.
+     *
+     * @return a frozen copy of these facts, or these facts if they are already frozen
+     */
+    public Facts frozenCopy() {
+        return frozen ? this : new Facts((Iterable<Fact<?>>) this);
+    }
+
+    /**
+     * Check if these facts are frozen.
+     *
+     * @return true if these facts cannot be modified
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
 
     /**
      * Add a fact, replacing any fact with the same name.
@@ -49,11 +144,31 @@ public class Facts implements Iterable<Fact<?>> {
     public <T> void put(String name, T value) {
         Objects.requireNonNull(name, "fact name must not be null");
         Objects.requireNonNull(value, "fact value must not be null");
-        Fact<?> retrievedFact = getFact(name);
-        if (retrievedFact != null) {
-            remove(retrievedFact);
+        checkNotFrozen();
+        facts.put(name, new Fact<>(name, value));
+        unhide(name);
+        forget(name);
+        changed(name);
+    }
+
+    /**
+     * Add a fact, replacing any fact with the same name.
+     *
+     * @param key of the fact to add, must not be null
+     * @param value of the fact to add, must not be null
+     */
+    public <T> void put(FactKey<T> key, T value) {
+        Objects.requireNonNull(key, "fact key must not be null");
+        Objects.requireNonNull(value, "fact value must not be null");
+        checkNotFrozen();
+        String name = key.getName();
+        Fact<T> fact = new Fact<>(name, value);
+        facts.put(name, fact);
+        unhide(name);
+        if (slots != null && key.index < slots.length) {
+            slots[key.index] = fact;
         }
-        add(new Fact<>(name, value));
+        changed(name);
     }
     
     /**
@@ -63,11 +178,60 @@ public class Facts implements Iterable<Fact<?>> {
      */
     public <T> void add(Fact<T> fact) {
         Objects.requireNonNull(fact, "fact must not be null");
-        Fact<?> retrievedFact = getFact(fact.getName());
-        if (retrievedFact != null) {
-            remove(retrievedFact);
-        }
-        facts.add(fact);
+        checkNotFrozen();
+        facts.put(fact.getName(), fact);
+        unhide(fact.getName());
+        forget(fact.getName());
+        changed(fact.getName());
+    }
+
+    /**
+     * Add an int fact, replacing any fact with the same name.
+     *
+     * @param name of the fact to add, must not be null
+     * @param value of the fact to add
+     */
+    public void putInt(String name, int value) {
+        putPrimitive(name, Integer.class, value);
+    }
+
+    /**
+     * Add a long fact, replacing any fact with the same name.
+     *
+     * @param name of the fact to add, must not be null
+     * @param value of the fact to add
+     */
+    public void putLong(String name, long value) {
+        putPrimitive(name, Long.class, value);
+    }
+
+    /**
+     * Add a double fact, replacing any fact with the same name.
+     *
+     * @param name of the fact to add, must not be null
+     * @param value of the fact to add
+     */
+    public void putDouble(String name, double value) {
+        putPrimitive(name, Double.class, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Add a boolean fact, replacing any fact with the same name.
+     *
+     * @param name of the fact to add, must not be null
+     * @param value of the fact to add
+     */
+    public void putBoolean(String name, boolean value) {
+        putPrimitive(name, Boolean.class, value ? 1 : 0);
+    }
+
+    private void putPrimitive(String name, Class<?> type, long bits) {
+        Objects.requireNonNull(name, "fact name must not be null");
+        checkNotFrozen();
+        facts.put(name, new PrimitiveFact(name, type, bits));
+        unhide(name);
+        forget(name);
+        changed(name);
     }
 
     /**
@@ -77,9 +241,17 @@ public class Facts implements Iterable<Fact<?>> {
      */
     public void remove(String factName) {
         Objects.requireNonNull(factName, "fact name must not be null");
-        Fact<?> fact = getFact(factName);
-        if (fact != null) {
-            remove(fact);
+        checkNotFrozen();
+        boolean removed = facts.remove(factName) != null;
+        if (parent != null && parent.facts.containsKey(factName)) {
+            if (hidden == null) {
+                hidden = new HashSet<>();
+            }
+            removed |= hidden.add(factName);
+        }
+        if (removed) {
+            forget(factName);
+            changed(factName);
         }
     }
 
@@ -90,7 +262,7 @@ public class Facts implements Iterable<Fact<?>> {
      */
     public <T> void remove(Fact<T> fact) {
         Objects.requireNonNull(fact, "fact must not be null");
-        facts.remove(fact);
+        remove(fact.getName());
     }
 
     /**
@@ -105,7 +277,7 @@ public class Facts implements Iterable<Fact<?>> {
     @SuppressWarnings("unchecked")
     public <T> T get(String factName) {
         Objects.requireNonNull(factName, "fact name must not be null");
-        Fact<?> fact = getFact(factName);
+        Fact<?> fact = lookup(factName);
         if (fact != null) {
             return (T) fact.getValue();
         }
@@ -120,10 +292,206 @@ public class Facts implements Iterable<Fact<?>> {
      */
     public Fact<?> getFact(String factName) {
         Objects.requireNonNull(factName, "fact name must not be null");
-        return facts.stream()
-                .filter(fact -> fact.getName().equals(factName))
-                .findFirst()
-                .orElse(null);
+        return lookup(factName);
+    }
+
+    /**
+     * Get the value of a fact by its key.
+     *
+     * @param key of the fact, must not be null
+     * @param <T> type of the fact's value
+     * @return the value of the fact having the key's name, or null if there is
+     * no fact with this name
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(FactKey<T> key) {
+        Fact<?> fact = getFact(key);
+        if (fact != null) {
+            return (T) fact.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Get a fact by its key.
+     *
+     * @param key of the fact, must not be null
+     * @return the fact having the key's name, or null if there is no fact with this name
+     */
+    public Fact<?> getFact(FactKey<?> key) {
+        Objects.requireNonNull(key, "fact key must not be null");
+        int index = key.index;
+        Fact<?>[] slots = this.slots;
+        if (slots != null && index < slots.length) {
+            Fact<?> fact = slots[index];
+            if (fact != null) {
+                return fact == MISSING ? null : fact;
+            }
+        }
+        Fact<?> fact = lookup(key.getName());
+        if (!frozen) {
+            cache(index, fact);
+        }
+        return fact;
+    }
+
+    /**
+     * Get the value of an int fact by its key.
+     *
+     * @param key of the fact, must not be null
+     * @return the value of the fact having the key's name
+     * @throws IllegalArgumentException if there is no fact with this name
+     * @throws ClassCastException if the value of the fact is not an {@link Integer}
+     */
+    public int getInt(FactKey<Integer> key) {
+        return existingFact(key).getInt();
+    }
+
+    /**
+     * Get the value of a long fact by its key.
+     *
+     * @param key of the fact, must not be null
+     * @return the value of the fact having the key's name
+     * @throws IllegalArgumentException if there is no fact with this name
+     * @throws ClassCastException if the value of the fact is not a {@link Long}
+     */
+    public long getLong(FactKey<Long> key) {
+        return existingFact(key).getLong();
+    }
+
+    /**
+     * Get the value of a double fact by its key.
+     *
+     * @param key of the fact, must not be null
+     * @return the value of the fact having the key's name
+     * @throws IllegalArgumentException if there is no fact with this name
+     * @throws ClassCastException if the value of the fact is not a {@link Double}
+     */
+    public double getDouble(FactKey<Double> key) {
+        return existingFact(key).getDouble();
+    }
+
+    /**
+     * Get the value of a boolean fact by its key.
+     *
+     * @param key of the fact, must not be null
+     * @return the value of the fact having the key's name
+     * @throws IllegalArgumentException if there is no fact with this name
+     * @throws ClassCastException if the value of the fact is not a {@link Boolean}
+     */
+    public boolean getBoolean(FactKey<Boolean> key) {
+        return existingFact(key).getBoolean();
+    }
+
+    private Fact<?> existingFact(FactKey<?> key) {
+        Fact<?> fact = getFact(key);
+        if (fact == null) {
+            throw new IllegalArgumentException("No fact named '" + key.getName() + "'");
+        }
+        return fact;
+    }
+
+    // slots are sized to the keys actually read and grow geometrically
+    private void cache(int index, Fact<?> fact) {
+        if (slots == null) {
+            slots = new Fact<?>[index + 1];
+        } else if (index >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(index + 1, slots.length * 2));
+        }
+        slots[index] = fact != null ? fact : MISSING;
+    }
+
+    // forget the cached slot of a fact that changed
+    private void forget(String name) {
+        if (slots != null) {
+            FactKey<?> key = FactKey.find(name);
+            if (key != null && key.index < slots.length) {
+                slots[key.index] = null;
+            }
+        }
+    }
+
+    /**
+     * Get the value of an int fact by its name.
+     *
+     * @param factName name of the fact, must not be null
+     * @return the value of the fact having the given name
+     * @throws IllegalArgumentException if there is no fact with the given name
+     * @throws ClassCastException if the value of the fact is not an {@link Integer}
+     */
+    public int getInt(String factName) {
+        return existingFact(factName).getInt();
+    }
+
+    /**
+     * Get the value of a long fact by its name.
+     *
+     * @param factName name of the fact, must not be null
+     * @return the value of the fact having the given name
+     * @throws IllegalArgumentException if there is no fact with the given name
+     * @throws ClassCastException if the value of the fact is not a {@link Long}
+     */
+    public long getLong(String factName) {
+        return existingFact(factName).getLong();
+    }
+
+    /**
+     * Get the value of a double fact by its name.
+     *
+     * @param factName name of the fact, must not be null
+     * @return the value of the fact having the given name
+     * @throws IllegalArgumentException if there is no fact with the given name
+     * @throws ClassCastException if the value of the fact is not a {@link Double}
+     */
+    public double getDouble(String factName) {
+        return existingFact(factName).getDouble();
+    }
+
+    /**
+     * Get the value of a boolean fact by its name.
+     *
+     * @param factName name of the fact, must not be null
+     * @return the value of the fact having the given name
+     * @throws IllegalArgumentException if there is no fact with the given name
+     * @throws ClassCastException if the value of the fact is not a {@link Boolean}
+     */
+    public boolean getBoolean(String factName) {
+        return existingFact(factName).getBoolean();
+    }
+
+    private Fact<?> existingFact(String factName) {
+        Objects.requireNonNull(factName, "fact name must not be null");
+        Fact<?> fact = lookup(factName);
+        if (fact == null) {
+            throw new IllegalArgumentException("No fact named '" + factName + "'");
+        }
+        return fact;
+    }
+
+    private Fact<?> lookup(String factName) {
+        Fact<?> fact = facts.get(factName);
+        if (fact == null && parent != null && (hidden == null || !hidden.contains(factName))) {
+            fact = parent.facts.get(factName);
+        }
+        return fact;
+    }
+
+    private boolean isVisibleInParent(Fact<?> fact) {
+        String name = fact.getName();
+        return !facts.containsKey(name) && (hidden == null || !hidden.contains(name));
+    }
+
+    private int size() {
+        if (parent == null) {
+            return facts.size();
+        }
+        int size = facts.size();
+        for (Fact<?> fact : parent.facts.values()) {
+            if (isVisibleInParent(fact)) {
+                size++;
+            }
+        }
+        return size;
     }
 
     /**
@@ -134,33 +502,147 @@ public class Facts implements Iterable<Fact<?>> {
      */
     public Map<String, Object> asMap() {
         Map<String, Object> map = new HashMap<>();
-        for (Fact<?> fact : facts) {
+        for (Fact<?> fact : this) {
             map.put(fact.getName(), fact.getValue());
         }
         return map;
     }
 
+    /**
+     * Return a live, unmodifiable view of the facts as a map from fact names
+     * to fact values. Unlike {@link #asMap()}, no copy is made: the view is
+     * backed by this namespace and reflects any fact added or removed after it
+     * was obtained. This is the preferred way to expose facts to expression
+     * languages on each rule evaluation.
+     *
+     * @return an unmodifiable view of the current facts
+     */
+    public Map<String, Object> asUnmodifiableMap() {
+        if (unmodifiableMap == null) {
+            unmodifiableMap = new UnmodifiableFactsMap();
+        }
+        return unmodifiableMap;
+    }
+
     /**
      * Return an iterator on the set of facts. It is not intended to remove
      * facts using this iterator outside of the rules engine (aka other than doing it through rules)
+     *
+     * Removing a fact with the iterator has the same effect as {@link #remove(String)}:
+     * listeners are notified and the fact is no longer found by key.
      * 
      * @return an iterator on the set of facts
      */
     @Override
     public Iterator<Fact<?>> iterator() {
-        return facts.iterator();
+        return new FactsIterator();
     }
 
     /**
-     * Clear facts.
+     * Clear facts, including facts of the parent namespace if any.
      */
     public void clear() {
+        checkNotFrozen();
+        forgetAll();
+        if (listeners.length == 0 && parent == null) {
+            facts.clear();
+            return;
+        }
+        String[] names = names();
+        facts.clear();
+        if (parent != null) {
+            hidden = new HashSet<>(parent.facts.keySet());
+        }
+        for (String name : names) {
+            changed(name);
+        }
+    }
+
+    /**
+     * Reset these facts to their initial state so they can be reused: facts added
+     * to this namespace are removed, facts of the parent namespace are visible again
+     * and listeners are unregistered without being notified. Memory allocated for
+     * facts is retained.
+     *
+     * @see FactsPool
+     */
+    public void reset() {
+        checkNotFrozen();
         facts.clear();
+        hidden = null;
+        listeners = NO_LISTENERS;
+        forgetAll();
+    }
+
+    private void forgetAll() {
+        if (slots != null) {
+            Arrays.fill(slots, null);
+        }
+    }
+
+    private String[] names() {
+        String[] names = new String[size()];
+        int i = 0;
+        for (Fact<?> fact : this) {
+            names[i++] = fact.getName();
+        }
+        return names;
+    }
+
+    private void unhide(String name) {
+        if (hidden != null) {
+            hidden.remove(name);
+        }
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Frozen facts cannot be modified");
+        }
+    }
+
+    /**
+     * Register a listener notified when facts are added, replaced or removed.
+     * Listeners are not registered on frozen facts, which never change.
+     *
+     * @param listener to register
+     */
+    public void registerListener(FactsListener listener) {
+        Objects.requireNonNull(listener, "listener must not be null");
+        if (frozen) {
+            return;
+        }
+        FactsListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        listeners = newListeners;
+    }
+
+    /**
+     * Unregister a listener.
+     *
+     * @param listener to unregister
+     */
+    public void unregisterListener(FactsListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                FactsListener[] newListeners = new FactsListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+                listeners = newListeners;
+                return;
+            }
+        }
+    }
+
+    private void changed(String name) {
+        for (FactsListener listener : listeners) {
+            listener.onChange(this, name);
+        }
     }
 
     @Override
     public String toString() {
-        Iterator<Fact<?>> iterator = facts.iterator();
+        Iterator<Fact<?>> iterator = iterator();
         StringBuilder stringBuilder = new StringBuilder("[");
         while (iterator.hasNext()) {
             stringBuilder.append(iterator.next().toString());
@@ -171,4 +653,120 @@ public class Facts implements Iterable<Fact<?>> {
         stringBuilder.append("]");
         return stringBuilder.toString();
     }
+
+    /*
+     * Iterates on facts of this namespace, then on visible facts of the parent.
+     * Removing a fact hides it if it is inherited, as remove(String) does.
+     */
+    private class FactsIterator implements Iterator<Fact<?>> {
+
+        private final Iterator<Fact<?>> own = facts.values().iterator();
+        private final Iterator<Fact<?>> inherited = parent != null ? parent.facts.values().iterator() : null;
+        // next visible fact of the parent, once facts of this namespace are exhausted
+        private Fact<?> next;
+        private Fact<?> last;
+        private boolean lastOwn;
+
+        @Override
+        public boolean hasNext() {
+            if (own.hasNext() || next != null) {
+                return true;
+            }
+            while (inherited != null && inherited.hasNext()) {
+                Fact<?> fact = inherited.next();
+                if (isVisibleInParent(fact)) {
+                    next = fact;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Fact<?> next() {
+            if (own.hasNext()) {
+                last = own.next();
+                lastOwn = true;
+                return last;
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            lastOwn = false;
+            next = null;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            checkNotFrozen();
+            String name = last.getName();
+            last = null;
+            if (lastOwn) {
+                own.remove();
+            }
+            if (parent != null && parent.facts.containsKey(name)) {
+                if (hidden == null) {
+                    hidden = new HashSet<>();
+                }
+                hidden.add(name);
+            }
+            forget(name);
+            changed(name);
+        }
+    }
+
+    private class UnmodifiableFactsMap extends AbstractMap<String, Object> {
+
+        private Set<Entry<String, Object>> entrySet;
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String ? Facts.this.get((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && lookup((String) key) != null;
+        }
+
+        @Override
+        public int size() {
+            return Facts.this.size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<String, Object>>() {
+                    @Override
+                    public Iterator<Entry<String, Object>> iterator() {
+                        Iterator<Fact<?>> iterator = Facts.this.iterator();
+                        return new Iterator<Entry<String, Object>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return iterator.hasNext();
+                            }
+
+                            @Override
+                            public Entry<String, Object> next() {
+                                Fact<?> fact = iterator.next();
+                                return new SimpleImmutableEntry<>(fact.getName(), fact.getValue());
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return Facts.this.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
 }
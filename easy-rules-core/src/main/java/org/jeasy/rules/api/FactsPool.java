@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread safe pool of {@link Facts}, to avoid allocating new facts for each
+ * request in high rate applications. Facts are {@link #borrow() borrowed} from
+ * the pool, filled and fired, then {@link #release(Facts) released} to the pool
+ * which {@link Facts#reset() resets} them. Released facts must not be used anymore.
+ *
+ * Facts of the pool can be created on top of a frozen parent namespace (see
+ * {@link Facts#Facts(Facts)}) holding facts shared by all requests.
+ *
+ * When debug logging is enabled for this class at creation time, the pool reports
+ * facts that are garbage collected without having been released, along with the
+ * stack trace of the code that borrowed them.
+ */
+public class FactsPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FactsPool.class);
+
+    /**
+     * Default maximum number of idle facts kept by a pool.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // number of slots probed when borrowing or releasing facts
+    private static final int PROBES = 4;
+
+    private final Facts parent;
+    // idle facts, each thread starting its search at its own slot to avoid contention
+    private final AtomicReferenceArray<Facts> idle;
+    private final boolean leakDetection;
+    private final Set<Leak> leaks;
+    private final ReferenceQueue<Facts> collected;
+
+    /**
+     * Create a new pool of empty facts.
+     */
+    public FactsPool() {
+        this(null, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new pool of facts on top of the given parent namespace.
+     *
+     * @param parent frozen namespace, must not be null
+     */
+    public FactsPool(Facts parent) {
+        this(Objects.requireNonNull(parent, "parent facts must not be null"), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new pool of facts.
+     *
+     * @param parent frozen namespace, or null to create empty facts
+     * @param capacity maximum number of idle facts kept by the pool, must be at least 1
+     */
+    public FactsPool(Facts parent, int capacity) {
+        if (parent != null && !parent.isFrozen()) {
+            throw new IllegalArgumentException("Parent facts must be frozen");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pool capacity must be at least 1");
+        }
+        this.parent = parent;
+        this.idle = new AtomicReferenceArray<>(capacity);
+        this.leakDetection = LOGGER.isDebugEnabled();
+        this.leaks = leakDetection ? ConcurrentHashMap.newKeySet() : null;
+        this.collected = leakDetection ? new ReferenceQueue<>() : null;
+    }
+
+    /**
+     * Borrow facts from the pool, creating new facts if the pool is empty.
+     *
+     * @return facts to release once used
+     */
+    public Facts borrow() {
+        Facts facts = poll();
+        if (facts == null) {
+            facts = parent == null ? new Facts() : new Facts(parent);
+        }
+        if (leakDetection) {
+            reportLeaks();
+            Leak leak = new Leak(facts);
+            leaks.add(leak);
+            facts.lease = leak;
+        } else {
+            facts.lease = this;
+        }
+        return facts;
+    }
+
+    /**
+     * Reset facts and return them to the pool. Facts are dropped if the pool has no
+     * free slot close to the slot of the current thread.
+     *
+     * @param facts borrowed from this pool, must not be null
+     * @throws IllegalArgumentException if facts were not borrowed from this pool
+     * or were already released
+     */
+    public void release(Facts facts) {
+        Objects.requireNonNull(facts, "facts must not be null");
+        Object lease = facts.lease;
+        if (lease instanceof Leak && ((Leak) lease).pool() == this) {
+            leaks.remove(lease);
+            ((Leak) lease).clear();
+        } else if (lease != this) {
+            throw new IllegalArgumentException("Facts were not borrowed from this pool or were already released");
+        }
+        facts.lease = null;
+        facts.reset();
+        offer(facts);
+    }
+
+    private Facts poll() {
+        int capacity = idle.length();
+        int start = slot(capacity);
+        for (int i = 0; i < PROBES && i < capacity; i++) {
+            int index = (start + i) % capacity;
+            Facts facts = idle.get(index);
+            if (facts != null && idle.compareAndSet(index, facts, null)) {
+                return facts;
+            }
+        }
+        return null;
+    }
+
+    private void offer(Facts facts) {
+        int capacity = idle.length();
+        int start = slot(capacity);
+        for (int i = 0; i < PROBES && i < capacity; i++) {
+            int index = (start + i) % capacity;
+            if (idle.get(index) == null && idle.compareAndSet(index, null, facts)) {
+                return;
+            }
+        }
+    }
+
+    private static int slot(int capacity) {
+        return (int) (Thread.currentThread().getId() % capacity);
+    }
+
+    private void reportLeaks() {
+        Object reference;
+        while ((reference = collected.poll()) != null) {
+            Leak leak = (Leak) reference;
+            if (leaks.remove(leak)) {
+                LOGGER.warn("Facts were garbage collected without being released to the pool", leak.origin);
+            }
+        }
+    }
+
+    private final class Leak extends WeakReference<Facts> {
+
+        private final Throwable origin = new Throwable("Facts borrowed here");
+
+        Leak(Facts facts) {
+            super(facts, collected);
+        }
+
+        FactsPool pool() {
+            return FactsPool.this;
+        }
+    }
+}
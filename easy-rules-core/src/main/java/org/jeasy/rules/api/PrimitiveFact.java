@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.api;
+
+/**
+ * A fact holding an int, long, double or boolean value in a primitive slot,
+ * so that {@link Facts} can store and read it without boxing.
+ */
+final class PrimitiveFact extends Fact<Object> {
+
+	private final Class<?> type;
+	// the value, with doubles stored as raw long bits and booleans as 0 or 1
+	private final long bits;
+
+	PrimitiveFact(String name, Class<?> type, long bits) {
+		super(name);
+		this.type = type;
+		this.bits = bits;
+	}
+
+	@Override
+	public Object getValue() {
+		if (type == Integer.class) {
+			return (int) bits;
+		}
+		if (type == Long.class) {
+			return bits;
+		}
+		if (type == Double.class) {
+			return Double.longBitsToDouble(bits);
+		}
+		return bits != 0;
+	}
+
+	@Override
+	public Class<?> getType() {
+		return type;
+	}
+
+	@Override
+	public int getInt() {
+		check(Integer.class);
+		return (int) bits;
+	}
+
+	@Override
+	public long getLong() {
+		check(Long.class);
+		return bits;
+	}
+
+	@Override
+	public double getDouble() {
+		check(Double.class);
+		return Double.longBitsToDouble(bits);
+	}
+
+	@Override
+	public boolean getBoolean() {
+		check(Boolean.class);
+		return bits != 0;
+	}
+
+	private void check(Class<?> expectedType) {
+		if (type != expectedType) {
+			throw new ClassCastException("Fact '" + getName() + "' is a " + type.getName() + ", not a " + expectedType.getName());
+		}
+	}
+}
@@ -23,6 +23,10 @@
  */
 package org.jeasy.rules.api;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Abstraction for a rule that can be fired by a rules engine.
  *
@@ -86,4 +90,35 @@ public interface Rule extends Comparable<Rule> {
      */
     void execute(Facts facts) throws Exception;
 
+    /**
+     * Return the names of the facts read by this rule's condition(s), if known.
+     *
+     * @return the names of the facts read by this rule, or null if unknown
+     * @see Condition#getReadFacts()
+     */
+    default Set<String> getReadFacts() {
+        return null;
+    }
+
+    /**
+     * Execute the rule's action(s) and return a stage completed when they are done.
+     * Used by rules engines firing rules asynchronously.
+     *
+     * The default implementation calls {@link #execute(Facts)} and returns a completed stage.
+     *
+     * @param facts known at the time of execution of the action(s)
+     * @return a stage completed when the action(s) are done, or completed
+     * exceptionally if an action failed
+     */
+    default CompletionStage<Void> executeAsync(Facts facts) {
+        CompletableFuture<Void> execution = new CompletableFuture<>();
+        try {
+            execute(facts);
+            execution.complete(null);
+        } catch (Exception exception) {
+            execution.completeExceptionally(exception);
+        }
+        return execution;
+    }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.api;
+
+/**
+ * A stateful session firing a set of rules on facts that change over time.
+ *
+ * Unlike {@link RulesEngine#fire(Rules, Facts)}, which evaluates rules from
+ * scratch, a session remembers which rules are applicable between fires and only
+ * evaluates again the rules reading facts inserted, updated or retracted since
+ * (see {@link Rule#getReadFacts()}). A rule is not fired again until it has been
+ * evaluated again.
+ *
+ * Facts can be inserted, updated and retracted from any thread. Rules are fired
+ * by the thread calling {@link #fireAll()} or {@link #fireUntilHalt()}, one fire
+ * at a time.
+ */
+public interface RuleSession extends AutoCloseable {
+
+    /**
+     * Insert a new fact.
+     *
+     * @param name of the fact
+     * @param value of the fact
+     * @throws IllegalArgumentException if a fact with the same name exists
+     */
+    void insert(String name, Object value);
+
+    /**
+     * Update the value of a fact.
+     *
+     * @param name of the fact
+     * @param value new value of the fact
+     * @throws IllegalArgumentException if there is no fact with this name
+     */
+    void update(String name, Object value);
+
+    /**
+     * Retract a fact, if present.
+     *
+     * @param name of the fact
+     */
+    void retract(String name);
+
+    /**
+     * Return the facts of this session. Changes made directly on these facts by
+     * rule actions are seen by the session like insertions, updates and retractions.
+     * Other threads must use {@link #insert}, {@link #update} and {@link #retract}.
+     *
+     * @return the facts of this session
+     */
+    Facts getFacts();
+
+    /**
+     * Fire applicable rules until no more rules are applicable or the session is
+     * halted.
+     *
+     * @return the number of executed rules
+     */
+    int fireAll();
+
+    /**
+     * Fire applicable rules as facts change, until the session is halted.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while
+     * waiting for facts to change
+     */
+    void fireUntilHalt() throws InterruptedException;
+
+    /**
+     * Stop firing rules after the rule being executed, if any. Can be called from
+     * a rule action or from another thread. If no rules are being fired, the next
+     * call to {@link #fireAll()} or {@link #fireUntilHalt()} returns immediately,
+     * so a session submitted to an executor can be halted before it starts firing.
+     */
+    void halt();
+
+    /**
+     * Close the session. Facts of the session are not tracked anymore.
+     */
+    @Override
+    void close();
+}
@@ -40,6 +40,7 @@ import java.util.TreeSet;
 public class Rules implements Iterable<Rule> {
 
     private Set<Rule> rules = new TreeSet<>();
+    private CompiledRules compiledRules;
 
     /**
      * Create a new {@link Rules} object.
@@ -79,6 +80,7 @@ public class Rules implements Iterable<Rule> {
             Objects.requireNonNull(rule);
             this.rules.add(RuleProxy.asRule(rule));
         }
+        compiledRules = null;
     }
 
     /**
@@ -92,6 +94,7 @@ public class Rules implements Iterable<Rule> {
             Objects.requireNonNull(rule);
             this.rules.remove(RuleProxy.asRule(rule));
         }
+        compiledRules = null;
     }
 
     /**
@@ -121,6 +124,7 @@ public class Rules implements Iterable<Rule> {
      */
     public void clear() {
         rules.clear();
+        compiledRules = null;
     }
 
     /**
@@ -132,6 +136,21 @@ public class Rules implements Iterable<Rule> {
         return rules.size();
     }
 
+    /**
+     * Return an immutable snapshot of the rules set in its current state. The
+     * snapshot is cached until rules are registered or unregistered.
+     *
+     * @return compiled rules
+     */
+    public CompiledRules compile() {
+        CompiledRules compiledRules = this.compiledRules;
+        if (compiledRules == null) {
+            compiledRules = new CompiledRules(rules, rules.size());
+            this.compiledRules = compiledRules;
+        }
+        return compiledRules;
+    }
+
     /**
      * Return an iterator on the rules set. It is not intended to remove rules
      * using this iterator.
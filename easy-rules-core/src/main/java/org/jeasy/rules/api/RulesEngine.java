@@ -26,6 +26,9 @@ package org.jeasy.rules.api;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * Rules engine interface.
@@ -64,6 +67,53 @@ public interface RulesEngine {
      */
     void fire(Rules rules, Facts facts);
 
+    /**
+     * Fire all registered rules on given facts, on the given executor.
+     *
+     * The default implementation calls {@link #fire(Rules, Facts)} in a task
+     * submitted to the executor.
+     *
+     * @param rules to fire
+     * @param facts to fire rules on
+     * @param executor to fire rules on
+     * @return a future completed when rules have been fired
+     */
+    default CompletableFuture<Void> fireAsync(Rules rules, Facts facts, Executor executor) {
+        return CompletableFuture.runAsync(() -> fire(rules, facts), executor);
+    }
+
+    /**
+     * Fire all registered rules on each facts of the given batch.
+     *
+     * The default implementation fires facts one after the other on the calling thread.
+     *
+     * @param rules to fire
+     * @param facts to fire rules on
+     * @return a report of the batch
+     */
+    default BatchReport fireAll(Rules rules, Iterable<Facts> facts) {
+        long start = System.nanoTime();
+        long count = 0;
+        for (Facts fact : facts) {
+            fire(rules, fact);
+            count++;
+        }
+        long elapsed = System.nanoTime() - start;
+        return new BatchReport(count, elapsed, count == 0 ? new long[0] : new long[] {elapsed});
+    }
+
+    /**
+     * Fire all registered rules on each facts of the given stream.
+     *
+     * @param rules to fire
+     * @param facts to fire rules on
+     * @return a report of the batch
+     * @see #fireAll(Rules, Iterable)
+     */
+    default BatchReport fireAll(Rules rules, Stream<Facts> facts) {
+        return fireAll(rules, (Iterable<Facts>) facts::iterator);
+    }
+
     /**
      * Check rules without firing them.
      * @return a map with the result of evaluation of each rule
@@ -71,4 +121,16 @@ public interface RulesEngine {
     default Map<Rule, Boolean> check(Rules rules, Facts facts) {
         return Collections.emptyMap();
     }
+
+    /**
+     * Check rules without firing them, on the given executor.
+     *
+     * @param rules to check
+     * @param facts to check rules on
+     * @param executor to check rules on
+     * @return a future of the map with the result of evaluation of each rule
+     */
+    default CompletableFuture<Map<Rule, Boolean>> checkAsync(Rules rules, Facts facts, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> check(rules, facts), executor);
+    }
 }
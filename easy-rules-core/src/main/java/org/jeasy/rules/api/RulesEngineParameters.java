@@ -26,6 +26,10 @@ package org.jeasy.rules.api;
 import org.jeasy.rules.core.DefaultRulesEngine;
 import org.jeasy.rules.core.InferenceRulesEngine;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Parameters of a rules engine.
  *
@@ -42,6 +46,16 @@ public class RulesEngineParameters {
      * Default rule priority threshold.
      */
     public static final int DEFAULT_RULE_PRIORITY_THRESHOLD = Integer.MAX_VALUE;
+
+    /**
+     * Default number of facts fired per batch by {@link RulesEngine#fireAll(Rules, Iterable)}.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * Default maximum number of inference cycles (no limit).
+     */
+    public static final int DEFAULT_MAX_CYCLES = Integer.MAX_VALUE;
     
     /**
      * Parameter to skip next applicable rules when a rule is applied.
@@ -63,11 +77,58 @@ public class RulesEngineParameters {
      */
     private int priorityThreshold;
 
+    /**
+     * Parameter to log registered rules, known facts and the outcome of each rule
+     * (at debug level) when rules are fired.
+     */
+    private boolean ruleTracing;
+
+    /**
+     * Parameter to evaluate rules in parallel when rules are checked.
+     */
+    private boolean parallelCheck;
+
+    /**
+     * Executor used to evaluate rules in parallel when rules are checked.
+     * Defaults to the common {@link ForkJoinPool} when not set.
+     */
+    private Executor checkExecutor;
+
+    /**
+     * Parameter to set how many facts are fired per batch by {@link RulesEngine#fireAll(Rules, Iterable)}.
+     */
+    private int batchSize;
+
+    /**
+     * Executor used to fire batches of facts.
+     * Defaults to the common {@link ForkJoinPool} when not set.
+     */
+    private Executor batchExecutor;
+
+    /**
+     * Parameter to evaluate rules once per inference cycle and not fire a rule again
+     * until facts change.
+     */
+    private boolean refraction;
+
+    /**
+     * Parameter to stop inference after a maximum number of cycles.
+     */
+    private int maxCycles;
+
+    /**
+     * Parameter to stop inference after a maximum duration. No limit when not set.
+     */
+    private Duration maxDuration;
+
     /**
      * Create a new {@link RulesEngineParameters} with default values.
      */
     public RulesEngineParameters() {
         this.priorityThreshold = RulesEngineParameters.DEFAULT_RULE_PRIORITY_THRESHOLD;
+        this.ruleTracing = true;
+        this.batchSize = RulesEngineParameters.DEFAULT_BATCH_SIZE;
+        this.maxCycles = RulesEngineParameters.DEFAULT_MAX_CYCLES;
     }
 
     /**
@@ -83,6 +144,9 @@ public class RulesEngineParameters {
         this.skipOnFirstFailedRule = skipOnFirstFailedRule;
         this.skipOnFirstNonTriggeredRule = skipOnFirstNonTriggeredRule;
         this.priorityThreshold = priorityThreshold;
+        this.ruleTracing = true;
+        this.batchSize = RulesEngineParameters.DEFAULT_BATCH_SIZE;
+        this.maxCycles = RulesEngineParameters.DEFAULT_MAX_CYCLES;
     }
 
     public int getPriorityThreshold() {
@@ -137,6 +201,152 @@ public class RulesEngineParameters {
         return this;
     }
 
+    public boolean isRuleTracing() {
+        return ruleTracing;
+    }
+
+    public void setRuleTracing(final boolean ruleTracing) {
+        this.ruleTracing = ruleTracing;
+    }
+
+    public RulesEngineParameters ruleTracing(final boolean ruleTracing) {
+        setRuleTracing(ruleTracing);
+        return this;
+    }
+
+    public boolean isParallelCheck() {
+        return parallelCheck;
+    }
+
+    /**
+     * When set, rule conditions are evaluated in parallel by
+     * {@link RulesEngine#check(Rules, Facts)}. Conditions must then be free of side
+     * effects and facts must not be modified while rules are checked.
+     * Rule listeners are still called on the calling thread, in rules order.
+     *
+     * @param parallelCheck true to evaluate rules in parallel when rules are checked
+     */
+    public void setParallelCheck(final boolean parallelCheck) {
+        this.parallelCheck = parallelCheck;
+    }
+
+    public RulesEngineParameters parallelCheck(final boolean parallelCheck) {
+        setParallelCheck(parallelCheck);
+        return this;
+    }
+
+    public Executor getCheckExecutor() {
+        return checkExecutor;
+    }
+
+    /**
+     * Set the executor used to evaluate rules when {@link #isParallelCheck()} is set.
+     *
+     * @param checkExecutor executor, or null to use the common {@link ForkJoinPool}
+     */
+    public void setCheckExecutor(final Executor checkExecutor) {
+        this.checkExecutor = checkExecutor;
+    }
+
+    public RulesEngineParameters checkExecutor(final Executor checkExecutor) {
+        setCheckExecutor(checkExecutor);
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than zero");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public RulesEngineParameters batchSize(final int batchSize) {
+        setBatchSize(batchSize);
+        return this;
+    }
+
+    public Executor getBatchExecutor() {
+        return batchExecutor;
+    }
+
+    /**
+     * Set the executor used to fire batches of facts. Rules of a same set are then
+     * fired concurrently on different facts, so their actions must be thread-safe.
+     *
+     * @param batchExecutor executor, or null to use the common {@link ForkJoinPool}
+     */
+    public void setBatchExecutor(final Executor batchExecutor) {
+        this.batchExecutor = batchExecutor;
+    }
+
+    public RulesEngineParameters batchExecutor(final Executor batchExecutor) {
+        setBatchExecutor(batchExecutor);
+        return this;
+    }
+
+    public boolean isRefraction() {
+        return refraction;
+    }
+
+    /**
+     * Set whether an inference engine evaluates each rule once per cycle and fires
+     * candidates from that result, without firing again a rule whose facts have not
+     * changed since it was last executed. This stops rules whose condition stays true
+     * from firing at every cycle when their action does not change facts.
+     *
+     * @param refraction true to enable refraction
+     */
+    public void setRefraction(final boolean refraction) {
+        this.refraction = refraction;
+    }
+
+    public RulesEngineParameters refraction(final boolean refraction) {
+        setRefraction(refraction);
+        return this;
+    }
+
+    public int getMaxCycles() {
+        return maxCycles;
+    }
+
+    public void setMaxCycles(final int maxCycles) {
+        if (maxCycles < 1) {
+            throw new IllegalArgumentException("Max cycles must be greater than zero");
+        }
+        this.maxCycles = maxCycles;
+    }
+
+    public RulesEngineParameters maxCycles(final int maxCycles) {
+        setMaxCycles(maxCycles);
+        return this;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * Set how long an inference engine may fire rules on the same facts. The
+     * duration is checked between cycles, so a running cycle is not interrupted.
+     *
+     * @param maxDuration maximum duration, or null for no limit
+     */
+    public void setMaxDuration(final Duration maxDuration) {
+        if (maxDuration != null && (maxDuration.isNegative() || maxDuration.isZero())) {
+            throw new IllegalArgumentException("Max duration must be positive");
+        }
+        this.maxDuration = maxDuration;
+    }
+
+    public RulesEngineParameters maxDuration(final Duration maxDuration) {
+        setMaxDuration(maxDuration);
+        return this;
+    }
+
     @Override
     public String toString() {
         return "Engine parameters { " +
@@ -144,6 +354,12 @@ public class RulesEngineParameters {
                 ", skipOnFirstNonTriggeredRule = " + skipOnFirstNonTriggeredRule +
                 ", skipOnFirstFailedRule = " + skipOnFirstFailedRule +
                 ", priorityThreshold = " + priorityThreshold +
+                ", ruleTracing = " + ruleTracing +
+                ", parallelCheck = " + parallelCheck +
+                ", batchSize = " + batchSize +
+                ", refraction = " + refraction +
+                ", maxCycles = " + maxCycles +
+                ", maxDuration = " + maxDuration +
                 " }";
     }
 }
@@ -23,13 +23,15 @@
  */
 package org.jeasy.rules.core;
 
+import org.jeasy.rules.api.BatchReport;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
 import org.jeasy.rules.api.RuleListener;
+import org.jeasy.rules.api.Rules;
 import org.jeasy.rules.api.RulesEngine;
 import org.jeasy.rules.api.RulesEngineListener;
 import org.jeasy.rules.api.RulesEngineParameters;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -40,8 +42,8 @@ import java.util.List;
 public abstract class AbstractRulesEngine implements RulesEngine {
 
     RulesEngineParameters parameters;
-    List<RuleListener> ruleListeners;
-    List<RulesEngineListener> rulesEngineListeners;
+    final ListenerRegistry<RuleListener> ruleListeners;
+    final ListenerRegistry<RulesEngineListener> rulesEngineListeners;
 
     AbstractRulesEngine() {
         this(new RulesEngineParameters());
@@ -49,8 +51,8 @@ public abstract class AbstractRulesEngine implements RulesEngine {
 
     AbstractRulesEngine(final RulesEngineParameters parameters) {
         this.parameters = parameters;
-        this.ruleListeners = new ArrayList<>();
-        this.rulesEngineListeners = new ArrayList<>();
+        this.ruleListeners = new ListenerRegistry<>(new RuleListener[0]);
+        this.rulesEngineListeners = new ListenerRegistry<>(new RulesEngineListener[0]);
     }
 
     /**
@@ -64,40 +66,115 @@ public abstract class AbstractRulesEngine implements RulesEngine {
                 parameters.isSkipOnFirstFailedRule(),
                 parameters.isSkipOnFirstNonTriggeredRule(),
                 parameters.getPriorityThreshold()
-        );
+        ).ruleTracing(parameters.isRuleTracing())
+                .parallelCheck(parameters.isParallelCheck())
+                .checkExecutor(parameters.getCheckExecutor())
+                .batchSize(parameters.getBatchSize())
+                .batchExecutor(parameters.getBatchExecutor())
+                .refraction(parameters.isRefraction())
+                .maxCycles(parameters.getMaxCycles())
+                .maxDuration(parameters.getMaxDuration());
+    }
+
+    /**
+     * Fire rules on each facts of the given batch. Facts are split in batches of
+     * {@link RulesEngineParameters#getBatchSize()} facts, fired concurrently on the
+     * {@link RulesEngineParameters#getBatchExecutor()}.
+     *
+     * @param rules to fire
+     * @param facts to fire rules on
+     * @return a report of the batch
+     */
+    @Override
+    public BatchReport fireAll(Rules rules, Iterable<Facts> facts) {
+        return BatchFiring.fireAll(f -> fire(rules, f), facts.iterator(),
+                parameters.getBatchSize(), parameters.getBatchExecutor());
     }
 
     /**
      * Return an unmodifiable list of the registered rule listeners.
+     * Listeners registered afterwards are not visible in the returned list.
      * @return an unmodifiable list of the registered rule listeners
      */
     @Override
     public List<RuleListener> getRuleListeners() {
-        return Collections.unmodifiableList(ruleListeners);
+        return ruleListeners.asList();
     }
 
     /**
-     * Return an unmodifiable list of the registered rules engine listeners
+     * Return an unmodifiable list of the registered rules engine listeners.
+     * Listeners registered afterwards are not visible in the returned list.
      * @return an unmodifiable list of the registered rules engine listeners
      */
     @Override
     public List<RulesEngineListener> getRulesEngineListeners() {
-        return Collections.unmodifiableList(rulesEngineListeners);
+        return rulesEngineListeners.asList();
     }
 
     public void registerRuleListener(RuleListener ruleListener) {
-        ruleListeners.add(ruleListener);
+        ruleListeners.register(ruleListener);
     }
 
     public void registerRuleListeners(List<RuleListener> ruleListeners) {
-        this.ruleListeners.addAll(ruleListeners);
+        this.ruleListeners.registerAll(ruleListeners);
     }
 
     public void registerRulesEngineListener(RulesEngineListener rulesEngineListener) {
-        rulesEngineListeners.add(rulesEngineListener);
+        rulesEngineListeners.register(rulesEngineListener);
     }
 
     public void registerRulesEngineListeners(List<RulesEngineListener> rulesEngineListeners) {
-        this.rulesEngineListeners.addAll(rulesEngineListeners);
+        this.rulesEngineListeners.registerAll(rulesEngineListeners);
+    }
+
+    void triggerListenersOnFailure(final Rule rule, final Exception exception, Facts facts) {
+        for (RuleListener ruleListener : ruleListeners.get()) {
+            ruleListener.onFailure(rule, facts, exception);
+        }
+    }
+
+    void triggerListenersOnSuccess(final Rule rule, Facts facts) {
+        for (RuleListener ruleListener : ruleListeners.get()) {
+            ruleListener.onSuccess(rule, facts);
+        }
+    }
+
+    void triggerListenersBeforeExecute(final Rule rule, Facts facts) {
+        for (RuleListener ruleListener : ruleListeners.get()) {
+            ruleListener.beforeExecute(rule, facts);
+        }
+    }
+
+    boolean triggerListenersBeforeEvaluate(Rule rule, Facts facts) {
+        for (RuleListener ruleListener : ruleListeners.get()) {
+            if (!ruleListener.beforeEvaluate(rule, facts)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void triggerListenersAfterEvaluate(Rule rule, Facts facts, boolean evaluationResult) {
+        for (RuleListener ruleListener : ruleListeners.get()) {
+            ruleListener.afterEvaluate(rule, facts, evaluationResult);
+        }
+    }
+
+    void triggerListenersOnEvaluationError(Rule rule, Facts facts, Exception exception) {
+        for (RuleListener ruleListener : ruleListeners.get()) {
+            ruleListener.onEvaluationError(rule, facts, exception);
+        }
+    }
+
+    void triggerListenersBeforeRules(Rules rule, Facts facts) {
+        for (RulesEngineListener rulesEngineListener : rulesEngineListeners.get()) {
+            rulesEngineListener.beforeEvaluate(rule, facts);
+        }
+    }
+
+    void triggerListenersAfterRules(Rules rule, Facts facts) {
+        for (RulesEngineListener rulesEngineListener : rulesEngineListeners.get()) {
+            rulesEngineListener.afterExecute(rule, facts);
+        }
     }
 }
@@ -28,6 +28,10 @@ import java.lang.reflect.Method;
 /**
  * Utility class that associates an action method and its execution order.
  *
+ * Action methods with the same order are executed in the order of their names,
+ * then of their parameter types, since reflection does not tell the order in
+ * which methods are declared. Generated rule adapters use the same order.
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 class ActionMethodOrderBean implements Comparable<ActionMethodOrderBean> {
@@ -54,9 +58,18 @@ class ActionMethodOrderBean implements Comparable<ActionMethodOrderBean> {
             return -1;
         } else if (order > actionMethodOrderBean.getOrder()) {
             return 1;
-        } else {
-            return method.equals(actionMethodOrderBean.getMethod()) ? 0 : 1;
         }
+        Method otherMethod = actionMethodOrderBean.getMethod();
+        int result = method.getName().compareTo(otherMethod.getName());
+        return result != 0 ? result : parameterTypes(method).compareTo(parameterTypes(otherMethod));
+    }
+
+    private static String parameterTypes(final Method method) {
+        StringBuilder parameterTypes = new StringBuilder();
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            parameterTypes.append(parameterType.getTypeName()).append(',');
+        }
+        return parameterTypes.toString();
     }
 
     @Override
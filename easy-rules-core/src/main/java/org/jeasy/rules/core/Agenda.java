@@ -0,0 +1,204 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.CompiledRules;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.api.RulesEngineParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.BitSet;
+
+/**
+ * Rules applicable to some facts, kept up to date as facts change. Only rules
+ * reading changed facts (see {@link RuleDependencies}) are evaluated again, and
+ * a fired rule is not fired again until it has been evaluated again. A candidate
+ * affected by facts changed by a rule fired before it in the same cycle is
+ * evaluated again before being fired.
+ *
+ * An agenda is used for a single fire by the {@link InferenceRulesEngine} in
+ * refraction mode, and across fires by a {@link DefaultRuleSession}. Listeners
+ * and parameters of the engine that created the agenda apply.
+ */
+final class Agenda implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Agenda.class);
+
+    private final AbstractRulesEngine engine;
+    private final RulesEngineParameters parameters;
+    private final CompiledRules rules;
+    private final Facts facts;
+    private final RuleDependencies.Tracker tracker;
+    private final int cutoff;
+    private final int[] agenda;
+    // rules evaluated to true and not executed since
+    private final BitSet candidates;
+    // rules evaluated to false
+    private final BitSet nonTriggered;
+    private volatile boolean halted;
+
+    Agenda(final AbstractRulesEngine engine, final RuleDependencies dependencies, final Facts facts) {
+        this.engine = engine;
+        this.parameters = engine.parameters;
+        this.rules = dependencies.getRules();
+        this.facts = facts;
+        this.cutoff = rules.cutoff(parameters.getPriorityThreshold());
+        this.agenda = new int[cutoff];
+        this.candidates = new BitSet(cutoff);
+        this.nonTriggered = new BitSet(cutoff);
+        this.tracker = dependencies.track(facts);
+    }
+
+    /**
+     * Fire applicable rules, cycle after cycle, until no more rules are applicable,
+     * the budget of the engine is exhausted or the agenda is halted. A halted
+     * agenda does not fire rules until it is {@link #resume() resumed}.
+     *
+     * @return the number of executed rules
+     */
+    int fire() {
+        InferenceBudget budget = new InferenceBudget(parameters);
+        int executions = 0;
+        while (!halted) {
+            BitSet affected = tracker.drain();
+            for (int i = affected.nextSetBit(0); i >= 0 && i < cutoff; i = affected.nextSetBit(i + 1)) {
+                evaluate(i);
+            }
+            int size = fillAgenda();
+            if (size == 0) {
+                if (parameters.isRuleTracing()) {
+                    LOGGER.debug("No candidate rules found for facts: {}", facts);
+                }
+                break;
+            }
+            if (!budget.startCycle()) {
+                LOGGER.warn("Inference stopped after {} cycles: {}", budget.getCycles(), budget);
+                break;
+            }
+            for (int k = 0; k < size && !halted; k++) {
+                int index = agenda[k];
+                // a previous rule of this cycle may have changed facts this rule reads
+                if (tracker.isAffected(index)) {
+                    evaluate(index);
+                    if (!candidates.get(index)) {
+                        if (parameters.isSkipOnFirstNonTriggeredRule()) {
+                            break;
+                        }
+                        continue;
+                    }
+                }
+                candidates.clear(index);
+                executions++;
+                if (!execute(index) ? parameters.isSkipOnFirstFailedRule() : parameters.isSkipOnFirstAppliedRule()) {
+                    break;
+                }
+            }
+        }
+        return executions;
+    }
+
+    /**
+     * Stop firing rules after the rule being executed, if any.
+     */
+    void halt() {
+        halted = true;
+    }
+
+    /**
+     * Allow firing rules again after the agenda has been halted.
+     */
+    void resume() {
+        halted = false;
+    }
+
+    /**
+     * Check if facts changed since rules were last evaluated.
+     *
+     * @return true if rules may need to be evaluated again
+     */
+    boolean hasChanges() {
+        return tracker.hasChanges();
+    }
+
+    /**
+     * Stop tracking changes of facts.
+     */
+    @Override
+    public void close() {
+        tracker.close();
+    }
+
+    private void evaluate(int index) {
+        Rule rule = rules.getRule(index);
+        if (!engine.triggerListenersBeforeEvaluate(rule, facts)) {
+            candidates.clear(index);
+            nonTriggered.clear(index);
+            return;
+        }
+        boolean applicable = false;
+        try {
+            applicable = rule.evaluate(facts);
+        } catch (RuntimeException exception) {
+            LOGGER.error("Rule '" + rules.getName(index) + "' evaluated with error", exception);
+            engine.triggerListenersOnEvaluationError(rule, facts, exception);
+        }
+        engine.triggerListenersAfterEvaluate(rule, facts, applicable);
+        candidates.set(index, applicable);
+        nonTriggered.set(index, !applicable);
+    }
+
+    /*
+     * Fill the agenda with candidates in their natural order and return its size.
+     */
+    private int fillAgenda() {
+        int limit = cutoff;
+        if (parameters.isSkipOnFirstNonTriggeredRule()) {
+            int firstNonTriggered = nonTriggered.nextSetBit(0);
+            if (firstNonTriggered >= 0 && firstNonTriggered < limit) {
+                limit = firstNonTriggered;
+            }
+        }
+        int size = 0;
+        for (int i = candidates.nextSetBit(0); i >= 0 && i < limit; i = candidates.nextSetBit(i + 1)) {
+            agenda[size++] = i;
+        }
+        return size;
+    }
+
+    private boolean execute(int index) {
+        Rule rule = rules.getRule(index);
+        try {
+            engine.triggerListenersBeforeExecute(rule, facts);
+            rule.execute(facts);
+            engine.triggerListenersOnSuccess(rule, facts);
+            return true;
+        } catch (Exception exception) {
+            LOGGER.error("Rule '" + rules.getName(index) + "' performed with error", exception);
+            engine.triggerListenersOnFailure(rule, exception, facts);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.BatchReport;
+import org.jeasy.rules.api.Facts;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Fires rules on facts read from an iterator, in batches spread across an executor.
+ *
+ * Facts are read on the calling thread. At most twice as many batches as the
+ * executor's parallelism are submitted at once: when all of them are in flight,
+ * the calling thread fires the next batch itself. Facts can then be streamed from
+ * a source larger than memory. No more batches are fired once a batch has failed.
+ */
+final class BatchFiring {
+
+    private BatchFiring() { }
+
+    static BatchReport fireAll(final Consumer<Facts> firing, final Iterator<Facts> facts,
+                               final int batchSize, final Executor batchExecutor) {
+        Executor executor = batchExecutor != null ? batchExecutor : ForkJoinPool.commonPool();
+        Semaphore permits = new Semaphore(2 * Utils.parallelismOf(executor));
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        long count = 0;
+        AtomicBoolean failed = new AtomicBoolean();
+        while (!failed.get() && facts.hasNext()) {
+            List<Facts> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && facts.hasNext()) {
+                batch.add(facts.next());
+            }
+            count += batch.size();
+            if (permits.tryAcquire()) {
+                CompletableFuture<Long> future = CompletableFuture.supplyAsync(() -> fire(firing, batch), executor);
+                future.whenComplete((nanos, throwable) -> {
+                    if (throwable != null) {
+                        failed.set(true);
+                    }
+                    permits.release();
+                });
+                futures.add(future);
+            } else {
+                // all workers are busy, the calling thread fires this batch
+                CompletableFuture<Long> future = new CompletableFuture<>();
+                futures.add(future);
+                try {
+                    future.complete(fire(firing, batch));
+                } catch (RuntimeException | Error e) {
+                    future.completeExceptionally(e);
+                    failed.set(true);
+                }
+            }
+        }
+        Utils.join(futures.toArray(new CompletableFuture<?>[0]));
+        long elapsed = System.nanoTime() - start;
+        long[] batchNanos = new long[futures.size()];
+        for (int i = 0; i < batchNanos.length; i++) {
+            batchNanos[i] = futures.get(i).join();
+        }
+        return new BatchReport(count, elapsed, batchNanos);
+    }
+
+    private static long fire(final Consumer<Facts> firing, final List<Facts> batch) {
+        long start = System.nanoTime();
+        for (Facts facts : batch) {
+            firing.accept(facts);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.CompiledRules;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Results of {@link DefaultRulesEngine#check}, stored as one byte per rule and
+ * indexed by the rule's position in the {@link CompiledRules} snapshot.
+ *
+ * Rules are first selected for evaluation (by rule listeners), then evaluated,
+ * possibly by several threads each working on a distinct range of positions.
+ * Only evaluated rules are visible through the map view, in natural order.
+ *
+ * The map can be modified by the caller of {@code check}: it is then copied to a
+ * {@link LinkedHashMap} on the first modification, and all operations are
+ * delegated to the copy.
+ */
+final class CheckResults extends AbstractMap<Rule, Boolean> {
+
+    private static final byte SKIPPED = 0;
+    private static final byte SELECTED = 1;
+    private static final byte FALSE = 2;
+    private static final byte TRUE = 3;
+
+    private final CompiledRules rules;
+    private final byte[] states;
+    private int size;
+    private Set<Map.Entry<Rule, Boolean>> entrySet;
+    private Map<Rule, Boolean> copy;
+
+    CheckResults(final CompiledRules rules) {
+        this.rules = rules;
+        this.states = new byte[rules.size()];
+    }
+
+    void select(final int index) {
+        states[index] = SELECTED;
+        size++;
+    }
+
+    void put(final int index, final boolean result) {
+        states[index] = result ? TRUE : FALSE;
+        size++;
+    }
+
+    void evaluate(final int from, final int to, final Facts facts) {
+        for (int i = from; i < to; i++) {
+            if (states[i] == SELECTED) {
+                states[i] = rules.getRule(i).evaluate(facts) ? TRUE : FALSE;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return copy != null ? copy.size() : size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        if (copy != null) {
+            return copy.containsKey(key);
+        }
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Boolean get(final Object key) {
+        if (copy != null) {
+            return copy.get(key);
+        }
+        int index = indexOf(key);
+        return index >= 0 ? states[index] == TRUE : null;
+    }
+
+    private int indexOf(final Object key) {
+        if (!(key instanceof Rule)) {
+            return -1;
+        }
+        int index = rules.indexOf((Rule) key);
+        return index >= 0 && states[index] >= FALSE ? index : -1;
+    }
+
+    @Override
+    public Boolean put(final Rule rule, final Boolean result) {
+        return copy().put(rule, result);
+    }
+
+    @Override
+    public Boolean remove(final Object key) {
+        return copy().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        copy().clear();
+    }
+
+    private Map<Rule, Boolean> copy() {
+        if (copy == null) {
+            Map<Rule, Boolean> results = new LinkedHashMap<>();
+            for (int i = 0; i < states.length; i++) {
+                if (states[i] >= FALSE) {
+                    results.put(rules.getRule(i), states[i] == TRUE);
+                }
+            }
+            copy = results;
+        }
+        return copy;
+    }
+
+    @Override
+    public Set<Map.Entry<Rule, Boolean>> entrySet() {
+        Set<Map.Entry<Rule, Boolean>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+            this.entrySet = entrySet;
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Rule, Boolean>> {
+
+        @Override
+        public int size() {
+            return CheckResults.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CheckResults.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<Rule, Boolean>> iterator() {
+            if (copy != null) {
+                return copy.entrySet().iterator();
+            }
+            return new Iterator<Map.Entry<Rule, Boolean>>() {
+
+                private int next = advance(0);
+                private int last = -1;
+
+                private int advance(int index) {
+                    while (index < states.length && states[index] < FALSE) {
+                        index++;
+                    }
+                    return index;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < states.length;
+                }
+
+                @Override
+                public Map.Entry<Rule, Boolean> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Map.Entry<Rule, Boolean> entry = new Entry(rules.getRule(next), states[next] == TRUE);
+                    last = next;
+                    next = advance(next + 1);
+                    return entry;
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    copy().remove(rules.getRule(last));
+                    last = -1;
+                }
+            };
+        }
+    }
+
+    private final class Entry extends SimpleEntry<Rule, Boolean> {
+
+        private Entry(final Rule rule, final Boolean result) {
+            super(rule, result);
+        }
+
+        @Override
+        public Boolean setValue(final Boolean result) {
+            copy().put(getKey(), result);
+            return super.setValue(result);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Action;
+import org.jeasy.rules.api.AsyncAction;
+import org.jeasy.rules.api.Facts;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * An action running independent actions concurrently on an executor, and
+ * completing when all of them are done. It fails with the failure of the first
+ * action, in declaration order, that failed.
+ *
+ * Actions must not depend on each other's effects, and facts must be safe to
+ * update concurrently if actions update them. Typically used with an executor
+ * created by {@link VirtualThreads#newExecutor()} for actions blocking on I/O:
+ * <pre>
+ * new RuleBuilder()
+ *         .when(...)
+ *         .then(new ConcurrentAction(executor, updateCache, notifyCustomer))
+ *         .build();
+ * </pre>
+ */
+public final class ConcurrentAction implements AsyncAction {
+
+    private final Executor executor;
+    private final List<Action> actions;
+
+    /**
+     * Create a new {@link ConcurrentAction}.
+     *
+     * @param executor to run actions on
+     * @param actions to run concurrently
+     */
+    public ConcurrentAction(final Executor executor, final Action... actions) {
+        this.executor = Objects.requireNonNull(executor);
+        this.actions = Arrays.asList(actions.clone());
+    }
+
+    @Override
+    public CompletionStage<Void> executeAsync(final Facts facts) {
+        CompletableFuture<?>[] executions = new CompletableFuture<?>[actions.size()];
+        for (int i = 0; i < executions.length; i++) {
+            Action action = actions.get(i);
+            executions[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    action.execute(facts);
+                } catch (Exception exception) {
+                    throw new CompletionException(exception);
+                }
+            }, executor);
+        }
+        return CompletableFuture.allOf(executions).handle((result, throwable) -> {
+            if (throwable == null) {
+                return null;
+            }
+            // report the failure of the first failed action, whichever completed first
+            for (CompletableFuture<?> execution : executions) {
+                if (execution.isCompletedExceptionally()) {
+                    execution.join();
+                }
+            }
+            throw throwable instanceof CompletionException
+                    ? (CompletionException) throwable : new CompletionException(throwable);
+        });
+    }
+}
@@ -24,20 +24,30 @@
 package org.jeasy.rules.core;
 
 import org.jeasy.rules.api.Action;
+import org.jeasy.rules.api.AsyncAction;
 import org.jeasy.rules.api.Condition;
 import org.jeasy.rules.api.Facts;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 class DefaultRule extends BasicRule {
 
     private final Condition condition;
     private final List<Action> actions;
+    private final Set<String> readFacts;
 
     DefaultRule(String name, String description, int priority, Condition condition, List<Action> actions) {
+        this(name, description, priority, condition, actions, condition.getReadFacts());
+    }
+
+    DefaultRule(String name, String description, int priority, Condition condition, List<Action> actions, Set<String> readFacts) {
         super(name, description, priority);
         this.condition = condition;
         this.actions = actions;
+        this.readFacts = readFacts;
     }
 
     @Override
@@ -45,6 +55,11 @@ class DefaultRule extends BasicRule {
         return condition.evaluate(facts);
     }
 
+    @Override
+    public Set<String> getReadFacts() {
+        return readFacts;
+    }
+
     @Override
     public void execute(Facts facts) throws Exception {
         for (Action action : actions) {
@@ -52,4 +67,27 @@ class DefaultRule extends BasicRule {
         }
     }
 
+    @Override
+    public CompletionStage<Void> executeAsync(Facts facts) {
+        return executeAsync(facts, 0);
+    }
+
+    // actions run in order, the ones following an asynchronous action are chained on its stage
+    private CompletionStage<Void> executeAsync(Facts facts, int from) {
+        for (int i = from; i < actions.size(); i++) {
+            Action action = actions.get(i);
+            try {
+                if (action instanceof AsyncAction) {
+                    int next = i + 1;
+                    return ((AsyncAction) action).executeAsync(facts)
+                            .thenCompose(result -> executeAsync(facts, next));
+                }
+                action.execute(facts);
+            } catch (Exception exception) {
+                return Utils.failedFuture(exception);
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
 }
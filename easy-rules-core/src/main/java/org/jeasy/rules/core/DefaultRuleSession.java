@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.RuleSession;
+import org.jeasy.rules.api.Rules;
+
+import java.util.Objects;
+
+/**
+ * Default {@link RuleSession} implementation, created by an {@link InferenceRulesEngine}.
+ *
+ * Facts are changed and rules fired under the lock of the session, so that rule
+ * actions see consistent facts. A thread waiting in {@link #fireUntilHalt()}
+ * releases the lock until facts change.
+ *
+ * {@link #halt()} does not take the lock, since the session may be firing rules
+ * for a long time: it sets a flag read by the firing thread, which stops after
+ * the rule being executed. The flag is cleared when {@link #fireAll()} or
+ * {@link #fireUntilHalt()} returns, so a halt requested before the firing thread
+ * takes the lock is not lost: that fire returns immediately.
+ */
+final class DefaultRuleSession implements RuleSession {
+
+    private final AbstractRulesEngine engine;
+    private final Rules rules;
+    private final Facts facts;
+    private final Agenda agenda;
+    private volatile boolean halted;
+    private boolean closed;
+
+    DefaultRuleSession(final AbstractRulesEngine engine, final Rules rules, final RuleDependencies dependencies, final Facts facts) {
+        this.engine = engine;
+        this.rules = rules;
+        this.facts = facts;
+        this.agenda = new Agenda(engine, dependencies, facts);
+    }
+
+    @Override
+    public synchronized void insert(final String name, final Object value) {
+        checkOpen();
+        Objects.requireNonNull(name, "fact name must not be null");
+        if (facts.get(name) != null) {
+            throw new IllegalArgumentException("Fact '" + name + "' already exists");
+        }
+        facts.put(name, value);
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void update(final String name, final Object value) {
+        checkOpen();
+        Objects.requireNonNull(name, "fact name must not be null");
+        if (facts.get(name) == null) {
+            throw new IllegalArgumentException("No fact named '" + name + "'");
+        }
+        facts.put(name, value);
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void retract(final String name) {
+        checkOpen();
+        facts.remove(name);
+        notifyAll();
+    }
+
+    @Override
+    public Facts getFacts() {
+        return facts;
+    }
+
+    @Override
+    public synchronized int fireAll() {
+        checkOpen();
+        try {
+            engine.triggerListenersBeforeRules(rules, facts);
+            int executions = agenda.fire();
+            engine.triggerListenersAfterRules(rules, facts);
+            return executions;
+        } finally {
+            consumeHalt();
+        }
+    }
+
+    @Override
+    public synchronized void fireUntilHalt() throws InterruptedException {
+        checkOpen();
+        try {
+            while (!halted && !closed) {
+                if (agenda.hasChanges()) {
+                    engine.triggerListenersBeforeRules(rules, facts);
+                    agenda.fire();
+                    engine.triggerListenersAfterRules(rules, facts);
+                } else {
+                    wait();
+                }
+            }
+        } finally {
+            consumeHalt();
+        }
+    }
+
+    @Override
+    public void halt() {
+        halted = true;
+        agenda.halt();
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            agenda.halt();
+            agenda.close();
+            notifyAll();
+        }
+    }
+
+    // a halt stops the fire in progress, or the next one if none is in progress
+    private void consumeHalt() {
+        halted = false;
+        agenda.resume();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Session is closed");
+        }
+    }
+}
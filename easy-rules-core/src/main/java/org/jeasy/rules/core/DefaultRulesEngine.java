@@ -23,17 +23,26 @@
  */
 package org.jeasy.rules.core;
 
+import org.jeasy.rules.api.BatchReport;
+import org.jeasy.rules.api.CompiledRules;
 import org.jeasy.rules.api.Fact;
 import org.jeasy.rules.api.Facts;
 import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.api.RuleListener;
 import org.jeasy.rules.api.Rules;
 import org.jeasy.rules.api.RulesEngine;
+import org.jeasy.rules.api.RulesEngineListener;
 import org.jeasy.rules.api.RulesEngineParameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 /**
  * Default {@link RulesEngine} implementation.
@@ -47,6 +56,7 @@ import java.util.Map;
 public final class DefaultRulesEngine extends AbstractRulesEngine {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultRulesEngine.class);
+    private static final int PARALLEL_CHECK_BATCH_SIZE = 64;
 
     /**
      * Create a new {@link DefaultRulesEngine} with default parameters.
@@ -71,67 +81,247 @@ public final class DefaultRulesEngine extends AbstractRulesEngine {
         triggerListenersAfterRules(rules, facts);
     }
 
+    /**
+     * Fire rules on each facts of the given batch. Rules are compiled and engine
+     * parameters are logged once for the whole batch.
+     *
+     * @param rules to fire
+     * @param facts to fire rules on
+     * @return a report of the batch
+     */
+    @Override
+    public BatchReport fireAll(Rules rules, Iterable<Facts> facts) {
+        CompiledRules compiledRules = rules.compile();
+        if (compiledRules.isEmpty()) {
+            LOGGER.warn("No rules registered! Nothing to apply");
+        }
+        final boolean tracing = isTracing();
+        if (tracing) {
+            logEngineParameters();
+            log(rules);
+        }
+        final int cutoff = compiledRules.cutoff(parameters.getPriorityThreshold());
+        return BatchFiring.fireAll(f -> {
+            triggerListenersBeforeRules(rules, f);
+            if (!compiledRules.isEmpty()) {
+                doFire(compiledRules, cutoff, f, tracing);
+            }
+            triggerListenersAfterRules(rules, f);
+        }, facts.iterator(), parameters.getBatchSize(), parameters.getBatchExecutor());
+    }
+
     void doFire(Rules rules, Facts facts) {
-        if (rules.isEmpty()) {
+        CompiledRules compiledRules = rules.compile();
+        if (compiledRules.isEmpty()) {
             LOGGER.warn("No rules registered! Nothing to apply");
             return;
         }
-        logEngineParameters();
-        log(rules);
-        log(facts);
-        LOGGER.debug("Rules evaluation started");
-        for (Rule rule : rules) {
-            final String name = rule.getName();
-            final int priority = rule.getPriority();
-            if (priority > parameters.getPriorityThreshold()) {
-                LOGGER.debug("Rule priority threshold ({}) exceeded at rule '{}' with priority={}, next rules will be skipped",
-                        parameters.getPriorityThreshold(), name, priority);
-                break;
+        final boolean tracing = isTracing();
+        if (tracing) {
+            logEngineParameters();
+            log(rules);
+        }
+        doFire(compiledRules, compiledRules.cutoff(parameters.getPriorityThreshold()), facts, tracing);
+    }
+
+    // debug-only work (like iterating over all rules and facts) is skipped when it would be discarded
+    private boolean isTracing() {
+        return parameters.isRuleTracing() && LOGGER.isDebugEnabled();
+    }
+
+    private void doFire(CompiledRules compiledRules, int cutoff, Facts facts, boolean tracing) {
+        if (tracing) {
+            log(facts);
+            LOGGER.debug("Rules evaluation started");
+        }
+        for (int i = 0; i < cutoff; i++) {
+            final Rule rule = compiledRules.getRule(i);
+            final String name = compiledRules.getName(i);
+            Evaluation evaluation = evaluate(rule, name, facts, tracing);
+            if (evaluation == Evaluation.STOP) {
+                return;
+            }
+            if (evaluation == Evaluation.EXECUTE) {
+                Exception failure = null;
+                try {
+                    triggerListenersBeforeExecute(rule, facts);
+                    rule.execute(facts);
+                } catch (Exception exception) {
+                    failure = exception;
+                }
+                if (!afterExecution(rule, name, facts, failure, tracing)) {
+                    return;
+                }
+            }
+        }
+        logPriorityThresholdExceeded(compiledRules, cutoff, tracing);
+    }
+
+    /**
+     * Fire rules on the given executor. Rule actions are executed with
+     * {@link Rule#executeAsync(Facts)}: when an action completes asynchronously, the
+     * next rules are fired once it is done, on the given executor. Listeners are
+     * called on the executor as well, never on threads completing actions.
+     *
+     * @param rules to fire
+     * @param facts to fire rules on
+     * @param executor to fire rules on
+     * @return a future completed when rules have been fired
+     */
+    @Override
+    public CompletableFuture<Void> fireAsync(Rules rules, Facts facts, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            triggerListenersBeforeRules(rules, facts);
+            return doFireAsync(rules, facts, executor)
+                    .thenRun(() -> triggerListenersAfterRules(rules, facts));
+        }, executor).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<Void> doFireAsync(Rules rules, Facts facts, Executor executor) {
+        CompiledRules compiledRules = rules.compile();
+        if (compiledRules.isEmpty()) {
+            LOGGER.warn("No rules registered! Nothing to apply");
+            return CompletableFuture.completedFuture(null);
+        }
+        final boolean tracing = isTracing();
+        if (tracing) {
+            logEngineParameters();
+            log(rules);
+            log(facts);
+            LOGGER.debug("Rules evaluation started");
+        }
+        int cutoff = compiledRules.cutoff(parameters.getPriorityThreshold());
+        return doFireAsync(compiledRules, cutoff, 0, facts, tracing, executor);
+    }
+
+    private CompletableFuture<Void> doFireAsync(CompiledRules compiledRules, int cutoff, int from,
+                                                Facts facts, boolean tracing, Executor executor) {
+        for (int i = from; i < cutoff; i++) {
+            final Rule rule = compiledRules.getRule(i);
+            final String name = compiledRules.getName(i);
+            Evaluation evaluation = evaluate(rule, name, facts, tracing);
+            if (evaluation == Evaluation.STOP) {
+                return CompletableFuture.completedFuture(null);
             }
-            if (!shouldBeEvaluated(rule, facts)) {
+            if (evaluation == Evaluation.EXECUTE) {
+                CompletableFuture<Void> execution;
+                try {
+                    triggerListenersBeforeExecute(rule, facts);
+                    execution = rule.executeAsync(facts).toCompletableFuture();
+                } catch (Exception exception) {
+                    execution = Utils.failedFuture(exception);
+                }
+                if (!execution.isDone()) {
+                    final int next = i + 1;
+                    return execution
+                            .handleAsync((result, throwable) -> afterExecution(rule, name, facts, failureOf(throwable), tracing), executor)
+                            .thenCompose(proceed -> proceed
+                                    ? doFireAsync(compiledRules, cutoff, next, facts, tracing, executor)
+                                    : CompletableFuture.completedFuture(null));
+                }
+                Exception failure = null;
+                try {
+                    execution.join();
+                } catch (CompletionException | CancellationException e) {
+                    failure = failureOf(e);
+                }
+                if (!afterExecution(rule, name, facts, failure, tracing)) {
+                    return CompletableFuture.completedFuture(null);
+                }
+            }
+        }
+        logPriorityThresholdExceeded(compiledRules, cutoff, tracing);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static Exception failureOf(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        if (throwable == null || throwable instanceof Exception) {
+            return (Exception) throwable;
+        }
+        throw (Error) throwable;
+    }
+
+    private Evaluation evaluate(Rule rule, String name, Facts facts, boolean tracing) {
+        if (!shouldBeEvaluated(rule, facts)) {
+            if (tracing) {
                 LOGGER.debug("Rule '{}' has been skipped before being evaluated", name);
-                continue;
             }
-            boolean evaluationResult = false;
-            try {
-                evaluationResult = rule.evaluate(facts);
-            } catch (RuntimeException exception) {
-                LOGGER.error("Rule '" + name + "' evaluated with error", exception);
-                triggerListenersOnEvaluationError(rule, facts, exception);
-                // give the option to either skip next rules on evaluation error or continue by considering the evaluation error as false
-                if (parameters.isSkipOnFirstNonTriggeredRule()) {
+            return Evaluation.SKIP;
+        }
+        boolean evaluationResult = false;
+        try {
+            evaluationResult = rule.evaluate(facts);
+        } catch (RuntimeException exception) {
+            LOGGER.error("Rule '" + name + "' evaluated with error", exception);
+            triggerListenersOnEvaluationError(rule, facts, exception);
+            // give the option to either skip next rules on evaluation error or continue by considering the evaluation error as false
+            if (parameters.isSkipOnFirstNonTriggeredRule()) {
+                if (tracing) {
                     LOGGER.debug("Next rules will be skipped since parameter skipOnFirstNonTriggeredRule is set");
-                    break;
                 }
+                return Evaluation.STOP;
             }
-            if (evaluationResult) {
+        }
+        if (evaluationResult) {
+            if (tracing) {
                 LOGGER.debug("Rule '{}' triggered", name);
-                triggerListenersAfterEvaluate(rule, facts, true);
-                try {
-                    triggerListenersBeforeExecute(rule, facts);
-                    rule.execute(facts);
+            }
+            triggerListenersAfterEvaluate(rule, facts, true);
+            return Evaluation.EXECUTE;
+        }
+        if (tracing) {
+            LOGGER.debug("Rule '{}' has been evaluated to false, it has not been executed", name);
+        }
+        triggerListenersAfterEvaluate(rule, facts, false);
+        if (parameters.isSkipOnFirstNonTriggeredRule()) {
+            if (tracing) {
+                LOGGER.debug("Next rules will be skipped since parameter skipOnFirstNonTriggeredRule is set");
+            }
+            return Evaluation.STOP;
+        }
+        return Evaluation.SKIP;
+    }
+
+    /*
+     * Notify listeners of the outcome of a rule execution and return
+     * true if next rules should be fired.
+     */
+    private boolean afterExecution(Rule rule, String name, Facts facts, Exception failure, boolean tracing) {
+        if (failure == null) {
+            try {
+                if (tracing) {
                     LOGGER.debug("Rule '{}' performed successfully", name);
-                    triggerListenersOnSuccess(rule, facts);
-                    if (parameters.isSkipOnFirstAppliedRule()) {
+                }
+                triggerListenersOnSuccess(rule, facts);
+                if (parameters.isSkipOnFirstAppliedRule()) {
+                    if (tracing) {
                         LOGGER.debug("Next rules will be skipped since parameter skipOnFirstAppliedRule is set");
-                        break;
-                    }
-                } catch (Exception exception) {
-                    LOGGER.error("Rule '" + name + "' performed with error", exception);
-                    triggerListenersOnFailure(rule, exception, facts);
-                    if (parameters.isSkipOnFirstFailedRule()) {
-                        LOGGER.debug("Next rules will be skipped since parameter skipOnFirstFailedRule is set");
-                        break;
                     }
+                    return false;
                 }
-            } else {
-                LOGGER.debug("Rule '{}' has been evaluated to false, it has not been executed", name);
-                triggerListenersAfterEvaluate(rule, facts, false);
-                if (parameters.isSkipOnFirstNonTriggeredRule()) {
-                    LOGGER.debug("Next rules will be skipped since parameter skipOnFirstNonTriggeredRule is set");
-                    break;
-                }
+                return true;
+            } catch (RuntimeException exception) {
+                failure = exception;
+            }
+        }
+        LOGGER.error("Rule '" + name + "' performed with error", failure);
+        triggerListenersOnFailure(rule, failure, facts);
+        if (parameters.isSkipOnFirstFailedRule()) {
+            if (tracing) {
+                LOGGER.debug("Next rules will be skipped since parameter skipOnFirstFailedRule is set");
             }
+            return false;
+        }
+        return true;
+    }
+
+    private void logPriorityThresholdExceeded(CompiledRules compiledRules, int cutoff, boolean tracing) {
+        if (tracing && cutoff < compiledRules.size()) {
+            LOGGER.debug("Rule priority threshold ({}) exceeded at rule '{}' with priority={}, next rules will be skipped",
+                    parameters.getPriorityThreshold(), compiledRules.getName(cutoff), compiledRules.getPriority(cutoff));
         }
     }
 
@@ -163,50 +353,63 @@ public final class DefaultRulesEngine extends AbstractRulesEngine {
     }
 
     private Map<Rule, Boolean> doCheck(Rules rules, Facts facts) {
-        LOGGER.debug("Checking rules");
-        Map<Rule, Boolean> result = new HashMap<>();
-        for (Rule rule : rules) {
-            if (shouldBeEvaluated(rule, facts)) {
-                result.put(rule, rule.evaluate(facts));
+        if (parameters.isRuleTracing()) {
+            LOGGER.debug("Checking rules");
+        }
+        CompiledRules compiledRules = rules.compile();
+        CheckResults results = new CheckResults(compiledRules);
+        if (parameters.isParallelCheck() && compiledRules.size() >= 2 * PARALLEL_CHECK_BATCH_SIZE) {
+            // listeners are called on the calling thread before rules are evaluated in parallel
+            for (int i = 0; i < compiledRules.size(); i++) {
+                if (shouldBeEvaluated(compiledRules.getRule(i), facts)) {
+                    results.select(i);
+                }
+            }
+            evaluateInParallel(results, compiledRules.size(), facts);
+        } else {
+            for (int i = 0; i < compiledRules.size(); i++) {
+                if (shouldBeEvaluated(compiledRules.getRule(i), facts)) {
+                    results.select(i);
+                    results.evaluate(i, i + 1, facts);
+                }
             }
         }
-        return result;
-    }
-
-    private void triggerListenersOnFailure(final Rule rule, final Exception exception, Facts facts) {
-        ruleListeners.forEach(ruleListener -> ruleListener.onFailure(rule, facts, exception));
-    }
-
-    private void triggerListenersOnSuccess(final Rule rule, Facts facts) {
-        ruleListeners.forEach(ruleListener -> ruleListener.onSuccess(rule, facts));
-    }
-
-    private void triggerListenersBeforeExecute(final Rule rule, Facts facts) {
-        ruleListeners.forEach(ruleListener -> ruleListener.beforeExecute(rule, facts));
+        return results;
     }
 
-    private boolean triggerListenersBeforeEvaluate(Rule rule, Facts facts) {
-        return ruleListeners.stream().allMatch(ruleListener -> ruleListener.beforeEvaluate(rule, facts));
-    }
-
-    private void triggerListenersAfterEvaluate(Rule rule, Facts facts, boolean evaluationResult) {
-        ruleListeners.forEach(ruleListener -> ruleListener.afterEvaluate(rule, facts, evaluationResult));
-    }
-
-    private void triggerListenersOnEvaluationError(Rule rule, Facts facts, Exception exception) {
-        ruleListeners.forEach(ruleListener -> ruleListener.onEvaluationError(rule, facts, exception));
-    }
-
-    private void triggerListenersBeforeRules(Rules rule, Facts facts) {
-        rulesEngineListeners.forEach(rulesEngineListener -> rulesEngineListener.beforeEvaluate(rule, facts));
-    }
-
-    private void triggerListenersAfterRules(Rules rule, Facts facts) {
-        rulesEngineListeners.forEach(rulesEngineListener -> rulesEngineListener.afterExecute(rule, facts));
+    private void evaluateInParallel(CheckResults results, int size, Facts facts) {
+        Executor executor = parameters.getCheckExecutor();
+        if (executor == null) {
+            executor = ForkJoinPool.commonPool();
+        }
+        int parallelism = Utils.parallelismOf(executor);
+        int batches = Math.max(1, Math.min(parallelism, size / PARALLEL_CHECK_BATCH_SIZE));
+        int batchSize = (size + batches - 1) / batches;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[batches - 1];
+        for (int b = 0; b < futures.length; b++) {
+            int from = b * batchSize;
+            int to = Math.min(size, from + batchSize);
+            futures[b] = CompletableFuture.runAsync(() -> results.evaluate(from, to, facts), executor);
+        }
+        try {
+            // the calling thread evaluates the last batch
+            results.evaluate(futures.length * batchSize, size, facts);
+        } finally {
+            Utils.join(futures);
+        }
     }
 
     private boolean shouldBeEvaluated(Rule rule, Facts facts) {
         return triggerListenersBeforeEvaluate(rule, facts);
     }
 
+    private enum Evaluation {
+        /** The rule has not been triggered, next rules should be evaluated. */
+        SKIP,
+        /** The rule has been triggered and should be executed. */
+        EXECUTE,
+        /** Next rules should be skipped. */
+        STOP
+    }
+
 }
@@ -0,0 +1,445 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.annotation.Fact;
+import org.jeasy.rules.api.FactKey;
+import org.jeasy.rules.api.Facts;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Describes how to bind facts to the parameters of a condition or action method.
+ *
+ * The plan is computed once per method and holds, for each parameter slot, the
+ * key of the fact to inject (or {@code null} for the {@link Facts} parameter) and
+ * the expected parameter type. Binding fills an argument array that is reused by
+ * the calling thread, so no reflection metadata is read on each invocation.
+ *
+ * Methods with int, long, double or boolean facts are also bound to a handle
+ * taking the target object and the facts (see {@link #getFactsHandle()}), which
+ * reads primitive facts with the primitive accessors of {@link org.jeasy.rules.api.Fact}
+ * and passes them to the method without boxing.
+ *
+ * As with {@link Method#invoke(Object, Object...)}, a fact bound to a primitive
+ * parameter may also hold a value of a narrower primitive type, which is widened
+ * to the parameter type (for example an {@link Integer} fact bound to a long
+ * parameter, see {@link #widen(Object, Class)}).
+ */
+final class FactBindingPlan {
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    /*
+     * Argument arrays of the current thread, indexed by arity. An array can be
+     * reused by a nested invocation since arguments are spread before the method
+     * is called.
+     */
+    private static final ThreadLocal<Object[][]> ARGUMENTS = ThreadLocal.withInitial(() -> new Object[8][]);
+
+    private static final UnboundFactException UNBOUND_FACT = new UnboundFactException();
+    private static final MethodHandle INT_FACT = findFactGetter("intFact", int.class);
+    private static final MethodHandle LONG_FACT = findFactGetter("longFact", long.class);
+    private static final MethodHandle DOUBLE_FACT = findFactGetter("doubleFact", double.class);
+    private static final MethodHandle BOOLEAN_FACT = findFactGetter("booleanFact", boolean.class);
+    private static final MethodHandle OBJECT_FACT = findFactGetter("objectFact", Object.class);
+    private static final MethodHandle WIDENED_FACT = findFactGetter("widenedFact", Object.class);
+
+    private final Method method;
+    private final String[] factNames;
+    private final FactKey<?>[] factKeys;
+    private final Class<?>[] parameterTypes;
+    private final boolean[] primitiveParameters;
+    private final Set<String> readFacts;
+    private final MethodHandle factsHandle;
+
+    /**
+     * Create the binding plan of a method.
+     *
+     * @param method to bind facts to
+     * @param handle of the method, taking the target object and the actual parameters
+     * @param returnType the return type of the {@link #getFactsHandle() facts handle}
+     */
+    FactBindingPlan(final Method method, final MethodHandle handle, final Class<?> returnType) {
+        this.method = method;
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        Class<?>[] types = method.getParameterTypes();
+        this.factNames = new String[types.length];
+        this.factKeys = new FactKey<?>[types.length];
+        this.parameterTypes = new Class<?>[types.length];
+        this.primitiveParameters = new boolean[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Annotation[] annotations = parameterAnnotations[i];
+            if (annotations.length == 1) {
+                factNames[i] = ((Fact) (annotations[0])).value(); //validated upfront.
+                factKeys[i] = FactKey.of(factNames[i]);
+            } // else validated upfront, there may be only one parameter not annotated and which is of type Facts.class
+            parameterTypes[i] = types[i].isPrimitive() ? MethodType.methodType(types[i]).wrap().returnType() : types[i];
+            primitiveParameters[i] = types[i].isPrimitive();
+        }
+        this.readFacts = readFacts(factNames);
+        this.factsHandle = hasPrimitiveFact(factNames, types) ? factsHandle(handle, factKeys, types, returnType) : null;
+    }
+
+    private static boolean hasPrimitiveFact(String[] factNames, Class<?>[] types) {
+        for (int i = 0; i < types.length; i++) {
+            if (factNames[i] != null && primitiveFactGetter(types[i]) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Adapts (Target, P1, ..., Pn)R to (Object, Facts)R, each parameter being
+     * filtered from the facts by a getter of the fact it is bound to.
+     */
+    private static MethodHandle factsHandle(final MethodHandle handle, final FactKey<?>[] factKeys, final Class<?>[] types, final Class<?> returnType) {
+        MethodHandle[] getters = new MethodHandle[types.length];
+        int[] reorder = new int[types.length + 1];
+        for (int i = 0; i < types.length; i++) {
+            getters[i] = factKeys[i] == null
+                    ? MethodHandles.identity(Facts.class).asType(MethodType.methodType(types[i], Facts.class))
+                    : factGetter(factKeys[i], types[i]);
+            reorder[i + 1] = 1;
+        }
+        MethodHandle adapted = handle.asType(handle.type().changeParameterType(0, Object.class).changeReturnType(returnType));
+        return MethodHandles.permuteArguments(MethodHandles.filterArguments(adapted, 1, getters),
+                MethodType.methodType(returnType, Object.class, Facts.class), reorder);
+    }
+
+    private static MethodHandle factGetter(final FactKey<?> factKey, final Class<?> type) {
+        MethodHandle getter = primitiveFactGetter(type);
+        if (getter != null) {
+            return MethodHandles.insertArguments(getter, 0, factKey);
+        }
+        if (type.isPrimitive()) {
+            Class<?> wrapperType = MethodType.methodType(type).wrap().returnType();
+            return MethodHandles.insertArguments(WIDENED_FACT, 0, wrapperType, factKey)
+                    .asType(MethodType.methodType(type, Facts.class));
+        }
+        return MethodHandles.insertArguments(OBJECT_FACT, 0, type, factKey)
+                .asType(MethodType.methodType(type, Facts.class));
+    }
+
+    private static MethodHandle primitiveFactGetter(final Class<?> type) {
+        if (type == int.class) {
+            return INT_FACT;
+        }
+        if (type == long.class) {
+            return LONG_FACT;
+        }
+        if (type == double.class) {
+            return DOUBLE_FACT;
+        }
+        if (type == boolean.class) {
+            return BOOLEAN_FACT;
+        }
+        return null;
+    }
+
+    private static MethodHandle findFactGetter(final String name, final Class<?> type) {
+        MethodType getterType = type == Object.class
+                ? MethodType.methodType(Object.class, Class.class, FactKey.class, Facts.class)
+                : MethodType.methodType(type, FactKey.class, Facts.class);
+        try {
+            return MethodHandles.lookup().findStatic(FactBindingPlan.class, name, getterType);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static org.jeasy.rules.api.Fact<?> fact(final FactKey<?> factKey, final Facts facts) {
+        org.jeasy.rules.api.Fact<?> fact = facts.getFact(factKey);
+        if (fact == null) {
+            throw UNBOUND_FACT;
+        }
+        return fact;
+    }
+
+    private static org.jeasy.rules.api.Fact<?> widenableFact(final FactKey<?> factKey, final Facts facts, final Class<?> wrapperType) {
+        org.jeasy.rules.api.Fact<?> fact = fact(factKey, facts);
+        if (!isWidenable(fact.getType(), wrapperType)) {
+            throw UNBOUND_FACT;
+        }
+        return fact;
+    }
+
+    private static int intFact(final FactKey<?> factKey, final Facts facts) {
+        return intValue(widenableFact(factKey, facts, Integer.class));
+    }
+
+    private static long longFact(final FactKey<?> factKey, final Facts facts) {
+        return longValue(widenableFact(factKey, facts, Long.class));
+    }
+
+    private static double doubleFact(final FactKey<?> factKey, final Facts facts) {
+        return doubleValue(widenableFact(factKey, facts, Double.class));
+    }
+
+    private static boolean booleanFact(final FactKey<?> factKey, final Facts facts) {
+        return widenableFact(factKey, facts, Boolean.class).getBoolean();
+    }
+
+    private static Object objectFact(final Class<?> type, final FactKey<?> factKey, final Facts facts) {
+        org.jeasy.rules.api.Fact<?> fact = fact(factKey, facts);
+        if (!type.isAssignableFrom(fact.getType())) {
+            throw UNBOUND_FACT;
+        }
+        return fact.getValue();
+    }
+
+    private static Object widenedFact(final Class<?> wrapperType, final FactKey<?> factKey, final Facts facts) {
+        return widen(widenableFact(factKey, facts, wrapperType).getValue(), wrapperType);
+    }
+
+    /*
+     * Primitive values of a fact that is widenable to int, long or double (see
+     * isWidenable), read without boxing when the fact holds an int, long or double.
+     */
+
+    static int intValue(final org.jeasy.rules.api.Fact<?> fact) {
+        return fact.getType() == Integer.class ? fact.getInt() : (Integer) widen(fact.getValue(), Integer.class);
+    }
+
+    static long longValue(final org.jeasy.rules.api.Fact<?> fact) {
+        Class<?> type = fact.getType();
+        if (type == Long.class) {
+            return fact.getLong();
+        }
+        return type == Integer.class ? fact.getInt() : (Long) widen(fact.getValue(), Long.class);
+    }
+
+    static double doubleValue(final org.jeasy.rules.api.Fact<?> fact) {
+        Class<?> type = fact.getType();
+        if (type == Double.class) {
+            return fact.getDouble();
+        }
+        if (type == Integer.class) {
+            return fact.getInt();
+        }
+        return type == Long.class ? fact.getLong() : (Double) widen(fact.getValue(), Double.class);
+    }
+
+    /**
+     * Tell if a value of the given type can be passed to a primitive parameter,
+     * either as is or by a widening primitive conversion.
+     *
+     * @param type of the value
+     * @param wrapperType wrapper type of the primitive parameter
+     * @return true if the value can be passed to the parameter
+     */
+    static boolean isWidenable(final Class<?> type, final Class<?> wrapperType) {
+        if (type == wrapperType) {
+            return true;
+        }
+        int rank = rank(type);
+        // char is never the target of a widening conversion, nor is short the target of a char
+        return wrapperType != Character.class && rank > 0 && rank(wrapperType) > rank;
+    }
+
+    /**
+     * Convert a value to the wrapper type of a primitive parameter, applying the
+     * widening primitive conversions of {@link Method#invoke(Object, Object...)}.
+     *
+     * @param value to convert, may be null
+     * @param wrapperType wrapper type of the primitive parameter
+     * @return the value itself if it is an instance of the wrapper type, the widened
+     *  value if it can be widened to the parameter type, or null otherwise
+     */
+    static Object widen(final Object value, final Class<?> wrapperType) {
+        if (wrapperType.isInstance(value)) {
+            return value;
+        }
+        if (value == null || !isWidenable(value.getClass(), wrapperType)) {
+            return null;
+        }
+        Number number = value instanceof Character ? (int) (Character) value : (Number) value;
+        if (wrapperType == Short.class) {
+            return number.shortValue();
+        }
+        if (wrapperType == Integer.class) {
+            return number.intValue();
+        }
+        if (wrapperType == Long.class) {
+            return number.longValue();
+        }
+        if (wrapperType == Float.class) {
+            return number.floatValue();
+        }
+        return number.doubleValue();
+    }
+
+    // order of the widening primitive conversions, 0 if the type cannot be widened
+    private static int rank(final Class<?> type) {
+        if (type == Byte.class) {
+            return 1;
+        }
+        if (type == Short.class || type == Character.class) {
+            return 2;
+        }
+        if (type == Integer.class) {
+            return 3;
+        }
+        if (type == Long.class) {
+            return 4;
+        }
+        if (type == Float.class) {
+            return 5;
+        }
+        if (type == Double.class) {
+            return 6;
+        }
+        return 0;
+    }
+
+    /**
+     * Return the handle binding facts to the method, if the method has primitive facts.
+     * The handle takes the target object and the facts, and throws an
+     * {@link UnboundFactException} if a fact is missing or does not match its
+     * parameter type (see {@link #findMissingFact(Facts)}).
+     *
+     * @return the handle, or null if facts are bound with {@link #bind(Facts)}
+     */
+    MethodHandle getFactsHandle() {
+        return factsHandle;
+    }
+
+    // null if the method takes all facts
+    private static Set<String> readFacts(String[] factNames) {
+        Set<String> readFacts = new LinkedHashSet<>();
+        for (String factName : factNames) {
+            if (factName == null) {
+                return null;
+            }
+            readFacts.add(factName);
+        }
+        return Collections.unmodifiableSet(readFacts);
+    }
+
+    /**
+     * Bind facts to the method parameters.
+     *
+     * @param facts to bind
+     * @return the actual parameters, to be released with {@link #release(Object[])}
+     *  once the method has been invoked, or null if a declared fact is missing or
+     *  does not match its parameter type (see {@link #findMissingFact(Facts)})
+     */
+    Object[] bind(final Facts facts) {
+        int arity = factNames.length;
+        if (arity == 0) {
+            return NO_ARGUMENTS;
+        }
+        Object[] arguments = arguments(arity);
+        for (int i = 0; i < arity; i++) {
+            FactKey<?> factKey = factKeys[i];
+            Object argument = factKey != null ? facts.get(factKey) : facts;
+            if (primitiveParameters[i]) {
+                argument = widen(argument, parameterTypes[i]);
+            }
+            // facts cannot have null values, so a missing fact is not an instance of the parameter type
+            if (!parameterTypes[i].isInstance(argument)) {
+                release(arguments);
+                return null;
+            }
+            arguments[i] = argument;
+        }
+        return arguments;
+    }
+
+    /**
+     * Find the first declared fact that is missing, after binding failed.
+     *
+     * @param facts that could not be bound
+     * @return the name of the missing fact, or null if all declared facts are
+     *  present (in which case a fact does not match its parameter type)
+     */
+    String findMissingFact(final Facts facts) {
+        for (String factName : factNames) {
+            if (factName != null && facts.get(factName) == null) {
+                return factName;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Clear the actual parameters so that the thread does not retain facts.
+     *
+     * @param arguments returned by {@link #bind(Facts)}
+     */
+    void release(final Object[] arguments) {
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = null;
+        }
+    }
+
+    /**
+     * Return the names of the facts bound by this plan.
+     *
+     * @return the fact names, or null if the method takes the {@link Facts}
+     */
+    Set<String> getReadFacts() {
+        return readFacts;
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Thrown by the {@link #getFactsHandle() facts handle} before the method is
+     * invoked when a fact cannot be bound. The exception is shared and has no
+     * stack trace.
+     */
+    static final class UnboundFactException extends RuntimeException {
+
+        private UnboundFactException() {
+            super("Fact cannot be bound", null, false, false);
+        }
+    }
+
+    private static Object[] arguments(final int arity) {
+        Object[][] arguments = ARGUMENTS.get();
+        if (arity >= arguments.length) {
+            Object[][] grown = new Object[arity + 1][];
+            System.arraycopy(arguments, 0, grown, 0, arguments.length);
+            ARGUMENTS.set(grown);
+            arguments = grown;
+        }
+        Object[] array = arguments[arity];
+        if (array == null) {
+            array = new Object[arity];
+            arguments[arity] = array;
+        }
+        return array;
+    }
+}
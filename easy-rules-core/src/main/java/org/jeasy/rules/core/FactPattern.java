@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Facts;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A test on a single named fact: the fact must be present, be an instance of
+ * the given type, and satisfy the given predicate.
+ *
+ * Patterns are the building blocks of {@link PatternRule}s. Since a pattern only
+ * depends on one fact, a {@link ReteRulesEngine} re-tests it only when this
+ * fact changes. Patterns with the same fact name and the same predicate instance
+ * are tested once for all rules sharing them.
+ *
+ * @param <T> type of the fact
+ */
+public final class FactPattern<T> {
+
+    private final String factName;
+    private final Class<T> factType;
+    private final Predicate<? super T> predicate;
+
+    /**
+     * Create a new {@link FactPattern}.
+     *
+     * @param factName name of the fact to test
+     * @param factType type of the fact to test
+     * @param predicate to test the fact value with
+     */
+    public FactPattern(final String factName, final Class<T> factType, final Predicate<? super T> predicate) {
+        this.factName = Objects.requireNonNull(factName, "fact name must not be null");
+        this.factType = Objects.requireNonNull(factType, "fact type must not be null");
+        this.predicate = Objects.requireNonNull(predicate, "predicate must not be null");
+    }
+
+    public String getFactName() {
+        return factName;
+    }
+
+    public Class<T> getFactType() {
+        return factType;
+    }
+
+    public Predicate<? super T> getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * Test the fact value. Missing facts and facts of another type do not match.
+     *
+     * @param value of the fact, possibly null
+     * @return true if the value matches this pattern, false otherwise
+     */
+    public boolean test(final Object value) {
+        return factType.isInstance(value) && predicate.test(factType.cast(value));
+    }
+
+    /**
+     * Test the fact named after this pattern in the given facts.
+     *
+     * @param facts to test
+     * @return true if the fact matches this pattern, false otherwise
+     */
+    public boolean matches(final Facts facts) {
+        return test(facts.get(factName));
+    }
+
+    @Override
+    public String toString() {
+        return factName + " : " + factType.getSimpleName();
+    }
+}
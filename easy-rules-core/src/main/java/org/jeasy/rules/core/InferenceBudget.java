@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.RulesEngineParameters;
+
+import java.time.Duration;
+
+/**
+ * Budget of an inference on some facts: how many cycles may be fired and for how
+ * long, as set by {@link RulesEngineParameters#getMaxCycles()} and
+ * {@link RulesEngineParameters#getMaxDuration()}.
+ */
+final class InferenceBudget {
+
+    private static final Duration MAX_NANOS = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final int maxCycles;
+    private final Duration maxDuration;
+    private final long maxNanos;
+    private final long start;
+    private int cycles;
+
+    InferenceBudget(final RulesEngineParameters parameters) {
+        this.maxCycles = parameters.getMaxCycles();
+        this.maxDuration = parameters.getMaxDuration();
+        this.maxNanos = maxDuration == null || maxDuration.compareTo(MAX_NANOS) > 0
+                ? Long.MAX_VALUE
+                : maxDuration.toNanos();
+        this.start = maxNanos == Long.MAX_VALUE ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Start a new cycle if the budget allows it.
+     *
+     * @return true if the cycle can be fired, false if the budget is exhausted
+     */
+    boolean startCycle() {
+        if (cycles >= maxCycles || maxNanos != Long.MAX_VALUE && System.nanoTime() - start > maxNanos) {
+            return false;
+        }
+        cycles++;
+        return true;
+    }
+
+    int getCycles() {
+        return cycles;
+    }
+
+    @Override
+    public String toString() {
+        return cycles >= maxCycles
+                ? "max cycles (" + maxCycles + ") reached"
+                : "max duration (" + maxDuration + ") exceeded";
+    }
+}
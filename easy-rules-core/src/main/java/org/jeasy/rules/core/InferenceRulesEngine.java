@@ -23,9 +23,11 @@
  */
 package org.jeasy.rules.core;
 
+import org.jeasy.rules.api.CompiledRules;
 import org.jeasy.rules.api.Facts;
 import org.jeasy.rules.api.Rule;
 import org.jeasy.rules.api.RuleListener;
+import org.jeasy.rules.api.RuleSession;
 import org.jeasy.rules.api.Rules;
 import org.jeasy.rules.api.RulesEngine;
 import org.jeasy.rules.api.RulesEngineListener;
@@ -43,7 +45,18 @@ import java.util.TreeSet;
  *
  * Rules are selected based on given facts and fired according to their natural
  * order which is priority by default. This implementation continuously selects
- * and fires rules until no more rules are applicable.
+ * and fires rules until no more rules are applicable, or until the budget set by
+ * {@link RulesEngineParameters#getMaxCycles()} and {@link RulesEngineParameters#getMaxDuration()}
+ * is exhausted.
+ *
+ * By default, candidate rules are evaluated again when fired, and a rule whose
+ * condition stays true after its action is fired at each cycle. With
+ * {@link RulesEngineParameters#isRefraction()}, candidates are fired from a single
+ * evaluation per cycle, and a rule is evaluated again only when facts it reads
+ * (see {@link Rule#getReadFacts()}) are added, replaced or removed, including by
+ * its own action. Rules whose read facts are unknown are evaluated again when any
+ * fact changes. A rule is not fired again until it has been evaluated again, so
+ * a rule whose condition stays true is not fired at each cycle.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -52,6 +65,7 @@ public final class InferenceRulesEngine extends AbstractRulesEngine {
     private static final Logger LOGGER = LoggerFactory.getLogger(InferenceRulesEngine.class);
 
     private final DefaultRulesEngine delegate;
+    private volatile RuleDependencies dependencies;
 
     /**
      * Create a new inference rules engine with default parameters.
@@ -72,14 +86,30 @@ public final class InferenceRulesEngine extends AbstractRulesEngine {
 
     @Override
     public void fire(Rules rules, Facts facts) {
+        if (parameters.isRefraction()) {
+            triggerListenersBeforeRules(rules, facts);
+            try (Agenda agenda = new Agenda(this, dependenciesOf(rules.compile()), facts)) {
+                agenda.fire();
+            }
+            triggerListenersAfterRules(rules, facts);
+            return;
+        }
+        InferenceBudget budget = new InferenceBudget(parameters);
         Set<Rule> selectedRules;
         do {
-            LOGGER.debug("Selecting candidate rules based on the following facts: {}", facts);
+            if (parameters.isRuleTracing()) {
+                LOGGER.debug("Selecting candidate rules based on the following facts: {}", facts);
+            }
             selectedRules = selectCandidates(rules, facts);
-            if (!selectedRules.isEmpty()) {
+            if (selectedRules.isEmpty()) {
+                if (parameters.isRuleTracing()) {
+                    LOGGER.debug("No candidate rules found for facts: {}", facts);
+                }
+            } else if (budget.startCycle()) {
                 delegate.fire(new Rules(selectedRules), facts);
             } else {
-                LOGGER.debug("No candidate rules found for facts: {}", facts);
+                LOGGER.warn("Inference stopped after {} cycles: {}", budget.getCycles(), budget);
+                return;
             }
         } while (!selectedRules.isEmpty());
     }
@@ -94,11 +124,45 @@ public final class InferenceRulesEngine extends AbstractRulesEngine {
         return candidates;
     }
 
+    /**
+     * Open a stateful session on the given rules and new empty facts.
+     *
+     * @param rules fired by the session
+     * @return a new session
+     * @see #newSession(Rules, Facts)
+     */
+    public RuleSession newSession(Rules rules) {
+        return newSession(rules, new Facts());
+    }
+
+    /**
+     * Open a stateful session on the given rules and facts. The session fires rules
+     * with refraction, whatever {@link RulesEngineParameters#isRefraction()} is,
+     * and notifies the listeners of this engine. Rules registered or unregistered
+     * after the session is opened are ignored by the session.
+     *
+     * @param rules fired by the session
+     * @param facts of the session, modified by the session
+     * @return a new session
+     */
+    public RuleSession newSession(Rules rules, Facts facts) {
+        return new DefaultRuleSession(this, rules, dependenciesOf(rules.compile()), facts);
+    }
+
     @Override
     public Map<Rule, Boolean> check(Rules rules, Facts facts) {
         return delegate.check(rules, facts);
     }
 
+    private RuleDependencies dependenciesOf(CompiledRules compiledRules) {
+        RuleDependencies dependencies = this.dependencies;
+        if (dependencies == null || dependencies.getRules() != compiledRules) {
+            dependencies = new RuleDependencies(compiledRules);
+            this.dependencies = dependencies;
+        }
+        return dependencies;
+    }
+
     /**
      * Register a rule listener.
      * @param ruleListener to register
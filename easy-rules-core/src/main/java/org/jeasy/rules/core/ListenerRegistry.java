@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copy-on-write registry of listeners.
+ *
+ * Registered listeners are kept in an array that is replaced (never modified) on
+ * registration, so that listeners can be dispatched by iterating over a plain array
+ * without locking or allocating, even while new listeners are being registered.
+ * Registering is expected to be rare compared to dispatching.
+ *
+ * @param <L> type of listeners
+ */
+final class ListenerRegistry<L> {
+
+    private volatile L[] listeners;
+
+    /**
+     * Create a new {@link ListenerRegistry}.
+     *
+     * @param noListeners empty array of the listener type
+     */
+    ListenerRegistry(final L[] noListeners) {
+        this.listeners = noListeners;
+    }
+
+    /**
+     * Get the registered listeners. The returned array must not be modified.
+     *
+     * @return registered listeners, in registration order
+     */
+    L[] get() {
+        return listeners;
+    }
+
+    synchronized void register(final L listener) {
+        L[] current = listeners;
+        L[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    synchronized void registerAll(final List<? extends L> listenersToRegister) {
+        L[] current = listeners;
+        L[] updated = Arrays.copyOf(current, current.length + listenersToRegister.size());
+        int i = current.length;
+        for (L listener : listenersToRegister) {
+            updated[i++] = listener;
+        }
+        listeners = updated;
+    }
+
+    /**
+     * @return an unmodifiable snapshot of the registered listeners
+     */
+    List<L> asList() {
+        return Collections.unmodifiableList(Arrays.asList(listeners));
+    }
+}
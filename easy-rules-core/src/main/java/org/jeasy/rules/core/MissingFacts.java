@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Fact;
+import org.jeasy.rules.api.Facts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Applies the {@link MissingFactPolicy} to rules created from annotated objects.
+ */
+final class MissingFacts {
+
+    static final long LOG_SAMPLING_RATE = 1000;
+    private static final int MAX_RENDERED_LENGTH = 512;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleProxy.class);
+
+    private static final ClassValue<AtomicLong> OCCURRENCES = new ClassValue<AtomicLong>() {
+        @Override
+        protected AtomicLong computeValue(Class<?> type) {
+            return new AtomicLong();
+        }
+    };
+
+    private MissingFacts() { }
+
+    /**
+     * Apply the policy of a rule to a fact missing when evaluating its condition.
+     *
+     * @param policy of the rule
+     * @param ruleClass class of the annotated rule
+     * @param factName name of the missing fact
+     * @param facts evaluated facts
+     * @return false, the result of the evaluation
+     * @throws NoSuchFactException if the policy is {@link MissingFactPolicy#FAIL}
+     */
+    static boolean onMissingFact(final MissingFactPolicy policy, final Class<?> ruleClass, final String factName, final Facts facts) {
+        switch (policy) {
+            case IGNORE:
+                return false;
+            case FAIL:
+                throw noSuchFact(factName, facts);
+            default:
+                long occurrences = OCCURRENCES.get(ruleClass).incrementAndGet();
+                if (occurrences % LOG_SAMPLING_RATE == 1) {
+                    LOGGER.warn("Rule '{}' has been evaluated to false due to a declared but missing fact '{}' in {} ({} occurrence(s) so far)",
+                            ruleClass.getName(), factName, render(facts), occurrences);
+                }
+                return false;
+        }
+    }
+
+    /*
+     * The message of the exception is rendered only if it is requested, for
+     * example when the exception is logged. The facts to render are captured
+     * when the exception is created, since the namespace may be mutated or
+     * reused afterwards, and only as many as fit in the rendered length.
+     */
+    static NoSuchFactException noSuchFact(final String factName, final Facts facts) {
+        final Object knownFacts = render(snapshot(facts));
+        return new NoSuchFactException(factName, new Object() {
+            @Override
+            public String toString() {
+                return format("No fact named '%s' found in known facts: %n%s", factName, knownFacts);
+            }
+        });
+    }
+
+    /*
+     * Facts are rendered only if the message is actually logged, and up to a
+     * bounded length since they can be numerous or large.
+     */
+    static Object render(final Iterable<Fact<?>> facts) {
+        return new Object() {
+            @Override
+            public String toString() {
+                StringBuilder builder = new StringBuilder("[");
+                Iterator<Fact<?>> iterator = facts.iterator();
+                while (iterator.hasNext() && builder.length() < MAX_RENDERED_LENGTH) {
+                    append(builder, iterator.next());
+                    if (iterator.hasNext()) {
+                        builder.append(",");
+                    }
+                }
+                if (builder.length() > MAX_RENDERED_LENGTH) {
+                    builder.setLength(MAX_RENDERED_LENGTH);
+                    builder.append("...");
+                } else if (iterator.hasNext()) {
+                    builder.append("...");
+                }
+                return builder.append("]").toString();
+            }
+        };
+    }
+
+    // renders a fact like Fact#toString, with its value cut to the remaining length
+    private static void append(StringBuilder builder, Fact<?> fact) {
+        builder.append("Fact{name='").append(fact.getName()).append("', value=");
+        String value = String.valueOf(fact.getValue());
+        int remaining = MAX_RENDERED_LENGTH - builder.length();
+        if (value.length() > remaining) {
+            builder.append(value, 0, Math.max(remaining, 0)).append("...");
+        } else {
+            builder.append(value);
+        }
+        builder.append('}');
+    }
+
+    /*
+     * Facts are immutable, so a copy of the list of facts of the namespace is not
+     * affected by later changes. The copy stops once the names of the copied facts
+     * exceed the rendered length, since the following facts would not be rendered.
+     */
+    private static List<Fact<?>> snapshot(final Facts facts) {
+        List<Fact<?>> snapshot = new ArrayList<>();
+        int length = 0;
+        for (Fact<?> fact : facts) {
+            snapshot.add(fact);
+            length += fact.getName().length();
+            if (length > MAX_RENDERED_LENGTH) {
+                break;
+            }
+        }
+        return snapshot;
+    }
+}
@@ -23,13 +23,35 @@
  */
 package org.jeasy.rules.core;
 
-class NoSuchFactException extends RuntimeException {
+/**
+ * Thrown when a fact declared with {@link org.jeasy.rules.annotation.Fact} by an
+ * annotated rule is missing.
+ */
+public class NoSuchFactException extends RuntimeException {
 
     private final String missingFact;
+    // rendered to the message when it is first requested
+    private Object lazyMessage;
+    private String message;
 
     public NoSuchFactException(String message, String missingFact) {
         super(message);
         this.missingFact = missingFact;
+        this.message = message;
+    }
+
+    NoSuchFactException(String missingFact, Object lazyMessage) {
+        this.missingFact = missingFact;
+        this.lazyMessage = lazyMessage;
+    }
+
+    @Override
+    public synchronized String getMessage() {
+        if (lazyMessage != null) {
+            message = lazyMessage.toString();
+            lazyMessage = null;
+        }
+        return message;
     }
 
     public String getMissingFact() {
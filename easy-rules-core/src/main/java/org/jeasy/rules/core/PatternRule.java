@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Action;
+import org.jeasy.rules.api.Condition;
+import org.jeasy.rules.api.Facts;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A rule whose condition is made of {@link FactPattern}s on named facts, all of
+ * which must match, and an optional join condition evaluated once all patterns
+ * match.
+ *
+ * Pattern rules can be fired by any rules engine. A {@link ReteRulesEngine}
+ * additionally uses their structure to re-evaluate them only when one of the
+ * facts they declare changes. Join conditions must therefore only read facts
+ * declared by the patterns of the rule.
+ *
+ * Use a {@link PatternRuleBuilder} to create pattern rules.
+ */
+public class PatternRule extends DefaultRule {
+
+    private final List<FactPattern<?>> patterns;
+    private final Condition join;
+
+    PatternRule(String name, String description, int priority,
+                List<FactPattern<?>> patterns, Condition join, List<Action> actions) {
+        super(name, description, priority, matching(patterns, join), actions, factNames(patterns));
+        this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+        this.join = join;
+    }
+
+    private static Condition matching(List<FactPattern<?>> patterns, Condition join) {
+        FactPattern<?>[] tests = patterns.toArray(new FactPattern<?>[0]);
+        return facts -> {
+            for (FactPattern<?> pattern : tests) {
+                if (!pattern.matches(facts)) {
+                    return false;
+                }
+            }
+            return join.evaluate(facts);
+        };
+    }
+
+    private static Set<String> factNames(List<FactPattern<?>> patterns) {
+        Set<String> factNames = new LinkedHashSet<>();
+        for (FactPattern<?> pattern : patterns) {
+            factNames.add(pattern.getFactName());
+        }
+        return Collections.unmodifiableSet(factNames);
+    }
+
+    /**
+     * Return the patterns of this rule.
+     *
+     * @return an unmodifiable list of patterns
+     */
+    public List<FactPattern<?>> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Check if this rule has a join condition.
+     *
+     * @return true if a join condition has been set, false otherwise
+     */
+    public boolean hasJoin() {
+        return join != Condition.TRUE;
+    }
+
+    /**
+     * Evaluate the join condition of this rule, assuming all patterns match.
+     *
+     * @param facts known facts
+     * @return the result of the join condition
+     */
+    public boolean evaluateJoin(Facts facts) {
+        return join.evaluate(facts);
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Action;
+import org.jeasy.rules.api.Condition;
+import org.jeasy.rules.api.Rule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Builder to create {@link PatternRule} instances.
+ *
+ * <pre>
+ * Rule rule = new PatternRuleBuilder()
+ *         .name("gold customer discount")
+ *         .when("customer", Customer.class, customer -&gt; customer.isGold())
+ *         .when("order", Order.class, order -&gt; order.getTotal() &gt; 100)
+ *         .join(facts -&gt; facts.&lt;Order&gt;get("order").getCustomerId() == facts.&lt;Customer&gt;get("customer").getId())
+ *         .then(facts -&gt; facts.put("discount", 10))
+ *         .build();
+ * </pre>
+ */
+public class PatternRuleBuilder {
+
+    private String name = Rule.DEFAULT_NAME;
+    private String description = Rule.DEFAULT_DESCRIPTION;
+    private int priority = Rule.DEFAULT_PRIORITY;
+
+    private final List<FactPattern<?>> patterns = new ArrayList<>();
+    private Condition join = Condition.TRUE;
+    private final List<Action> actions = new ArrayList<>();
+
+    /**
+     * Set rule name.
+     *
+     * @param name of the rule
+     * @return the builder instance
+     */
+    public PatternRuleBuilder name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Set rule description.
+     *
+     * @param description of the rule
+     * @return the builder instance
+     */
+    public PatternRuleBuilder description(String description) {
+        this.description = description;
+        return this;
+    }
+
+    /**
+     * Set rule priority.
+     *
+     * @param priority of the rule
+     * @return the builder instance
+     */
+    public PatternRuleBuilder priority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Add a pattern on a named fact.
+     *
+     * @param factName name of the fact
+     * @param factType type of the fact
+     * @param predicate the fact must satisfy
+     * @param <T> type of the fact
+     * @return the builder instance
+     */
+    public <T> PatternRuleBuilder when(String factName, Class<T> factType, Predicate<? super T> predicate) {
+        return when(new FactPattern<>(factName, factType, predicate));
+    }
+
+    /**
+     * Add a pattern on a named fact.
+     *
+     * @param pattern to add
+     * @return the builder instance
+     */
+    public PatternRuleBuilder when(FactPattern<?> pattern) {
+        this.patterns.add(pattern);
+        return this;
+    }
+
+    /**
+     * Set the join condition, evaluated once all patterns match. It must only
+     * read facts declared by patterns.
+     *
+     * @param join condition
+     * @return the builder instance
+     */
+    public PatternRuleBuilder join(Condition join) {
+        this.join = join;
+        return this;
+    }
+
+    /**
+     * Add an action to the rule.
+     *
+     * @param action to add
+     * @return the builder instance
+     */
+    public PatternRuleBuilder then(Action action) {
+        this.actions.add(action);
+        return this;
+    }
+
+    /**
+     * Create a new {@link PatternRule}.
+     *
+     * @return a new pattern rule
+     */
+    public PatternRule build() {
+        return new PatternRule(name, description, priority, patterns, join, new ArrayList<>(actions));
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.CompiledRules;
+import org.jeasy.rules.api.Fact;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.FactsListener;
+import org.jeasy.rules.api.Rule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Discrimination network of a {@link ReteRulesEngine}, built once for a
+ * {@link CompiledRules} snapshot.
+ *
+ * Each distinct {@link FactPattern} of {@link PatternRule}s is an alpha node,
+ * indexed by fact name. Each pattern rule is a beta node counting how many of
+ * its alpha nodes match, and caching the result of its join condition until one
+ * of its facts changes. Other rules are opaque: their condition is cached until
+ * any fact changes.
+ *
+ * The network itself is immutable and can be shared by concurrent fires, the
+ * state of a fire is kept in a {@link Memory}.
+ */
+final class ReteNetwork {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReteNetwork.class);
+
+    private static final int[] NONE = new int[0];
+
+    private static final byte UNKNOWN = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+
+    private final CompiledRules rules;
+    private final FactPattern<?>[] alphaNodes;
+    private final int[][] alphaSuccessors;
+    private final Map<String, int[]> alphaNodesByFact;
+    private final Map<String, int[]> joinsByFact;
+    private final int[][] ruleAlphaNodes;
+    private final boolean[] joins;
+    private final int[] opaqueRules;
+
+    ReteNetwork(final CompiledRules rules) {
+        this.rules = rules;
+        int size = rules.size();
+        List<FactPattern<?>> nodes = new ArrayList<>();
+        List<List<Integer>> successors = new ArrayList<>();
+        Map<Object, List<Integer>> nodesByPredicate = new IdentityHashMap<>();
+        Map<String, List<Integer>> nodesByFact = new HashMap<>();
+        Map<String, List<Integer>> joinRules = new HashMap<>();
+        List<Integer> opaque = new ArrayList<>();
+        this.ruleAlphaNodes = new int[size][];
+        this.joins = new boolean[size];
+        for (int r = 0; r < size; r++) {
+            Rule rule = rules.getRule(r);
+            if (!(rule instanceof PatternRule)) {
+                opaque.add(r);
+                continue;
+            }
+            PatternRule patternRule = (PatternRule) rule;
+            boolean join = patternRule.hasJoin();
+            List<FactPattern<?>> patterns = patternRule.getPatterns();
+            int[] ruleNodes = new int[patterns.size()];
+            for (int p = 0; p < ruleNodes.length; p++) {
+                FactPattern<?> pattern = patterns.get(p);
+                int node = findNode(nodes, nodesByPredicate, pattern);
+                if (node < 0) {
+                    node = nodes.size();
+                    nodes.add(pattern);
+                    successors.add(new ArrayList<>());
+                    nodesByPredicate.computeIfAbsent(pattern.getPredicate(), k -> new ArrayList<>()).add(node);
+                    nodesByFact.computeIfAbsent(pattern.getFactName(), k -> new ArrayList<>()).add(node);
+                }
+                successors.get(node).add(r);
+                ruleNodes[p] = node;
+                if (join) {
+                    List<Integer> declaring = joinRules.computeIfAbsent(pattern.getFactName(), k -> new ArrayList<>());
+                    if (declaring.isEmpty() || declaring.get(declaring.size() - 1) != r) {
+                        declaring.add(r);
+                    }
+                }
+            }
+            this.ruleAlphaNodes[r] = ruleNodes;
+            this.joins[r] = join;
+        }
+        this.alphaNodes = nodes.toArray(new FactPattern<?>[0]);
+        this.alphaSuccessors = new int[alphaNodes.length][];
+        for (int n = 0; n < alphaNodes.length; n++) {
+            this.alphaSuccessors[n] = toArray(successors.get(n));
+        }
+        this.alphaNodesByFact = toArrays(nodesByFact);
+        this.joinsByFact = toArrays(joinRules);
+        this.opaqueRules = toArray(opaque);
+    }
+
+    private static int findNode(List<FactPattern<?>> nodes, Map<Object, List<Integer>> nodesByPredicate, FactPattern<?> pattern) {
+        List<Integer> candidates = nodesByPredicate.get(pattern.getPredicate());
+        if (candidates != null) {
+            for (int candidate : candidates) {
+                FactPattern<?> node = nodes.get(candidate);
+                if (node.getFactName().equals(pattern.getFactName()) && node.getFactType() == pattern.getFactType()) {
+                    return candidate;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> lists) {
+        Map<String, int[]> arrays = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : lists.entrySet()) {
+            arrays.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        return arrays;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    CompiledRules getRules() {
+        return rules;
+    }
+
+    int getAlphaNodeCount() {
+        return alphaNodes.length;
+    }
+
+    /**
+     * Create the memory of a fire on the given facts, with all facts propagated.
+     * The memory listens to changes of facts until it is closed.
+     *
+     * @param facts to fire rules on
+     * @return a new memory
+     */
+    Memory newMemory(final Facts facts) {
+        Memory memory = new Memory(facts);
+        for (Fact<?> fact : facts) {
+            memory.changes.add(fact.getName());
+        }
+        facts.registerListener(memory);
+        memory.propagate();
+        return memory;
+    }
+
+    /**
+     * State of a fire: alpha memories (which alpha nodes match), beta memories
+     * (how many alpha nodes of each rule match, cached conditions), and the names
+     * of facts changed since the last propagation.
+     */
+    final class Memory implements FactsListener, AutoCloseable {
+
+        private final Facts facts;
+        private final boolean[] alphaMatches = new boolean[alphaNodes.length];
+        private final int[] matchedPatterns = new int[ruleAlphaNodes.length];
+        private final byte[] conditions = new byte[ruleAlphaNodes.length];
+        private final Set<String> changes = new LinkedHashSet<>();
+        private long evaluations;
+
+        private Memory(final Facts facts) {
+            this.facts = facts;
+        }
+
+        @Override
+        public void onChange(Facts facts, String factName) {
+            changes.add(factName);
+        }
+
+        /**
+         * Propagate facts that were added, replaced or removed since the last propagation.
+         *
+         * @return the number of changed facts
+         */
+        int propagate() {
+            int count = changes.size();
+            if (count == 0) {
+                return 0;
+            }
+            for (String name : changes) {
+                propagate(name);
+            }
+            changes.clear();
+            for (int rule : opaqueRules) {
+                conditions[rule] = UNKNOWN;
+            }
+            return count;
+        }
+
+        /**
+         * Stop listening to changes of facts.
+         */
+        @Override
+        public void close() {
+            facts.unregisterListener(this);
+        }
+
+        private void propagate(String name) {
+            Object value = facts.get(name);
+            for (int node : alphaNodesByFact.getOrDefault(name, NONE)) {
+                boolean match = test(alphaNodes[node], value);
+                if (match != alphaMatches[node]) {
+                    alphaMatches[node] = match;
+                    for (int rule : alphaSuccessors[node]) {
+                        matchedPatterns[rule] += match ? 1 : -1;
+                    }
+                }
+            }
+            for (int rule : joinsByFact.getOrDefault(name, NONE)) {
+                conditions[rule] = UNKNOWN;
+            }
+        }
+
+        private boolean test(FactPattern<?> pattern, Object value) {
+            evaluations++;
+            try {
+                return pattern.test(value);
+            } catch (RuntimeException exception) {
+                LOGGER.error("Pattern '" + pattern + "' evaluated with error", exception);
+                return false;
+            }
+        }
+
+        /**
+         * Check if the rule at the given index is active, evaluating its join
+         * condition (or its condition for opaque rules) only if needed.
+         *
+         * @param index of the rule
+         * @return true if the rule is active, false otherwise
+         */
+        boolean isActive(int index) {
+            int[] nodes = ruleAlphaNodes[index];
+            if (nodes != null) {
+                if (matchedPatterns[index] != nodes.length) {
+                    return false;
+                }
+                if (!joins[index]) {
+                    return true;
+                }
+            }
+            if (conditions[index] == UNKNOWN) {
+                conditions[index] = evaluate(index) ? TRUE : FALSE;
+            }
+            return conditions[index] == TRUE;
+        }
+
+        private boolean evaluate(int index) {
+            Rule rule = rules.getRule(index);
+            evaluations++;
+            try {
+                return ruleAlphaNodes[index] != null
+                        ? ((PatternRule) rule).evaluateJoin(facts)
+                        : rule.evaluate(facts);
+            } catch (RuntimeException exception) {
+                LOGGER.error("Rule '" + rules.getName(index) + "' evaluated with error", exception);
+                return false;
+            }
+        }
+
+        /**
+         * Return how many patterns and conditions have been evaluated so far.
+         *
+         * @return the number of evaluations
+         */
+        long getEvaluations() {
+            return evaluations;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.CompiledRules;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.api.Rules;
+import org.jeasy.rules.api.RulesEngine;
+import org.jeasy.rules.api.RulesEngineParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Inference {@link RulesEngine} implementation based on a Rete network.
+ *
+ * Like the {@link InferenceRulesEngine}, this engine fires applicable rules in
+ * their natural order, cycle after cycle, until no more rules are applicable.
+ * Instead of evaluating all conditions at each cycle, it keeps which patterns
+ * and rules match in memory and only re-evaluates what depends on facts added,
+ * replaced or removed by rule actions, as reported by {@link org.jeasy.rules.api.FactsListener}.
+ *
+ * This works best with {@link PatternRule}s, whose patterns are evaluated only
+ * when the fact they test changes. Other rules are re-evaluated when any fact
+ * changes. An action mutating a fact value in place must put it again so that the
+ * change is seen by the engine.
+ *
+ * Rule listeners are called when a rule is about to be executed, not when
+ * patterns and conditions are evaluated. Like with the {@link InferenceRulesEngine},
+ * {@link RulesEngineParameters#getMaxCycles()} and {@link RulesEngineParameters#getMaxDuration()}
+ * bound the number of cycles.
+ */
+public final class ReteRulesEngine extends AbstractRulesEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReteRulesEngine.class);
+
+    private volatile ReteNetwork network;
+
+    /**
+     * Create a new Rete rules engine with default parameters.
+     */
+    public ReteRulesEngine() {
+        super();
+    }
+
+    /**
+     * Create a new Rete rules engine.
+     *
+     * @param parameters of the engine
+     */
+    public ReteRulesEngine(final RulesEngineParameters parameters) {
+        super(parameters);
+    }
+
+    @Override
+    public void fire(Rules rules, Facts facts) {
+        triggerListenersBeforeRules(rules, facts);
+        doFire(rules, facts);
+        triggerListenersAfterRules(rules, facts);
+    }
+
+    private void doFire(Rules rules, Facts facts) {
+        CompiledRules compiledRules = rules.compile();
+        if (compiledRules.isEmpty()) {
+            LOGGER.warn("No rules registered! Nothing to apply");
+            return;
+        }
+        final boolean tracing = parameters.isRuleTracing() && LOGGER.isDebugEnabled();
+        try (ReteNetwork.Memory memory = networkOf(compiledRules).newMemory(facts)) {
+            int cutoff = compiledRules.cutoff(parameters.getPriorityThreshold());
+            int[] agenda = new int[cutoff];
+            InferenceBudget budget = new InferenceBudget(parameters);
+            while (true) {
+                int size = 0;
+                for (int i = 0; i < cutoff; i++) {
+                    if (memory.isActive(i)) {
+                        agenda[size++] = i;
+                    }
+                }
+                if (size == 0) {
+                    break;
+                }
+                if (!budget.startCycle()) {
+                    LOGGER.warn("Inference stopped after {} cycles: {}", budget.getCycles(), budget);
+                    return;
+                }
+                if (tracing) {
+                    LOGGER.debug("Cycle {}: {} candidate rules", budget.getCycles(), size);
+                }
+                fire(compiledRules, agenda, size, memory, facts);
+            }
+            if (tracing) {
+                LOGGER.debug("No more candidate rules after {} cycles and {} evaluations", budget.getCycles(), memory.getEvaluations());
+            }
+        }
+    }
+
+    private void fire(CompiledRules compiledRules, int[] agenda, int size, ReteNetwork.Memory memory, Facts facts) {
+        for (int k = 0; k < size; k++) {
+            int index = agenda[k];
+            Rule rule = compiledRules.getRule(index);
+            // a previous rule of this cycle may have changed facts this rule depends on
+            if (!memory.isActive(index)) {
+                triggerListenersAfterEvaluate(rule, facts, false);
+                if (parameters.isSkipOnFirstNonTriggeredRule()) {
+                    return;
+                }
+                continue;
+            }
+            if (!triggerListenersBeforeEvaluate(rule, facts)) {
+                continue;
+            }
+            triggerListenersAfterEvaluate(rule, facts, true);
+            boolean failed = false;
+            try {
+                triggerListenersBeforeExecute(rule, facts);
+                rule.execute(facts);
+                triggerListenersOnSuccess(rule, facts);
+            } catch (Exception exception) {
+                failed = true;
+                LOGGER.error("Rule '" + compiledRules.getName(index) + "' performed with error", exception);
+                triggerListenersOnFailure(rule, exception, facts);
+            }
+            memory.propagate();
+            if (failed ? parameters.isSkipOnFirstFailedRule() : parameters.isSkipOnFirstAppliedRule()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Check which rules are applicable to the given facts, evaluating each pattern once.
+     *
+     * @param rules to check
+     * @param facts to check rules on
+     * @return a map with the result of evaluation of each rule
+     */
+    @Override
+    public Map<Rule, Boolean> check(Rules rules, Facts facts) {
+        triggerListenersBeforeRules(rules, facts);
+        CompiledRules compiledRules = rules.compile();
+        CheckResults results = new CheckResults(compiledRules);
+        try (ReteNetwork.Memory memory = networkOf(compiledRules).newMemory(facts)) {
+            for (int i = 0; i < compiledRules.size(); i++) {
+                if (triggerListenersBeforeEvaluate(compiledRules.getRule(i), facts)) {
+                    results.put(i, memory.isActive(i));
+                }
+            }
+        }
+        triggerListenersAfterRules(rules, facts);
+        return results;
+    }
+
+    private ReteNetwork networkOf(CompiledRules compiledRules) {
+        ReteNetwork network = this.network;
+        if (network == null || network.getRules() != compiledRules) {
+            network = new ReteNetwork(compiledRules);
+            this.network = network;
+        }
+        return network;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Base class of the adapters generated at build time for classes annotated with
+ * {@link org.jeasy.rules.annotation.Rule} by the {@code easy-rules-annotation-processor}
+ * module. A generated adapter calls the condition and action methods of its target
+ * directly and is picked up by {@link RuleProxy#asRule(Object)} instead of a
+ * reflective proxy.
+ *
+ * Adapters behave like the rules created by {@link RuleProxy}: they have the same
+ * name, description, priority, equality and ordering.
+ *
+ * @param <T> type of the annotated rule object
+ */
+public abstract class RuleAdapter<T> implements Rule {
+
+    /**
+     * Suffix appended to the name of an annotated class (with nested class names
+     * separated by {@code _}) to get the name of its adapter.
+     */
+    public static final String SUFFIX = "_RuleAdapter";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleAdapter.class);
+
+    protected final T target;
+    private final String name;
+    private final String description;
+    private final int priority;
+    private final MissingFactPolicy missingFactPolicy;
+
+    /**
+     * Create a new {@link RuleAdapter}.
+     *
+     * @param target annotated rule object
+     * @param name of the rule
+     * @param description of the rule
+     * @param priority of the rule
+     */
+    protected RuleAdapter(final T target, final String name, final String description, final int priority) {
+        this(target, name, description, priority, MissingFactPolicy.LOG);
+    }
+
+    /**
+     * Create a new {@link RuleAdapter}.
+     *
+     * @param target annotated rule object
+     * @param name of the rule
+     * @param description of the rule
+     * @param priority of the rule
+     * @param missingFactPolicy applied when a fact declared by the condition method is missing
+     */
+    protected RuleAdapter(final T target, final String name, final String description, final int priority,
+                          final MissingFactPolicy missingFactPolicy) {
+        this.target = Objects.requireNonNull(target, "target must not be null");
+        this.name = name;
+        this.description = description;
+        this.priority = priority;
+        this.missingFactPolicy = Objects.requireNonNull(missingFactPolicy, "missingFactPolicy must not be null");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Get the annotated rule object.
+     *
+     * @return the annotated rule object
+     */
+    public T getTarget() {
+        return target;
+    }
+
+    /**
+     * Called when a fact declared by the condition method is missing or does not
+     * match the parameter type. A missing fact is handled according to the
+     * {@link MissingFactPolicy} of this rule, otherwise the condition is evaluated to false.
+     *
+     * @param facts evaluated facts
+     * @param factName name of the fact, or null for the {@link Facts} parameter
+     * @param methodName name of the condition method
+     * @return false
+     * @throws NoSuchFactException if the fact is missing and the policy is {@link MissingFactPolicy#FAIL}
+     */
+    protected boolean conditionNotApplicable(final Facts facts, final String factName, final String methodName) {
+        if (factName != null && facts.get(factName) == null) {
+            return MissingFacts.onMissingFact(missingFactPolicy, target.getClass(), factName, facts);
+        }
+        LOGGER.warn("Types of injected facts in method '{}' in rule '{}' do not match parameters types",
+                methodName, target.getClass().getName());
+        return false;
+    }
+
+    /**
+     * Create the exception thrown when a fact declared by an action method is
+     * missing or does not match the parameter type.
+     *
+     * @param facts executed facts
+     * @param factName name of the fact, or null for the {@link Facts} parameter
+     * @param methodName name of the action method
+     * @return the exception to throw
+     */
+    protected RuntimeException actionNotApplicable(final Facts facts, final String factName, final String methodName) {
+        if (factName != null && facts.get(factName) == null) {
+            return MissingFacts.noSuchFact(factName, facts);
+        }
+        return new IllegalArgumentException(format("Types of injected facts in method '%s' in rule '%s' do not match parameters types",
+                methodName, target.getClass().getName()));
+    }
+
+    /**
+     * Create the set of the facts declared with {@link org.jeasy.rules.annotation.Fact}
+     * by the condition method, returned by {@link #getReadFacts()}. Adapters
+     * create it once, when they are initialized.
+     *
+     * @param factNames names of the facts declared by the condition method
+     * @return an unmodifiable set of the fact names
+     */
+    protected static Set<String> readFacts(final String... factNames) {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(factNames)));
+    }
+
+    /**
+     * Tell if a fact can be injected into a primitive parameter, either as is or by
+     * a widening primitive conversion (for example an int fact into a long parameter).
+     *
+     * @param fact to inject, may be null
+     * @param wrapperType wrapper type of the primitive parameter
+     * @return true if the fact is present and can be injected
+     */
+    protected static boolean isWidenable(final org.jeasy.rules.api.Fact<?> fact, final Class<?> wrapperType) {
+        return fact != null && FactBindingPlan.isWidenable(fact.getType(), wrapperType);
+    }
+
+    /**
+     * Get the value of a fact injected into an int parameter.
+     *
+     * @param fact for which {@link #isWidenable(org.jeasy.rules.api.Fact, Class)} is true
+     * @return the fact value, widened to an int
+     */
+    protected static int intValue(final org.jeasy.rules.api.Fact<?> fact) {
+        return FactBindingPlan.intValue(fact);
+    }
+
+    /**
+     * Get the value of a fact injected into a long parameter.
+     *
+     * @param fact for which {@link #isWidenable(org.jeasy.rules.api.Fact, Class)} is true
+     * @return the fact value, widened to a long
+     */
+    protected static long longValue(final org.jeasy.rules.api.Fact<?> fact) {
+        return FactBindingPlan.longValue(fact);
+    }
+
+    /**
+     * Get the value of a fact injected into a double parameter.
+     *
+     * @param fact for which {@link #isWidenable(org.jeasy.rules.api.Fact, Class)} is true
+     * @return the fact value, widened to a double
+     */
+    protected static double doubleValue(final org.jeasy.rules.api.Fact<?> fact) {
+        return FactBindingPlan.doubleValue(fact);
+    }
+
+    /**
+     * Get the value of a fact injected into a boolean parameter.
+     *
+     * @param fact for which {@link #isWidenable(org.jeasy.rules.api.Fact, Class)} is true
+     * @return the fact value
+     */
+    protected static boolean booleanValue(final org.jeasy.rules.api.Fact<?> fact) {
+        return fact.getBoolean();
+    }
+
+    /**
+     * Convert the value of a fact injected into a primitive parameter.
+     *
+     * @param value of the fact, may be null
+     * @param wrapperType wrapper type of the primitive parameter
+     * @return the value, widened to the parameter type if needed, or null if the
+     *  value is missing or cannot be injected
+     */
+    protected static Object widen(final Object value, final Class<?> wrapperType) {
+        return FactBindingPlan.widen(value, wrapperType);
+    }
+
+    /**
+     * Get the annotated object behind a rule created from an annotated object.
+     *
+     * @param rule to inspect
+     * @return the annotated object or null if the rule has not been created
+     * from an annotated object
+     */
+    protected static Object targetOf(final Rule rule) {
+        if (rule instanceof RuleAdapter) {
+            return ((RuleAdapter<?>) rule).getTarget();
+        }
+        if (rule instanceof RuleProxy) {
+            return ((RuleProxy) rule).getTarget();
+        }
+        return null;
+    }
+
+    @Override
+    public int compareTo(final Rule otherRule) {
+        int otherPriority = otherRule.getPriority();
+        if (priority < otherPriority) {
+            return -1;
+        } else if (priority > otherPriority) {
+            return 1;
+        } else {
+            String otherName = otherRule.getName();
+            return name.compareTo(otherName);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Rule)) {
+            return false;
+        }
+        Rule otherRule = (Rule) o;
+        if (priority != otherRule.getPriority()) {
+            return false;
+        }
+        if (!name.equals(otherRule.getName())) {
+            return false;
+        }
+        return Objects.equals(description, otherRule.getDescription());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name.hashCode();
+        result = 31 * result + (description != null ? description.hashCode() : 0);
+        result = 31 * result + priority;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return target.toString();
+    }
+
+}
@@ -25,10 +25,15 @@ package org.jeasy.rules.core;
 
 import org.jeasy.rules.api.Action;
 import org.jeasy.rules.api.Condition;
+import org.jeasy.rules.api.FactKey;
 import org.jeasy.rules.api.Rule;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Builder to create {@link Rule} instances.
@@ -43,6 +48,7 @@ public class RuleBuilder {
 
     private Condition condition = Condition.FALSE;
     private final List<Action> actions = new ArrayList<>();
+    private Set<String> readFacts;
 
     /**
      * Set rule name.
@@ -88,6 +94,35 @@ public class RuleBuilder {
         return this;
     }
 
+    /**
+     * Declare the names of the facts read by the rule condition, so that inference
+     * engines evaluate it again only when one of these facts changes. Overrides
+     * {@link Condition#getReadFacts()}.
+     *
+     * @param factNames read by the condition
+     * @return the builder instance
+     */
+    public RuleBuilder reads(String... factNames) {
+        this.readFacts = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(factNames)));
+        return this;
+    }
+
+    /**
+     * Declare the keys of the facts read by the rule condition.
+     *
+     * @param factKeys read by the condition
+     * @return the builder instance
+     * @see #reads(String...)
+     */
+    public RuleBuilder reads(FactKey<?>... factKeys) {
+        Set<String> factNames = new LinkedHashSet<>();
+        for (FactKey<?> factKey : factKeys) {
+            factNames.add(factKey.getName());
+        }
+        this.readFacts = Collections.unmodifiableSet(factNames);
+        return this;
+    }
+
     /**
      * Add an action to the rule.
      *
@@ -105,6 +140,7 @@ public class RuleBuilder {
      * @return a new rule instance
      */
     public Rule build() {
-        return new DefaultRule(name, description, priority, condition, actions);
+        return new DefaultRule(name, description, priority, condition, actions,
+                readFacts != null ? readFacts : condition.getReadFacts());
     }
 }
@@ -46,69 +46,73 @@ import org.jeasy.rules.api.Facts;
 class RuleDefinitionValidator {
 
     void validateRuleDefinition(final Object rule) {
-        checkRuleClass(rule);
-        checkConditionMethod(rule);
-        checkActionMethods(rule);
-        checkPriorityMethod(rule);
+        validateRuleDefinition(rule.getClass());
     }
 
-    private void checkRuleClass(final Object rule) {
-        if (!isRuleClassWellDefined(rule)) {
-            throw new IllegalArgumentException(format("Rule '%s' is not annotated with '%s'", rule.getClass().getName(), Rule.class.getName()));
+    void validateRuleDefinition(final Class<?> ruleClass) {
+        checkRuleClass(ruleClass);
+        checkConditionMethod(ruleClass);
+        checkActionMethods(ruleClass);
+        checkPriorityMethod(ruleClass);
+    }
+
+    private void checkRuleClass(final Class<?> ruleClass) {
+        if (!isRuleClassWellDefined(ruleClass)) {
+            throw new IllegalArgumentException(format("Rule '%s' is not annotated with '%s'", ruleClass.getName(), Rule.class.getName()));
         }
     }
 
-    private void checkConditionMethod(final Object rule) {
-        List<Method> conditionMethods = getMethodsAnnotatedWith(Condition.class, rule);
+    private void checkConditionMethod(final Class<?> ruleClass) {
+        List<Method> conditionMethods = getMethodsAnnotatedWith(Condition.class, ruleClass);
         if (conditionMethods.isEmpty()) {
-            throw new IllegalArgumentException(format("Rule '%s' must have a public method annotated with '%s'", rule.getClass().getName(), Condition.class.getName()));
+            throw new IllegalArgumentException(format("Rule '%s' must have a public method annotated with '%s'", ruleClass.getName(), Condition.class.getName()));
         }
 
         if (conditionMethods.size() > 1) {
-            throw new IllegalArgumentException(format("Rule '%s' must have exactly one method annotated with '%s'", rule.getClass().getName(), Condition.class.getName()));
+            throw new IllegalArgumentException(format("Rule '%s' must have exactly one method annotated with '%s'", ruleClass.getName(), Condition.class.getName()));
         }
 
         Method conditionMethod = conditionMethods.get(0);
 
         if (!isConditionMethodWellDefined(conditionMethod)) {
-            throw new IllegalArgumentException(format("Condition method '%s' defined in rule '%s' must be public, must return boolean type and may have parameters annotated with @Fact (and/or exactly one parameter of type Facts or one of its sub-types).", conditionMethod, rule.getClass().getName()));
+            throw new IllegalArgumentException(format("Condition method '%s' defined in rule '%s' must be public, must return boolean type and may have parameters annotated with @Fact (and/or exactly one parameter of type Facts or one of its sub-types).", conditionMethod, ruleClass.getName()));
         }
     }
 
-    private void checkActionMethods(final Object rule) {
-        List<Method> actionMethods = getMethodsAnnotatedWith(Action.class, rule);
+    private void checkActionMethods(final Class<?> ruleClass) {
+        List<Method> actionMethods = getMethodsAnnotatedWith(Action.class, ruleClass);
         if (actionMethods.isEmpty()) {
-            throw new IllegalArgumentException(format("Rule '%s' must have at least one public method annotated with '%s'", rule.getClass().getName(), Action.class.getName()));
+            throw new IllegalArgumentException(format("Rule '%s' must have at least one public method annotated with '%s'", ruleClass.getName(), Action.class.getName()));
         }
 
         for (Method actionMethod : actionMethods) {
             if (!isActionMethodWellDefined(actionMethod)) {
-                throw new IllegalArgumentException(format("Action method '%s' defined in rule '%s' must be public, must return void type and may have parameters annotated with @Fact (and/or exactly one parameter of type Facts or one of its sub-types).", actionMethod, rule.getClass().getName()));
+                throw new IllegalArgumentException(format("Action method '%s' defined in rule '%s' must be public, must return void type and may have parameters annotated with @Fact (and/or exactly one parameter of type Facts or one of its sub-types).", actionMethod, ruleClass.getName()));
             }
         }
     }
 
-    private void checkPriorityMethod(final Object rule) {
+    private void checkPriorityMethod(final Class<?> ruleClass) {
 
-        List<Method> priorityMethods = getMethodsAnnotatedWith(Priority.class, rule);
+        List<Method> priorityMethods = getMethodsAnnotatedWith(Priority.class, ruleClass);
 
         if (priorityMethods.isEmpty()) {
             return;
         }
 
         if (priorityMethods.size() > 1) {
-            throw new IllegalArgumentException(format("Rule '%s' must have exactly one method annotated with '%s'", rule.getClass().getName(), Priority.class.getName()));
+            throw new IllegalArgumentException(format("Rule '%s' must have exactly one method annotated with '%s'", ruleClass.getName(), Priority.class.getName()));
         }
 
         Method priorityMethod = priorityMethods.get(0);
 
         if (!isPriorityMethodWellDefined(priorityMethod)) {
-            throw new IllegalArgumentException(format("Priority method '%s' defined in rule '%s' must be public, have no parameters and return integer type.", priorityMethod, rule.getClass().getName()));
+            throw new IllegalArgumentException(format("Priority method '%s' defined in rule '%s' must be public, have no parameters and return integer type.", priorityMethod, ruleClass.getName()));
         }
     }
 
-    private boolean isRuleClassWellDefined(final Object rule) {
-        return Utils.isAnnotationPresent(Rule.class, rule.getClass());
+    private boolean isRuleClassWellDefined(final Class<?> ruleClass) {
+        return Utils.isAnnotationPresent(Rule.class, ruleClass);
     }
 
     private boolean isConditionMethodWellDefined(final Method method) {
@@ -166,8 +170,8 @@ class RuleDefinitionValidator {
                 && method.getParameterTypes().length == 0;
     }
 
-    private List<Method> getMethodsAnnotatedWith(final Class<? extends Annotation> annotation, final Object rule) {
-        Method[] methods = getMethods(rule);
+    private List<Method> getMethodsAnnotatedWith(final Class<? extends Annotation> annotation, final Class<?> ruleClass) {
+        Method[] methods = getMethods(ruleClass);
         List<Method> annotatedMethods = new ArrayList<>();
         for (Method method : methods) {
             if (method.isAnnotationPresent(annotation)) {
@@ -177,8 +181,8 @@ class RuleDefinitionValidator {
         return annotatedMethods;
     }
 
-    private Method[] getMethods(final Object rule) {
-        return rule.getClass().getMethods();
+    private Method[] getMethods(final Class<?> ruleClass) {
+        return ruleClass.getMethods();
     }
 
 }
@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.CompiledRules;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.FactsListener;
+import org.jeasy.rules.api.Rule;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the facts read by the rules of a {@link CompiledRules} snapshot (see
+ * {@link Rule#getReadFacts()}), built once and used to find the rules affected
+ * by changed facts. Rules whose read facts are unknown are affected by any change.
+ *
+ * The index is immutable and can be shared by concurrent fires, changes of the
+ * facts of a fire are kept in a {@link Tracker}.
+ */
+final class RuleDependencies {
+
+    private final CompiledRules rules;
+    private final Map<String, Integer> factIds = new HashMap<>();
+    // rules reading each fact, by fact id
+    private final int[][] readers;
+    private final BitSet opaqueRules = new BitSet();
+
+    RuleDependencies(final CompiledRules rules) {
+        this.rules = rules;
+        List<List<Integer>> readerLists = new ArrayList<>();
+        for (int r = 0; r < rules.size(); r++) {
+            Set<String> readFacts = rules.getRule(r).getReadFacts();
+            if (readFacts == null) {
+                opaqueRules.set(r);
+                continue;
+            }
+            for (String factName : readFacts) {
+                Integer id = factIds.get(factName);
+                if (id == null) {
+                    id = readerLists.size();
+                    factIds.put(factName, id);
+                    readerLists.add(new ArrayList<>());
+                }
+                readerLists.get(id).add(r);
+            }
+        }
+        this.readers = new int[readerLists.size()][];
+        for (int id = 0; id < readers.length; id++) {
+            List<Integer> list = readerLists.get(id);
+            readers[id] = new int[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                readers[id][i] = list.get(i);
+            }
+        }
+    }
+
+    CompiledRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Start tracking changes of the given facts. All rules are affected until
+     * the first call to {@link Tracker#drain()}.
+     *
+     * @param facts to track
+     * @return a tracker, to be closed to stop tracking
+     */
+    Tracker track(final Facts facts) {
+        Tracker tracker = new Tracker(facts);
+        tracker.pending.set(0, rules.size());
+        tracker.drained = false;
+        facts.registerListener(tracker);
+        return tracker;
+    }
+
+    /**
+     * Rules affected by changes of facts since the last drain.
+     */
+    final class Tracker implements FactsListener, AutoCloseable {
+
+        private final Facts facts;
+        // rules reading facts changed since the last drain, except opaque rules
+        private final BitSet pending = new BitSet();
+        private final BitSet affected = new BitSet();
+        // ids of changed facts read by some rule, and whether each fact is among them
+        private final int[] changedFacts = new int[readers.length];
+        private final boolean[] changedFlags = new boolean[readers.length];
+        private int changedCount;
+        private boolean changed;
+        private boolean drained = true;
+
+        private Tracker(final Facts facts) {
+            this.facts = facts;
+        }
+
+        @Override
+        public void onChange(Facts facts, String factName) {
+            changed = true;
+            Integer id = factIds.get(factName);
+            if (id != null && !changedFlags[id]) {
+                changedFlags[id] = true;
+                changedFacts[changedCount++] = id;
+                for (int reader : readers[id]) {
+                    pending.set(reader);
+                }
+            }
+        }
+
+        /**
+         * Return the indexes of the rules affected by facts changed since the last
+         * drain. The returned set is valid until the next drain.
+         *
+         * @return indexes of affected rules
+         */
+        BitSet drain() {
+            affected.clear();
+            affected.or(pending);
+            pending.clear();
+            if (changed) {
+                affected.or(opaqueRules);
+            }
+            for (int k = 0; k < changedCount; k++) {
+                changedFlags[changedFacts[k]] = false;
+            }
+            changedCount = 0;
+            changed = false;
+            drained = true;
+            return affected;
+        }
+
+        /**
+         * Check if a rule is affected by facts changed since the last drain.
+         *
+         * @param index of the rule
+         * @return true if the rule reads a changed fact
+         */
+        boolean isAffected(final int index) {
+            return changed && (pending.get(index) || opaqueRules.get(index));
+        }
+
+        /**
+         * Check if rules are affected since the last drain.
+         *
+         * @return true if facts changed or nothing has been drained yet
+         */
+        boolean hasChanges() {
+            return !drained || changed;
+        }
+
+        /**
+         * Stop tracking changes of facts.
+         */
+        @Override
+        public void close() {
+            facts.unregisterListener(this);
+        }
+    }
+}
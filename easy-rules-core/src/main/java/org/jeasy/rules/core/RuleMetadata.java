@@ -0,0 +1,244 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.annotation.Action;
+import org.jeasy.rules.annotation.Condition;
+import org.jeasy.rules.annotation.Priority;
+import org.jeasy.rules.api.Rule;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.lang.String.format;
+
+/**
+ * Metadata of an annotated rule class, shared by all the {@link RuleProxy}
+ * instances of that class. The class is validated and its methods are bound to
+ * {@link MethodHandle}s only once, when its metadata is first requested.
+ */
+final class RuleMetadata {
+
+    static final MethodType CONDITION_TYPE = MethodType.methodType(boolean.class, Object.class, Object[].class);
+    static final MethodType ACTION_TYPE = MethodType.methodType(void.class, Object.class, Object[].class);
+    static final MethodType INT_TYPE = MethodType.methodType(int.class, Object.class, Object[].class);
+
+    private static final RuleDefinitionValidator ruleDefinitionValidator = new RuleDefinitionValidator();
+
+    private static final ClassValue<RuleMetadata> METADATA = new ClassValue<RuleMetadata>() {
+        @Override
+        protected RuleMetadata computeValue(Class<?> type) {
+            return new RuleMetadata(type);
+        }
+    };
+
+    private final Class<?> ruleClass;
+    private final String name;
+    private final String description;
+    private final int annotationPriority;
+    private final MethodHandle priorityHandle;
+    private final Method conditionMethod;
+    private final MethodHandle conditionHandle;
+    private final FactBindingPlan conditionPlan;
+    private final MethodHandle[] actionHandles;
+    private final FactBindingPlan[] actionPlans;
+    private final Method compareToMethod;
+    private final MethodHandle compareToHandle;
+
+    /**
+     * Get the metadata of an annotated rule class, validating it the first time.
+     *
+     * @param ruleClass annotated rule class
+     * @return the metadata of the class
+     * @throws IllegalArgumentException if the rule class is not well defined
+     */
+    static RuleMetadata of(final Class<?> ruleClass) {
+        return METADATA.get(ruleClass);
+    }
+
+    private RuleMetadata(final Class<?> ruleClass) {
+        ruleDefinitionValidator.validateRuleDefinition(ruleClass);
+        this.ruleClass = ruleClass;
+        Method[] methods = ruleClass.getMethods();
+        org.jeasy.rules.annotation.Rule annotation = Utils.findAnnotation(org.jeasy.rules.annotation.Rule.class, ruleClass);
+
+        Method conditionMethod = null;
+        Method priorityMethod = null;
+        Method compareToMethod = null;
+        Set<ActionMethodOrderBean> actionMethods = new TreeSet<>();
+        for (Method method : methods) {
+            if (conditionMethod == null && method.isAnnotationPresent(Condition.class)) {
+                conditionMethod = method;
+            }
+            if (method.isAnnotationPresent(Action.class)) {
+                Action actionAnnotation = method.getAnnotation(Action.class);
+                actionMethods.add(new ActionMethodOrderBean(method, actionAnnotation.order()));
+            }
+            if (priorityMethod == null && method.isAnnotationPresent(Priority.class)) {
+                priorityMethod = method;
+            }
+            if (compareToMethod == null && method.getName().equals("compareTo")) {
+                compareToMethod = method;
+            }
+        }
+
+        this.conditionMethod = conditionMethod;
+        MethodHandle conditionMethodHandle = unreflect(conditionMethod);
+        this.conditionHandle = spread(conditionMethodHandle, CONDITION_TYPE);
+        this.conditionPlan = new FactBindingPlan(conditionMethod, conditionMethodHandle, boolean.class);
+        this.actionHandles = new MethodHandle[actionMethods.size()];
+        this.actionPlans = new FactBindingPlan[actionMethods.size()];
+        int i = 0;
+        for (ActionMethodOrderBean actionMethodBean : actionMethods) {
+            MethodHandle actionMethodHandle = unreflect(actionMethodBean.getMethod());
+            this.actionHandles[i] = spread(actionMethodHandle, ACTION_TYPE);
+            this.actionPlans[i] = new FactBindingPlan(actionMethodBean.getMethod(), actionMethodHandle, void.class);
+            i++;
+        }
+        this.annotationPriority = annotation.priority();
+        this.priorityHandle = priorityMethod != null ? spread(unreflect(priorityMethod), INT_TYPE) : null;
+        this.compareToMethod = compareToMethod;
+        this.compareToHandle = compareToMethod != null && compareToMethod.getParameterCount() == 1
+                ? spread(unreflect(compareToMethod), INT_TYPE) : null;
+        this.name = annotation.name().equals(Rule.DEFAULT_NAME) ? ruleClass.getSimpleName() : annotation.name();
+        this.description = annotation.description().equals(Rule.DEFAULT_DESCRIPTION)
+                ? defaultDescription(conditionMethod, actionMethods) : annotation.description();
+    }
+
+    Class<?> getRuleClass() {
+        return ruleClass;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return the priority declared by the rule annotation
+     */
+    int getAnnotationPriority() {
+        return annotationPriority;
+    }
+
+    /**
+     * @return the handle of the method annotated with {@link Priority}, or null if there is none
+     */
+    MethodHandle getPriorityHandle() {
+        return priorityHandle;
+    }
+
+    Method getConditionMethod() {
+        return conditionMethod;
+    }
+
+    MethodHandle getConditionHandle() {
+        return conditionHandle;
+    }
+
+    FactBindingPlan getConditionPlan() {
+        return conditionPlan;
+    }
+
+    /**
+     * @return handles of action methods, in execution order
+     */
+    MethodHandle[] getActionHandles() {
+        return actionHandles;
+    }
+
+    /**
+     * @return binding plans of action methods, in execution order
+     */
+    FactBindingPlan[] getActionPlans() {
+        return actionPlans;
+    }
+
+    /**
+     * @return the compareTo method, or null if there is none
+     */
+    Method getCompareToMethod() {
+        return compareToMethod;
+    }
+
+    /**
+     * @return the handle of the compareTo method, or null if there is none or if it does not have a single argument
+     */
+    MethodHandle getCompareToHandle() {
+        return compareToHandle;
+    }
+
+    private static String defaultDescription(Method conditionMethod, Set<ActionMethodOrderBean> actionMethods) {
+        // Default description = "when " + conditionMethodName + " then " + comma separated actionMethodsNames
+        StringBuilder description = new StringBuilder();
+        description.append("when ");
+        description.append(conditionMethod.getName());
+        description.append(" then ");
+        Iterator<ActionMethodOrderBean> iterator = actionMethods.iterator();
+        while (iterator.hasNext()) {
+            description.append(iterator.next().getMethod().getName());
+            if (iterator.hasNext()) {
+                description.append(",");
+            }
+        }
+        return description.toString();
+    }
+
+    /*
+     * Public methods of rule classes that are not accessible from this package
+     * (like package-private classes) are made accessible.
+     */
+    private static MethodHandle unreflect(final Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            try {
+                method.setAccessible(true);
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalArgumentException(format("Method '%s' defined in rule '%s' is not accessible", method, method.getDeclaringClass().getName()), ex);
+            }
+        }
+        return handle;
+    }
+
+    /*
+     * Adapts the handle of a method to the given type, taking the target object
+     * and an array of actual parameters.
+     */
+    private static MethodHandle spread(final MethodHandle handle, final MethodType type) {
+        return handle
+                .asSpreader(Object[].class, handle.type().parameterCount() - 1)
+                .asType(type);
+    }
+}
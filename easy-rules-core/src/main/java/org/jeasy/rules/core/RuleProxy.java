@@ -23,340 +23,307 @@
  */
 package org.jeasy.rules.core;
 
-import org.jeasy.rules.annotation.Action;
-import org.jeasy.rules.annotation.Condition;
-import org.jeasy.rules.annotation.Fact;
-import org.jeasy.rules.annotation.Priority;
 import org.jeasy.rules.api.Facts;
 import org.jeasy.rules.api.Rule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
 
 import static java.lang.String.format;
 
 /**
- * Main class to create rule proxies from annotated objects.
+ * Main class to create rules from annotated objects.
+ *
+ * The condition and action methods of an annotated class are validated and bound
+ * to {@link MethodHandle}s once per class (see {@link RuleMetadata}), so that
+ * creating a rule is cheap and evaluating and executing it does not go through
+ * reflective calls.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
-public class RuleProxy implements InvocationHandler {
+public class RuleProxy implements Rule {
+
+    private static final Object[] NO_PARAMETERS = new Object[0];
 
     private final Object target;
-    private String name;
-    private String description;
-    private Integer priority;
-    private Method[] methods;
-    private Method conditionMethod;
-    private Set<ActionMethodOrderBean> actionMethods;
-    private Method compareToMethod;
-    private Method toStringMethod;
-    private org.jeasy.rules.annotation.Rule annotation;
+    private final RuleMetadata metadata;
+    private final MissingFactPolicy missingFactPolicy;
+    private final int priority;
 
-    private static final RuleDefinitionValidator ruleDefinitionValidator = new RuleDefinitionValidator();
     private static final Logger LOGGER = LoggerFactory.getLogger(RuleProxy.class);
 
+    private static final MethodType ADAPTER_CONSTRUCTOR_TYPE = MethodType.methodType(Rule.class, Object.class, MissingFactPolicy.class);
+    private static final ClassValue<MethodHandle> ADAPTER_CONSTRUCTORS = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return findAdapterConstructor(type);
+        }
+    };
+
     /**
-     * Makes the rule object implement the {@link Rule} interface.
+     * Makes the rule object implement the {@link Rule} interface. If an adapter
+     * has been generated at build time for the class of the rule object (see
+     * {@link RuleAdapter}), it is used instead of a reflective proxy.
+     *
+     * A fact declared by the condition method and missing is handled according to
+     * {@link MissingFactPolicy#LOG}.
      *
      * @param rule the annotated rule object.
-     * @return a proxy that implements the {@link Rule} interface.
+     * @return a rule that delegates to the annotated object.
      */
     public static Rule asRule(final Object rule) {
+        return asRule(rule, MissingFactPolicy.LOG);
+    }
+
+    /**
+     * Makes the rule object implement the {@link Rule} interface, with the policy
+     * applied when a fact declared by the condition method is missing. The policy
+     * does not apply to objects already implementing {@link Rule}.
+     *
+     * @param rule the annotated rule object.
+     * @param missingFactPolicy applied when a fact declared by the condition method is missing
+     * @return a rule that delegates to the annotated object.
+     */
+    public static Rule asRule(final Object rule, final MissingFactPolicy missingFactPolicy) {
+        Objects.requireNonNull(missingFactPolicy, "missingFactPolicy must not be null");
         Rule result;
         if (rule instanceof Rule) {
             result = (Rule) rule;
         } else {
-            ruleDefinitionValidator.validateRuleDefinition(rule);
-            result = (Rule) Proxy.newProxyInstance(
-                    Rule.class.getClassLoader(),
-                    new Class[]{Rule.class, Comparable.class},
-                    new RuleProxy(rule));
+            MethodHandle adapterConstructor = ADAPTER_CONSTRUCTORS.get(rule.getClass());
+            if (adapterConstructor != null) {
+                result = newAdapter(adapterConstructor, rule, missingFactPolicy);
+            } else {
+                result = new RuleProxy(rule, RuleMetadata.of(rule.getClass()), missingFactPolicy);
+            }
         }
         return result;
     }
 
-    private RuleProxy(final Object target) {
-        this.target = target;
+    private static Rule newAdapter(final MethodHandle adapterConstructor, final Object rule, final MissingFactPolicy missingFactPolicy) {
+        try {
+            return (Rule) adapterConstructor.invokeExact(rule, missingFactPolicy);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        }
     }
 
-    @Override
-    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-        String methodName = method.getName();
-        switch (methodName) {
-            case "getName":
-                return getRuleName();
-            case "getDescription":
-                return getRuleDescription();
-            case "getPriority":
-                return getRulePriority();
-            case "compareTo":
-                return compareToMethod(args);
-            case "evaluate":
-                return evaluateMethod(args);
-            case "execute":
-                return executeMethod(args);
-            case "equals":
-                return equalsMethod(args);
-            case "hashCode":
-                return hashCodeMethod();
-            case "toString":
-                return toStringMethod();
-            default:
+    private static MethodHandle findAdapterConstructor(final Class<?> type) {
+        String className = type.getName();
+        int packageEnd = className.lastIndexOf('.');
+        String adapterName = className.substring(0, packageEnd + 1)
+                + className.substring(packageEnd + 1).replace('$', '_')
+                + RuleAdapter.SUFFIX;
+        try {
+            Class<?> adapterClass = Class.forName(adapterName, false, type.getClassLoader());
+            if (!RuleAdapter.class.isAssignableFrom(adapterClass)) {
                 return null;
+            }
+            return MethodHandles.publicLookup()
+                    .unreflectConstructor(adapterClass.getConstructor(type, MissingFactPolicy.class))
+                    .asType(ADAPTER_CONSTRUCTOR_TYPE);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | LinkageError e) {
+            return null;
         }
     }
 
-    private Object evaluateMethod(final Object[] args) throws IllegalAccessException, InvocationTargetException {
-        Facts facts = (Facts) args[0];
-        Method conditionMethod = getConditionMethod();
+    private RuleProxy(final Object target, final RuleMetadata metadata, final MissingFactPolicy missingFactPolicy) {
+        this.target = target;
+        this.metadata = metadata;
+        this.missingFactPolicy = missingFactPolicy;
+        MethodHandle priorityHandle = metadata.getPriorityHandle();
+        this.priority = priorityHandle != null ? invokePriority(priorityHandle, target) : metadata.getAnnotationPriority();
+    }
+
+    @Override
+    public String getName() {
+        return metadata.getName();
+    }
+
+    @Override
+    public String getDescription() {
+        return metadata.getDescription();
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public boolean evaluate(final Facts facts) {
+        FactBindingPlan conditionPlan = metadata.getConditionPlan();
+        MethodHandle factsHandle = conditionPlan.getFactsHandle();
+        if (factsHandle != null) {
+            try {
+                return (boolean) factsHandle.invokeExact(target, facts);
+            } catch (FactBindingPlan.UnboundFactException e) {
+                return conditionNotApplicable(conditionPlan, facts);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable throwable) {
+                throw new UndeclaredThrowableException(throwable);
+            }
+        }
+        Object[] actualParameters = conditionPlan.bind(facts);
+        if (actualParameters == null) {
+            return conditionNotApplicable(conditionPlan, facts);
+        }
         try {
-            List<Object> actualParameters = getActualParameters(conditionMethod, facts);
-            return conditionMethod.invoke(target, actualParameters.toArray()); // validated upfront
-        } catch (NoSuchFactException e) {
-            LOGGER.warn("Rule '{}' has been evaluated to false due to a declared but missing fact '{}' in {}",
-                    getTargetClass().getName(), e.getMissingFact(), facts);
-            return false;
-        } catch (IllegalArgumentException e) {
-            LOGGER.warn("Types of injected facts in method '{}' in rule '{}' do not match parameters types",
-                    conditionMethod.getName(), getTargetClass().getName(), e);
-            return false;
+            return (boolean) metadata.getConditionHandle().invokeExact(target, actualParameters);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        } finally {
+            conditionPlan.release(actualParameters);
         }
     }
 
-    private Object executeMethod(final Object[] args) throws IllegalAccessException, InvocationTargetException {
-        Facts facts = (Facts) args[0];
-        for (ActionMethodOrderBean actionMethodBean : getActionMethodBeans()) {
-            Method actionMethod = actionMethodBean.getMethod();
-            List<Object> actualParameters = getActualParameters(actionMethod, facts);
-            actionMethod.invoke(target, actualParameters.toArray());
+    private boolean conditionNotApplicable(final FactBindingPlan conditionPlan, final Facts facts) {
+        String missingFact = conditionPlan.findMissingFact(facts);
+        if (missingFact != null) {
+            return MissingFacts.onMissingFact(missingFactPolicy, getTargetClass(), missingFact, facts);
         }
-        return null;
+        LOGGER.warn("Types of injected facts in method '{}' in rule '{}' do not match parameters types",
+                metadata.getConditionMethod().getName(), getTargetClass().getName());
+        return false;
     }
 
-    private Object compareToMethod(final Object[] args) throws Exception {
-        Method compareToMethod = getCompareToMethod();
-        Object otherRule = args[0]; // validated upfront
-        if (compareToMethod != null && Proxy.isProxyClass(otherRule.getClass())) {
-            if (compareToMethod.getParameters().length != 1) {
-                throw new IllegalArgumentException("compareTo method must have a single argument");
+    @Override
+    public Set<String> getReadFacts() {
+        return metadata.getConditionPlan().getReadFacts();
+    }
+
+    @Override
+    public void execute(final Facts facts) throws Exception {
+        MethodHandle[] actionHandles = metadata.getActionHandles();
+        FactBindingPlan[] actionPlans = metadata.getActionPlans();
+        for (int i = 0; i < actionHandles.length; i++) {
+            FactBindingPlan actionPlan = actionPlans[i];
+            MethodHandle factsHandle = actionPlan.getFactsHandle();
+            if (factsHandle != null) {
+                try {
+                    factsHandle.invokeExact(target, facts);
+                } catch (FactBindingPlan.UnboundFactException e) {
+                    throw actionNotApplicable(actionPlan, facts);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable throwable) {
+                    throw new UndeclaredThrowableException(throwable);
+                }
+                continue;
+            }
+            Object[] actualParameters = actionPlan.bind(facts);
+            if (actualParameters == null) {
+                throw actionNotApplicable(actionPlan, facts);
+            }
+            try {
+                actionHandles[i].invokeExact(target, actualParameters);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable throwable) {
+                throw new UndeclaredThrowableException(throwable);
+            } finally {
+                actionPlan.release(actualParameters);
             }
-            RuleProxy ruleProxy = (RuleProxy) Proxy.getInvocationHandler(otherRule);
-            return compareToMethod.invoke(target, ruleProxy.getTarget());
-        } else {
-            return compareTo((Rule) otherRule);
         }
     }
 
-    private List<Object> getActualParameters(Method method, Facts facts) {
-        List<Object> actualParameters = new ArrayList<>();
-        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-        for (Annotation[] annotations : parameterAnnotations) {
-            if (annotations.length == 1) {
-                String factName = ((Fact) (annotations[0])).value(); //validated upfront.
-                Object fact = facts.get(factName);
-                if (fact == null && !facts.asMap().containsKey(factName)) {
-                    throw new NoSuchFactException(format("No fact named '%s' found in known facts: %n%s", factName, facts), factName);
-                }
-                actualParameters.add(fact);
-            } else {
-                actualParameters.add(facts); //validated upfront, there may be only one parameter not annotated and which is of type Facts.class
+    private Exception actionNotApplicable(final FactBindingPlan actionPlan, final Facts facts) {
+        String missingFact = actionPlan.findMissingFact(facts);
+        if (missingFact != null) {
+            return MissingFacts.noSuchFact(missingFact, facts);
+        }
+        return new IllegalArgumentException(format("Types of injected facts in method '%s' in rule '%s' do not match parameters types",
+                actionPlan.getMethod().getName(), getTargetClass().getName()));
+    }
+
+    @Override
+    public int compareTo(final Rule otherRule) {
+        Object otherTarget = RuleAdapter.targetOf(otherRule);
+        if (metadata.getCompareToMethod() != null && otherTarget != null) {
+            MethodHandle compareToHandle = metadata.getCompareToHandle();
+            if (compareToHandle == null) {
+                throw new IllegalArgumentException("compareTo method must have a single argument");
             }
+            try {
+                return (int) compareToHandle.invokeExact(target, new Object[]{otherTarget});
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable throwable) {
+                throw new UndeclaredThrowableException(throwable);
+            }
+        } else {
+            return compareToRule(otherRule);
         }
-        return actualParameters;
     }
 
-    private boolean equalsMethod(final Object[] args) throws Exception {
-        if (!(args[0] instanceof Rule)) {
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Rule)) {
             return false;
         }
-        Rule otherRule = (Rule) args[0];
+        Rule otherRule = (Rule) o;
         int otherPriority = otherRule.getPriority();
-        int priority = getRulePriority();
         if (priority != otherPriority) {
             return false;
         }
         String otherName = otherRule.getName();
-        String name = getRuleName();
-        if (!name.equals(otherName)) {
+        if (!getName().equals(otherName)) {
             return false;
         }
         String otherDescription = otherRule.getDescription();
-        String description =  getRuleDescription();
-        return Objects.equals(description, otherDescription);
+        return Objects.equals(getDescription(), otherDescription);
     }
 
-    private int hashCodeMethod() throws Exception {
-        int result   = getRuleName().hashCode();
-        int priority = getRulePriority();
-        String description = getRuleDescription();
+    @Override
+    public int hashCode() {
+        String description = getDescription();
+        int result = getName().hashCode();
         result = 31 * result + (description != null ? description.hashCode() : 0);
         result = 31 * result + priority;
         return result;
     }
 
-    private Method getToStringMethod() {
-        if (this.toStringMethod == null) {
-            Method[] methods = getMethods();
-            for (Method method : methods) {
-                if ("toString".equals(method.getName())) {
-                    this.toStringMethod = method;
-                    return this.toStringMethod;
-                }
-            }
-        }
-        return this.toStringMethod;
-    }
-
-    private String toStringMethod() throws Exception {
-        Method toStringMethod = getToStringMethod();
-        if (toStringMethod != null) {
-            return (String) toStringMethod.invoke(target);
-        } else {
-            return getRuleName();
-        }
+    @Override
+    public String toString() {
+        return target.toString();
     }
 
-    private int compareTo(final Rule otherRule) throws Exception {
+    private int compareToRule(final Rule otherRule) {
         int otherPriority = otherRule.getPriority();
-        int priority = getRulePriority();
         if (priority < otherPriority) {
             return -1;
         } else if (priority > otherPriority) {
             return 1;
         } else {
             String otherName = otherRule.getName();
-            String name = getRuleName();
-            return name.compareTo(otherName);
-        }
-    }
-
-    private int getRulePriority() throws Exception {
-        if (this.priority == null) {
-            int priority = Rule.DEFAULT_PRIORITY;
-
-            org.jeasy.rules.annotation.Rule rule = getRuleAnnotation();
-            if (rule.priority() != Rule.DEFAULT_PRIORITY) {
-                priority = rule.priority();
-            }
-
-            Method[] methods = getMethods();
-            for (Method method : methods) {
-                if (method.isAnnotationPresent(Priority.class)) {
-                    priority = (int) method.invoke(target);
-                    break;
-                }
-            }
-            this.priority = priority;
-        }
-        return this.priority;
-    }
-
-    private Method getConditionMethod() {
-        if (this.conditionMethod == null) {
-            Method[] methods = getMethods();
-            for (Method method : methods) {
-                if (method.isAnnotationPresent(Condition.class)) {
-                    this.conditionMethod = method;
-                    return this.conditionMethod;
-                }
-            }
+            return getName().compareTo(otherName);
         }
-        return this.conditionMethod;
     }
 
-    private Set<ActionMethodOrderBean> getActionMethodBeans() {
-        if (this.actionMethods == null) {
-            this.actionMethods = new TreeSet<>();
-            Method[] methods = getMethods();
-            for (Method method : methods) {
-                if (method.isAnnotationPresent(Action.class)) {
-                    Action actionAnnotation = method.getAnnotation(Action.class);
-                    int order = actionAnnotation.order();
-                    this.actionMethods.add(new ActionMethodOrderBean(method, order));
-                }
-            }
-        }
-        return this.actionMethods;
-    }
-
-    private Method getCompareToMethod() {
-        if (this.compareToMethod == null) {
-            Method[] methods = getMethods();
-            for (Method method : methods) {
-                if (method.getName().equals("compareTo")) {
-                    this.compareToMethod = method;
-                    return this.compareToMethod;
-                }
-            }
-        }
-        return this.compareToMethod;
-    }
-
-    private Method[] getMethods() {
-        if (this.methods == null) {
-            this.methods = getTargetClass().getMethods();
-        }
-        return this.methods;
-    }
-
-    private org.jeasy.rules.annotation.Rule getRuleAnnotation() {
-        if (this.annotation == null) {
-            this.annotation = Utils.findAnnotation(org.jeasy.rules.annotation.Rule.class, getTargetClass());
-        }
-        return this.annotation;
-    }
-
-    private String getRuleName() {
-        if (this.name == null) {
-            org.jeasy.rules.annotation.Rule rule = getRuleAnnotation();
-            this.name = rule.name().equals(Rule.DEFAULT_NAME) ? getTargetClass().getSimpleName() : rule.name();
-        }
-        return this.name;
-    }
-
-    private String getRuleDescription() {
-        if (this.description == null) {
-            // Default description = "when " + conditionMethodName + " then " + comma separated actionMethodsNames
-            StringBuilder description = new StringBuilder();
-            appendConditionMethodName(description);
-            appendActionMethodsNames(description);
-            org.jeasy.rules.annotation.Rule rule = getRuleAnnotation();
-            this.description = rule.description().equals(Rule.DEFAULT_DESCRIPTION) ? description.toString() : rule.description();
-        }
-        return this.description;
-    }
-
-    private void appendConditionMethodName(StringBuilder description) {
-        Method method = getConditionMethod();
-        if (method != null) {
-            description.append("when ");
-            description.append(method.getName());
-            description.append(" then ");
+    private static int invokePriority(final MethodHandle priorityHandle, final Object target) {
+        try {
+            return (int) priorityHandle.invokeExact(target, NO_PARAMETERS);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
         }
     }
 
-    private void appendActionMethodsNames(StringBuilder description) {
-        Iterator<ActionMethodOrderBean> iterator = getActionMethodBeans().iterator();
-        while (iterator.hasNext()) {
-            description.append(iterator.next().getMethod().getName());
-            if (iterator.hasNext()) {
-                description.append(",");
-            }
-        }
-    }
-    
     public Object getTarget() {
         return target;
     }
@@ -24,9 +24,16 @@
 package org.jeasy.rules.core;
 
 import java.lang.annotation.Annotation;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
 
 final class Utils {
 
+    private static final int MAX_PARALLELISM = 1024;
+
     private Utils() { }
 
     static <A extends Annotation> A findAnnotation(final Class<A> targetAnnotation, final Class<?> annotatedType) {
@@ -47,4 +54,36 @@ final class Utils {
         return findAnnotation(targetAnnotation, annotatedType) != null;
     }
 
+    static int parallelismOf(final Executor executor) {
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            // cached thread pools are unbounded
+            return Math.min(((ThreadPoolExecutor) executor).getMaximumPoolSize(), MAX_PARALLELISM);
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    static void join(final CompletableFuture<?>... futures) {
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    static <T> CompletableFuture<T> failedFuture(final Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
 }
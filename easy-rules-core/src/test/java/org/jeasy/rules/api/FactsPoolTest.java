@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.api;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class FactsPoolTest {
+
+    private final FactsPool pool = new FactsPool();
+
+    @Test
+    public void releasedFactsShouldBeResetAndReused() {
+        // given
+        Facts facts = pool.borrow();
+        facts.put("foo", 1);
+        facts.registerListener((f, name) -> {
+            throw new IllegalStateException("listener should have been unregistered");
+        });
+
+        // when
+        pool.release(facts);
+        Facts reused = pool.borrow();
+        reused.put("bar", 2);
+
+        // then
+        assertThat(reused).isSameAs(facts);
+        assertThat(reused.asMap()).containsOnly(entry("bar", 2));
+    }
+
+    @Test
+    public void pooledFactsShouldSeeParentFacts() {
+        // given
+        Facts shared = new Facts();
+        shared.put("foo", 1);
+        FactsPool pool = new FactsPool(shared.frozenCopy());
+        Facts facts = pool.borrow();
+        facts.remove("foo");
+        pool.release(facts);
+
+        // when
+        Facts reused = pool.borrow();
+
+        // then
+        assertThat(reused.<Integer>get("foo")).isEqualTo(1);
+    }
+
+    @Test
+    public void factsShouldBeReleasedOnlyOnce() {
+        // given
+        Facts facts = pool.borrow();
+        pool.release(facts);
+
+        // when, then
+        assertThatThrownBy(() -> pool.release(facts)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pool.release(new Facts())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FactsPool().release(pool.borrow())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void poolParentMustBeFrozen() {
+        assertThatThrownBy(() -> new FactsPool(new Facts())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FactsPool(null, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
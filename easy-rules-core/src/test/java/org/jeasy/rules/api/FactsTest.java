@@ -23,11 +23,16 @@
  */
 package org.jeasy.rules.api;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 
 public class FactsTest {
 
@@ -63,6 +68,15 @@ public class FactsTest {
         assertThat(facts).contains(new Fact<>("bar", 2));
     }
 
+    @Test
+    public void testPutReplacesFactWithSameName() {
+        facts.put("foo", 1);
+        facts.put("foo", 2);
+
+        assertThat(facts).hasSize(1);
+        assertThat((Integer) facts.get("foo")).isEqualTo(2);
+    }
+
     @Test
     public void testRemove() {
         Fact<Integer> foo = new Fact<>("foo", 1);
@@ -81,6 +95,21 @@ public class FactsTest {
         assertThat(facts).isEmpty();
     }
 
+    @Test
+    public void testRemoveThroughIterator() {
+        facts.put("foo", 1);
+        facts.put("bar", 2);
+        Iterator<Fact<?>> iterator = facts.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getName().equals("foo")) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(facts).containsExactly(new Fact<>("bar", 2));
+        assertThat(facts.getFact("foo")).isNull();
+    }
+
     @Test
     public void testGet() {
         Fact<Integer> fact = new Fact<>("foo", 1);
@@ -89,6 +118,12 @@ public class FactsTest {
         assertThat(value).isEqualTo(1);
     }
 
+    @Test
+    public void testGetMissingFact() {
+        assertThat((Object) facts.get("foo")).isNull();
+        assertThat(facts.getFact("foo")).isNull();
+    }
+
     @Test
     public void testGetFact() {
         Fact<Integer> fact = new Fact<>("foo", 1);
@@ -108,6 +143,31 @@ public class FactsTest {
         assertThat(map).containsValues(1, 2);
     }
 
+    @Test
+    public void testAsUnmodifiableMap() {
+        facts.put("foo", 1);
+        Map<String, Object> map = facts.asUnmodifiableMap();
+        facts.put("bar", 2);
+        facts.remove("foo");
+
+        assertThat(map).hasSize(1);
+        assertThat(map).containsEntry("bar", 2);
+        assertThat(map).doesNotContainKey("foo");
+        assertThat(map.get(1)).isNull();
+        assertThat(map).isEqualTo(facts.asMap());
+    }
+
+    @Test
+    public void testAsUnmodifiableMapCannotBeModified() {
+        facts.put("foo", 1);
+        Map<String, Object> map = facts.asUnmodifiableMap();
+
+        assertThatThrownBy(() -> map.put("bar", 2)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> map.remove("foo")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(map::clear).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(facts).hasSize(1);
+    }
+
     @Test
     public void testClear() {
         Facts facts = new Facts();
@@ -116,4 +176,276 @@ public class FactsTest {
         assertThat(facts).isEmpty();
     }
 
+    @Test
+    public void listenersShouldBeNotifiedOfChanges() {
+        // given
+        List<String> changes = new ArrayList<>();
+        FactsListener listener = (f, name) -> changes.add(name);
+        facts.put("foo", 1);
+        facts.registerListener(listener);
+
+        // when
+        facts.put("bar", 2);
+        facts.add(new Fact<>("foo", 3));
+        facts.remove("baz");
+        facts.remove("bar");
+        facts.clear();
+        facts.unregisterListener(listener);
+        facts.put("qux", 4);
+
+        // then
+        assertThat(changes).containsExactly("bar", "foo", "bar", "foo");
+    }
+
+    @Test
+    public void childFactsShouldFallThroughToFrozenParent() {
+        // given
+        facts.put("foo", 1);
+        facts.put("bar", 2);
+        Facts parent = facts.frozenCopy();
+
+        // when
+        Facts child = new Facts(parent);
+        child.put("bar", 3);
+        child.put("baz", 4);
+
+        // then
+        assertThat(child.<Integer>get("foo")).isEqualTo(1);
+        assertThat(child.<Integer>get("bar")).isEqualTo(3);
+        assertThat(child.asMap()).containsOnly(entry("foo", 1), entry("bar", 3), entry("baz", 4));
+        assertThat(child.asUnmodifiableMap()).hasSize(3).containsKey("foo");
+        assertThat(child).hasSize(3);
+        assertThat(parent.asMap()).containsOnly(entry("foo", 1), entry("bar", 2));
+    }
+
+    @Test
+    public void removingFactsFromChildShouldNotModifyParent() {
+        // given
+        facts.put("foo", 1);
+        facts.put("bar", 2);
+        Facts parent = facts.frozenCopy();
+        Facts child = new Facts(parent);
+        List<String> changes = new ArrayList<>();
+        child.registerListener((f, name) -> changes.add(name));
+
+        // when
+        child.remove("foo");
+        child.remove("foo");
+
+        // then
+        assertThat(child.<Integer>get("foo")).isNull();
+        assertThat(child.getFact("foo")).isNull();
+        assertThat(child.asMap()).containsOnly(entry("bar", 2));
+        assertThat(changes).containsExactly("foo");
+        assertThat(parent.<Integer>get("foo")).isEqualTo(1);
+
+        // when
+        child.put("foo", 3);
+        child.clear();
+
+        // then
+        assertThat(child).isEmpty();
+        assertThat(changes).containsExactly("foo", "foo", "foo", "bar");
+        assertThat(parent).hasSize(2);
+    }
+
+    @Test
+    public void frozenFactsCannotBeModified() {
+        // given
+        facts.put("foo", 1);
+
+        // when
+        Facts frozen = facts.frozenCopy();
+        facts.put("foo", 2);
+
+        // then
+        assertThat(frozen.isFrozen()).isTrue();
+        assertThat(frozen.frozenCopy()).isSameAs(frozen);
+        assertThat(frozen.<Integer>get("foo")).isEqualTo(1);
+        assertThatThrownBy(() -> frozen.put("bar", 2)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> frozen.remove("foo")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(frozen::clear).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> new Facts(facts)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void primitiveFactsShouldBeReadWithoutBoxing() {
+        // given
+        facts.putInt("int", 1);
+        facts.putLong("long", 2L);
+        facts.putDouble("double", 3.5);
+        facts.putBoolean("boolean", true);
+        facts.put("boxed", 4);
+
+        // when
+        Fact<?> fact = facts.getFact("long");
+        facts.putLong("long", 5L);
+
+        // then
+        assertThat(facts.getInt("int")).isEqualTo(1);
+        assertThat(facts.getLong("long")).isEqualTo(5L);
+        assertThat(facts.getDouble("double")).isEqualTo(3.5);
+        assertThat(facts.getBoolean("boolean")).isTrue();
+        assertThat(facts.getInt("boxed")).isEqualTo(4);
+        assertThat(fact.getValue()).isEqualTo(2L);
+        assertThat(fact.getType()).isEqualTo(Long.class);
+        assertThat(facts.asMap()).containsOnly(entry("int", 1), entry("long", 5L), entry("double", 3.5),
+                entry("boolean", true), entry("boxed", 4));
+        assertThatThrownBy(() -> facts.getLong("int")).isInstanceOf(ClassCastException.class);
+        assertThatThrownBy(() -> facts.getInt("missing")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void primitiveFactsObtainedBeforePutShouldKeepTheirValue() {
+        // given
+        facts.putInt("foo", 1);
+        Fact<?> fact = facts.getFact("foo");
+        Fact<?> iterated = facts.iterator().next();
+
+        // when
+        facts.putInt("foo", 2);
+
+        // then
+        assertThat(fact.getInt()).isEqualTo(1);
+        assertThat(iterated.getInt()).isEqualTo(1);
+        assertThat(facts.getFact("foo")).isNotSameAs(fact);
+        assertThat(facts.getInt("foo")).isEqualTo(2);
+        assertThat(facts.get(FactKey.<Integer>of("foo"))).isEqualTo(2);
+    }
+
+    @Test
+    public void primitiveFactsShouldNotBeSharedBetweenNamespaces() {
+        // given
+        facts.putInt("foo", 1);
+        Facts frozen = facts.frozenCopy();
+        Facts other = new Facts();
+        other.add(facts.getFact("foo"));
+
+        // when
+        facts.putInt("foo", 2);
+
+        // then
+        assertThat(frozen.getInt("foo")).isEqualTo(1);
+        assertThat(other.getInt("foo")).isEqualTo(1);
+        assertThat(facts.getFact("foo")).isEqualTo(new Fact<>("foo", 2));
+    }
+
+    @Test
+    public void factKeysShouldBeInterned() {
+        assertThat(FactKey.<Integer>of("foo")).isSameAs(FactKey.of("foo"));
+        assertThat(FactKey.of("foo").getName()).isEqualTo("foo");
+    }
+
+    @Test
+    public void factsShouldBeReadWithKeys() {
+        // given
+        FactKey<Integer> foo = FactKey.of("foo");
+        FactKey<Long> bar = FactKey.of("bar");
+        assertThat(facts.get(foo)).isNull();
+
+        // when
+        facts.put(foo, 1);
+        facts.putLong("bar", 2L);
+
+        // then
+        assertThat(facts.get(foo)).isEqualTo(1);
+        assertThat(facts.getInt(foo)).isEqualTo(1);
+        assertThat(facts.getLong(bar)).isEqualTo(2L);
+
+        // when
+        facts.put("foo", 3);
+        facts.putLong("bar", 4L);
+
+        // then
+        assertThat(facts.get(foo)).isEqualTo(3);
+        assertThat(facts.getLong(bar)).isEqualTo(4L);
+
+        // when
+        facts.remove("foo");
+
+        // then
+        assertThat(facts.get(foo)).isNull();
+        assertThat(facts.getFact(foo)).isNull();
+        assertThatThrownBy(() -> facts.getInt(foo)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void factsShouldBeReadWithKeysCreatedInAnyOrder() {
+        // given
+        List<FactKey<Integer>> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add(FactKey.of("growing" + i));
+            facts.put("growing" + i, i);
+        }
+
+        // when, then
+        for (int i = keys.size() - 1; i >= 0; i -= 7) {
+            assertThat(facts.get(keys.get(i))).isEqualTo(i);
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            assertThat(facts.get(keys.get(i))).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void factRemovedThroughIteratorShouldNotBeReadWithKey() {
+        // given
+        FactKey<String> x = FactKey.of("x");
+        facts.put("x", "a");
+        assertThat(facts.get(x)).isEqualTo("a");
+        List<String> changes = new ArrayList<>();
+        facts.registerListener((changedFacts, name) -> changes.add(name));
+
+        // when
+        Iterator<Fact<?>> iterator = facts.iterator();
+        iterator.next();
+        iterator.remove();
+
+        // then
+        assertThat(facts.get(x)).isNull();
+        assertThat(facts.getFact("x")).isNull();
+        assertThat(changes).containsExactly("x");
+    }
+
+    @Test
+    public void inheritedFactRemovedThroughIteratorShouldBeHidden() {
+        // given
+        facts.put("foo", 1);
+        Facts child = new Facts(facts.frozenCopy());
+        child.put("bar", 2);
+
+        // when
+        Iterator<Fact<?>> iterator = child.iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+        // then
+        assertThat(child).isEmpty();
+        assertThat(child.getFact(FactKey.of("foo"))).isNull();
+        assertThat(facts.<Integer>get("foo")).isEqualTo(1);
+    }
+
+    @Test
+    public void factsOfParentShouldBeReadWithKeys() {
+        // given
+        FactKey<Integer> foo = FactKey.of("foo");
+        facts.put("foo", 1);
+        Facts parent = facts.frozenCopy();
+        Facts child = new Facts(parent);
+
+        // when, then
+        assertThat(parent.get(foo)).isEqualTo(1);
+        assertThat(child.get(foo)).isEqualTo(1);
+        child.put("foo", 2);
+        assertThat(child.get(foo)).isEqualTo(2);
+        child.remove("foo");
+        assertThat(child.get(foo)).isNull();
+        child.reset();
+        assertThat(child.get(foo)).isEqualTo(1);
+        child.clear();
+        assertThat(child.get(foo)).isNull();
+    }
+
 }
@@ -153,6 +153,81 @@ public class RulesTest {
         assertThat(rules.size()).isEqualTo(1);
     }
 
+    @Test
+    public void compile() {
+        Rule r1 = new BasicRule("ruleA", "", 2);
+        Rule r2 = new BasicRule("ruleB", "", 1);
+        rules.register(r1, r2);
+
+        CompiledRules compiledRules = rules.compile();
+
+        assertThat(compiledRules.size()).isEqualTo(2);
+        assertThat(compiledRules.getRule(0)).isEqualTo(r2);
+        assertThat(compiledRules.getName(0)).isEqualTo("ruleB");
+        assertThat(compiledRules.getPriority(0)).isEqualTo(1);
+        assertThat(compiledRules.getRule(1)).isEqualTo(r1);
+        assertThat(rules.compile()).isSameAs(compiledRules);
+    }
+
+    @Test
+    public void compiledRulesShouldBeInvalidatedWhenRulesChange() {
+        rules.register(new BasicRule("ruleA"));
+        CompiledRules compiledRules = rules.compile();
+
+        rules.register(new BasicRule("ruleB"));
+        assertThat(rules.compile()).isNotSameAs(compiledRules);
+        assertThat(rules.compile().size()).isEqualTo(2);
+
+        rules.unregister("ruleB");
+        assertThat(rules.compile().size()).isEqualTo(1);
+
+        rules.clear();
+        assertThat(rules.compile().isEmpty()).isTrue();
+    }
+
+    @Test
+    public void cutoff() {
+        rules.register(
+                new BasicRule("r1", "", 1),
+                new BasicRule("r2", "", 2),
+                new BasicRule("r3", "", 2),
+                new BasicRule("r4", "", 2),
+                new BasicRule("r5", "", 5));
+
+        CompiledRules compiledRules = rules.compile();
+
+        assertThat(compiledRules.cutoff(0)).isEqualTo(0);
+        assertThat(compiledRules.cutoff(1)).isEqualTo(1);
+        assertThat(compiledRules.cutoff(2)).isEqualTo(4);
+        assertThat(compiledRules.cutoff(3)).isEqualTo(4);
+        assertThat(compiledRules.cutoff(5)).isEqualTo(5);
+        assertThat(compiledRules.cutoff(Integer.MAX_VALUE)).isEqualTo(5);
+    }
+
+    @Test
+    public void cutoffWithCustomOrder() {
+        // given
+        class ReverseOrderRule extends BasicRule {
+            ReverseOrderRule(String name, int priority) {
+                super(name, "", priority);
+            }
+
+            @Override
+            public int compareTo(Rule rule) {
+                return Integer.compare(rule.getPriority(), getPriority());
+            }
+        }
+        rules.register(new ReverseOrderRule("r1", 1), new ReverseOrderRule("r2", 3));
+
+        // when
+        CompiledRules compiledRules = rules.compile();
+
+        // then
+        assertThat(compiledRules.getName(0)).isEqualTo("r2");
+        assertThat(compiledRules.cutoff(2)).isEqualTo(0);
+        assertThat(compiledRules.cutoff(3)).isEqualTo(2);
+    }
+
     @Test(expected = NullPointerException.class)
     public void whenRegisterNullRule_thenShouldThrowNullPointerException() {
         rules.register(null);
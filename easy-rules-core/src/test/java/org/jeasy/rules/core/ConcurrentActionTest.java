@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Action;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.api.Rules;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrentActionTest {
+
+    private final ExecutorService executor = VirtualThreads.newExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void actionsShouldBeExecutedConcurrently() throws Exception {
+        // given
+        CountDownLatch latch = new CountDownLatch(3);
+        Action blockingAction = facts -> {
+            latch.countDown();
+            // each action waits for the others, this would time out if they were executed one after the other
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("actions have not been executed concurrently");
+            }
+        };
+        Facts facts = new Facts();
+        Rule rule = new RuleBuilder()
+                .when(f -> true)
+                .then(new ConcurrentAction(executor, blockingAction, blockingAction, blockingAction))
+                .then(f -> f.put("done", true))
+                .build();
+
+        // when
+        new DefaultRulesEngine().fire(new Rules(rule), facts);
+
+        // then
+        assertThat(latch.getCount()).isZero();
+        assertThat(facts.<Boolean>get("done")).isTrue();
+    }
+
+    @Test
+    public void executeShouldFailWithTheFailureOfAnAction() {
+        // given
+        Exception failure = new Exception("unavailable");
+        ConcurrentAction action = new ConcurrentAction(executor, facts -> { }, facts -> {
+            throw failure;
+        });
+
+        // when / then
+        assertThatThrownBy(() -> action.execute(new Facts())).isSameAs(failure);
+    }
+
+    @Test
+    public void newExecutorShouldRunTasks() throws Exception {
+        // when
+        Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(thread).isNotSameAs(Thread.currentThread());
+        if (!VirtualThreads.isAvailable()) {
+            assertThat(thread.isDaemon()).isTrue();
+        }
+    }
+}
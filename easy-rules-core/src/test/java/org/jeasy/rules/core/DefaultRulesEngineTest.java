@@ -26,18 +26,31 @@ package org.jeasy.rules.core;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import org.assertj.core.api.Assertions;
 import org.jeasy.rules.annotation.Action;
 import org.jeasy.rules.annotation.Condition;
 import org.jeasy.rules.annotation.Priority;
+import org.jeasy.rules.api.AsyncAction;
+import org.jeasy.rules.api.BatchReport;
 import org.jeasy.rules.api.RuleListener;
+import org.jeasy.rules.api.Rules;
 import org.jeasy.rules.api.RulesEngineListener;
 import org.jeasy.rules.api.RulesEngineParameters;
 import org.junit.After;
@@ -182,6 +195,26 @@ public class DefaultRulesEngineTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void checkResultsShouldBeModifiable() {
+        // Given
+        when(rule1.evaluate(facts)).thenReturn(true);
+        rules.register(rule1);
+        rules.register(annotatedRule);
+        Map<org.jeasy.rules.api.Rule, Boolean> result = rulesEngine.check(rules, facts);
+
+        // When
+        result.remove(rule1);
+        result.put(rule2, false);
+        result.entrySet().iterator().next().setValue(false);
+
+        // Then
+        assertThat(result).hasSize(2);
+        assertThat(result.containsKey(rule1)).isFalse();
+        assertThat(result.get(RuleProxy.asRule(annotatedRule))).isFalse();
+        assertThat(result.get(rule2)).isFalse();
+    }
+
     @Test
     public void listenerShouldBeInvokedBeforeCheckingRules() {
         // Given
@@ -198,6 +231,218 @@ public class DefaultRulesEngineTest extends AbstractTest {
         verify(ruleListener).beforeEvaluate(rule1, facts);
     }
 
+    @Test
+    public void testParallelCheckRules() throws Exception {
+        // Given
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        DefaultRulesEngine rulesEngine = new DefaultRulesEngine(new RulesEngineParameters()
+                .parallelCheck(true)
+                .checkExecutor(executorService));
+        Thread caller = Thread.currentThread();
+        Set<Thread> listenerThreads = ConcurrentHashMap.newKeySet();
+        rulesEngine.registerRuleListener(new RuleListener() {
+            @Override
+            public boolean beforeEvaluate(org.jeasy.rules.api.Rule rule, org.jeasy.rules.api.Facts facts) {
+                listenerThreads.add(Thread.currentThread());
+                return !rule.getName().equals("rule7");
+            }
+        });
+        Set<Thread> evaluationThreads = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 500; i++) {
+            int value = i;
+            rules.register(new RuleBuilder()
+                    .name("rule" + i)
+                    .priority(i)
+                    .when(facts -> {
+                        evaluationThreads.add(Thread.currentThread());
+                        return value % 3 == 0;
+                    })
+                    .build());
+        }
+
+        // When
+        Map<org.jeasy.rules.api.Rule, Boolean> result = rulesEngine.check(rules, facts);
+
+        // Then
+        executorService.shutdown();
+        assertThat(result).hasSize(499);
+        for (org.jeasy.rules.api.Rule rule : rules) {
+            int value = rule.getPriority();
+            if (value == 7) {
+                assertThat(result).doesNotContainKey(rule);
+            } else {
+                assertThat(result.get(rule)).isEqualTo(value % 3 == 0);
+            }
+        }
+        assertThat(listenerThreads).containsOnly(caller);
+        assertThat(evaluationThreads).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    public void testFireAll() {
+        // Given
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        DefaultRulesEngine rulesEngine = new DefaultRulesEngine(new RulesEngineParameters()
+                .batchSize(10)
+                .batchExecutor(executorService));
+        rulesEngine.registerRulesEngineListener(rulesEngineListener);
+        rules.register(new RuleBuilder()
+                .name("double")
+                .when(facts -> facts.get("value") != null)
+                .then(facts -> facts.put("double", facts.<Integer>get("value") * 2))
+                .build());
+        List<org.jeasy.rules.api.Facts> factsList = new ArrayList<>();
+        for (int i = 0; i < 95; i++) {
+            org.jeasy.rules.api.Facts facts = new org.jeasy.rules.api.Facts();
+            facts.put("value", i);
+            factsList.add(facts);
+        }
+
+        // When
+        BatchReport report = rulesEngine.fireAll(rules, factsList);
+
+        // Then
+        executorService.shutdown();
+        assertThat(report.getFactsCount()).isEqualTo(95);
+        assertThat(report.getBatchCount()).isEqualTo(10);
+        assertThat(report.getBatchTimes()).hasSize(10);
+        for (int i = 0; i < 95; i++) {
+            org.jeasy.rules.api.Facts facts = factsList.get(i);
+            assertThat(facts.<Integer>get("double")).isEqualTo(2 * i);
+            verify(rulesEngineListener).beforeEvaluate(rules, facts);
+            verify(rulesEngineListener).afterExecute(rules, facts);
+        }
+    }
+
+    @Test
+    public void testFireAllWithStream() {
+        // Given
+        rules.register(new RuleBuilder()
+                .name("mark")
+                .when(facts -> true)
+                .then(facts -> facts.put("fired", true))
+                .build());
+        List<org.jeasy.rules.api.Facts> factsList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            factsList.add(new org.jeasy.rules.api.Facts());
+        }
+
+        // When
+        BatchReport report = rulesEngine.fireAll(rules, factsList.stream());
+
+        // Then
+        assertThat(report.getFactsCount()).isEqualTo(5);
+        assertThat(factsList).allMatch(facts -> facts.get("fired") != null);
+    }
+
+    @Test
+    public void fireAllShouldPropagateListenerErrors() {
+        // Given
+        DefaultRulesEngine rulesEngine = new DefaultRulesEngine(new RulesEngineParameters()
+                .batchSize(1)
+                .batchExecutor(Runnable::run));
+        rulesEngine.registerRulesEngineListener(new RulesEngineListener() {
+            @Override
+            public void beforeEvaluate(Rules rules, org.jeasy.rules.api.Facts facts) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        rules.register(new RuleBuilder().name("noop").build());
+        List<org.jeasy.rules.api.Facts> factsList = new ArrayList<>();
+        factsList.add(new org.jeasy.rules.api.Facts());
+        factsList.add(new org.jeasy.rules.api.Facts());
+
+        // When / Then
+        assertThatThrownBy(() -> rulesEngine.fireAll(rules, factsList))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+    }
+
+    @Test
+    public void fireAsyncShouldChainAsynchronousActionsOnTheExecutor() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        Thread engineThread = executor.submit(Thread::currentThread).get();
+        Set<Thread> listenerThreads = ConcurrentHashMap.newKeySet();
+        DefaultRulesEngine rulesEngine = new DefaultRulesEngine();
+        rulesEngine.registerRuleListener(new RuleListener() {
+            @Override
+            public boolean beforeEvaluate(org.jeasy.rules.api.Rule rule, org.jeasy.rules.api.Facts facts) {
+                listenerThreads.add(Thread.currentThread());
+                return true;
+            }
+
+            @Override
+            public void onSuccess(org.jeasy.rules.api.Rule rule, org.jeasy.rules.api.Facts facts) {
+                listenerThreads.add(Thread.currentThread());
+            }
+        });
+        rules.register(new RuleBuilder()
+                .name("lookup")
+                .priority(1)
+                .when(facts -> true)
+                .then((AsyncAction) facts -> CompletableFuture.runAsync(() -> facts.put("customer", "gold"), client))
+                .then(facts -> facts.put("looked up", true))
+                .build());
+        rules.register(new RuleBuilder()
+                .name("discount")
+                .priority(2)
+                .when(facts -> "gold".equals(facts.get("customer")))
+                .then(facts -> facts.put("discount", 10))
+                .build());
+
+        // When
+        rulesEngine.fireAsync(rules, facts, executor).get(5, TimeUnit.SECONDS);
+
+        // Then
+        executor.shutdown();
+        client.shutdown();
+        assertThat(facts.<Boolean>get("looked up")).isTrue();
+        assertThat(facts.<Integer>get("discount")).isEqualTo(10);
+        assertThat(listenerThreads).containsOnly(engineThread);
+    }
+
+    @Test
+    public void fireAsyncShouldNotifyListenersOfAsynchronousActionFailures() throws Exception {
+        // Given
+        Exception failure = new Exception("unavailable");
+        DefaultRulesEngine rulesEngine = new DefaultRulesEngine();
+        rulesEngine.registerRuleListener(ruleListener);
+        when(ruleListener.beforeEvaluate(any(), any())).thenReturn(true);
+        org.jeasy.rules.api.Rule rule = new RuleBuilder()
+                .name("failing")
+                .when(facts -> true)
+                .then((AsyncAction) facts -> {
+                    CompletableFuture<Void> future = new CompletableFuture<>();
+                    ForkJoinPool.commonPool().execute(() -> future.completeExceptionally(failure));
+                    return future;
+                })
+                .build();
+        rules.register(rule);
+
+        // When
+        rulesEngine.fireAsync(rules, facts, Runnable::run).get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(ruleListener).onFailure(rule, facts, failure);
+        verify(ruleListener, never()).onSuccess(rule, facts);
+    }
+
+    @Test
+    public void testCheckAsync() throws Exception {
+        // Given
+        when(rule1.evaluate(facts)).thenReturn(true);
+        rules.register(rule1);
+
+        // When
+        Map<org.jeasy.rules.api.Rule, Boolean> result = rulesEngine.checkAsync(rules, facts, ForkJoinPool.commonPool())
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(result).containsEntry(rule1, true);
+    }
+
     @Test
     public void getParametersShouldReturnACopyOfTheParameters() {
         // Given
@@ -205,7 +450,15 @@ public class DefaultRulesEngineTest extends AbstractTest {
                 .skipOnFirstAppliedRule(true)
                 .skipOnFirstFailedRule(true)
                 .skipOnFirstNonTriggeredRule(true)
-                .priorityThreshold(42);
+                .priorityThreshold(42)
+                .ruleTracing(false)
+                .parallelCheck(true)
+                .checkExecutor(Runnable::run)
+                .batchSize(10)
+                .batchExecutor(Runnable::run)
+                .refraction(true)
+                .maxCycles(5)
+                .maxDuration(Duration.ofSeconds(1));
         DefaultRulesEngine rulesEngine = new DefaultRulesEngine(parameters);
 
         // When
@@ -229,6 +482,27 @@ public class DefaultRulesEngineTest extends AbstractTest {
         assertThat(ruleListeners).contains(ruleListener);
     }
 
+    @Test
+    public void ruleListenersCanBeRegisteredWhileRulesAreFired() {
+        // Given
+        DefaultRulesEngine rulesEngine = new DefaultRulesEngine();
+        rulesEngine.registerRuleListener(new RuleListener() {
+            @Override
+            public void beforeExecute(org.jeasy.rules.api.Rule rule, org.jeasy.rules.api.Facts facts) {
+                rulesEngine.registerRuleListener(ruleListener);
+            }
+        });
+        when(rule1.evaluate(facts)).thenReturn(true);
+        rules.register(rule1);
+
+        // When
+        rulesEngine.fire(rules, facts);
+
+        // Then
+        verify(ruleListener).onSuccess(rule1, facts);
+        assertThat(rulesEngine.getRuleListeners()).hasSize(2).contains(ruleListener);
+    }
+
     @Test
     public void getRuleListenersShouldReturnAnUnmodifiableList() {
         // Given
@@ -0,0 +1,227 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.annotation.Fact;
+import org.jeasy.rules.api.Facts;
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FactBindingPlanTest {
+
+    @Test
+    public void testBind() throws Exception {
+        // given
+        Facts facts = new Facts();
+        facts.put("name", "foo");
+        facts.put("age", 18);
+        FactBindingPlan plan = plan("when");
+
+        // when
+        Object[] arguments = plan.bind(facts);
+
+        // then
+        assertThat(arguments).containsExactly("foo", facts, 18);
+    }
+
+    @Test
+    public void testBindWithMissingFact() throws Exception {
+        // given
+        Facts facts = new Facts();
+        facts.put("name", "foo");
+        FactBindingPlan plan = plan("when");
+
+        // when
+        Object[] arguments = plan.bind(facts);
+
+        // then
+        assertThat(arguments).isNull();
+        assertThat(plan.findMissingFact(facts)).isEqualTo("age");
+    }
+
+    @Test
+    public void testBindWithMismatchedFactType() throws Exception {
+        // given
+        Facts facts = new Facts();
+        facts.put("name", "foo");
+        facts.put("age", "eighteen");
+        FactBindingPlan plan = plan("when");
+
+        // when
+        Object[] arguments = plan.bind(facts);
+
+        // then
+        assertThat(arguments).isNull();
+        assertThat(plan.findMissingFact(facts)).isNull();
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        // given
+        Facts facts = new Facts();
+        facts.put("name", "foo");
+        facts.put("age", 18);
+        FactBindingPlan plan = plan("when");
+        Object[] arguments = plan.bind(facts);
+
+        // when
+        plan.release(arguments);
+
+        // then
+        assertThat(arguments).containsOnlyNulls();
+    }
+
+    @Test
+    public void testFactsHandle() throws Throwable {
+        // given
+        Facts facts = new Facts();
+        facts.put("name", "foo");
+        facts.putInt("age", 18);
+        FactBindingPlan plan = plan("when");
+
+        // when
+        MethodHandle handle = plan.getFactsHandle();
+
+        // then
+        assertThat((boolean) handle.invokeExact((Object) new MyRule(), facts)).isTrue();
+        facts.putInt("age", 17);
+        assertThat((boolean) handle.invokeExact((Object) new MyRule(), facts)).isFalse();
+        facts.put("age", 18);
+        assertThat((boolean) handle.invokeExact((Object) new MyRule(), facts)).isTrue();
+    }
+
+    @Test
+    public void testFactsHandleWithMissingOrMismatchedFact() throws Exception {
+        // given
+        Facts facts = new Facts();
+        facts.put("name", "foo");
+        MethodHandle handle = plan("when").getFactsHandle();
+
+        // when, then
+        assertThatThrownBy(() -> handle.invoke(new MyRule(), facts)).isInstanceOf(FactBindingPlan.UnboundFactException.class);
+        facts.putLong("age", 18);
+        assertThatThrownBy(() -> handle.invoke(new MyRule(), facts)).isInstanceOf(FactBindingPlan.UnboundFactException.class);
+    }
+
+    @Test
+    public void testBindWidensPrimitiveFacts() throws Exception {
+        // given
+        Facts facts = new Facts();
+        facts.put("age", 18);
+        facts.putLong("weight", 70);
+        facts.put("height", 'A');
+        FactBindingPlan plan = widePlan();
+
+        // when
+        Object[] arguments = plan.bind(facts);
+
+        // then
+        assertThat(arguments).containsExactly(18L, 70.0, 65.0f);
+    }
+
+    @Test
+    public void testBindDoesNotNarrowPrimitiveFacts() throws Exception {
+        // given
+        Facts facts = new Facts();
+        facts.put("age", 18.0);
+        facts.put("weight", 70);
+        facts.put("height", 1.8f);
+        FactBindingPlan plan = widePlan();
+
+        // when
+        Object[] arguments = plan.bind(facts);
+
+        // then
+        assertThat(arguments).isNull();
+    }
+
+    @Test
+    public void testFactsHandleWidensPrimitiveFacts() throws Throwable {
+        // given
+        Facts facts = new Facts();
+        facts.putInt("age", 18);
+        facts.put("weight", 70L);
+        facts.put("height", (byte) 2);
+        MethodHandle handle = widePlan().getFactsHandle();
+
+        // when
+        boolean result = (boolean) handle.invokeExact((Object) new MyRule(), facts);
+
+        // then
+        assertThat(result).isTrue();
+        facts.put("age", 18.0);
+        assertThatThrownBy(() -> handle.invoke(new MyRule(), facts)).isInstanceOf(FactBindingPlan.UnboundFactException.class);
+    }
+
+    @Test
+    public void testWiden() {
+        assertThat(FactBindingPlan.widen(1, Long.class)).isEqualTo(1L);
+        assertThat(FactBindingPlan.widen((byte) 1, Short.class)).isEqualTo((short) 1);
+        assertThat(FactBindingPlan.widen('A', Integer.class)).isEqualTo(65);
+        assertThat(FactBindingPlan.widen(1L, Float.class)).isEqualTo(1.0f);
+        assertThat(FactBindingPlan.widen(true, Boolean.class)).isEqualTo(true);
+        assertThat(FactBindingPlan.widen('A', Short.class)).isNull();
+        assertThat(FactBindingPlan.widen((byte) 1, Character.class)).isNull();
+        assertThat(FactBindingPlan.widen(1L, Integer.class)).isNull();
+        assertThat(FactBindingPlan.widen(1, Boolean.class)).isNull();
+        assertThat(FactBindingPlan.widen(null, Long.class)).isNull();
+    }
+
+    @Test
+    public void testNoFactsHandleWithoutPrimitiveFacts() throws Exception {
+        Method method = MyRule.class.getMethod("then", String.class);
+        FactBindingPlan plan = new FactBindingPlan(method, MethodHandles.lookup().unreflect(method), void.class);
+
+        assertThat(plan.getFactsHandle()).isNull();
+    }
+
+    private static FactBindingPlan plan(String name) throws Exception {
+        Method method = MyRule.class.getMethod(name, String.class, Facts.class, int.class);
+        return new FactBindingPlan(method, MethodHandles.lookup().unreflect(method), boolean.class);
+    }
+
+    private static FactBindingPlan widePlan() throws Exception {
+        Method method = MyRule.class.getMethod("wide", long.class, double.class, float.class);
+        return new FactBindingPlan(method, MethodHandles.lookup().unreflect(method), boolean.class);
+    }
+
+    public static class MyRule {
+        public boolean when(@Fact("name") String name, Facts facts, @Fact("age") int age) {
+            return age >= 18;
+        }
+
+        public void then(@Fact("name") String name) {
+        }
+
+        public boolean wide(@Fact("age") long age, @Fact("weight") double weight, @Fact("height") float height) {
+            return age >= 18 && weight > 50 && height > 1;
+        }
+    }
+}
@@ -32,8 +32,12 @@ import org.jeasy.rules.api.Facts;
 import org.jeasy.rules.api.Rules;
 import org.jeasy.rules.api.RulesEngine;
 import org.jeasy.rules.api.RulesEngineListener;
+import org.jeasy.rules.api.RulesEngineParameters;
 import org.junit.Test;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class InferenceRulesEngineTest {
@@ -121,6 +125,170 @@ public class InferenceRulesEngineTest {
         assertThat(rule.isExecuted()).isTrue();
     }
 
+    @Test
+    public void ruleWhoseConditionStaysTrueShouldBeFiredOnceWithRefraction() {
+        // Given
+        AtomicInteger evaluations = new AtomicInteger();
+        AtomicInteger executions = new AtomicInteger();
+        org.jeasy.rules.api.Rule rule = new RuleBuilder()
+                .when(facts -> evaluations.incrementAndGet() > 0)
+                .then(facts -> executions.incrementAndGet())
+                .build();
+        Facts facts = new Facts();
+        RulesEngine rulesEngine = new InferenceRulesEngine(new RulesEngineParameters().refraction(true));
+
+        // When
+        rulesEngine.fire(new Rules(rule), facts);
+
+        // Then
+        assertThat(executions).hasValue(1);
+        assertThat(evaluations).hasValue(1);
+    }
+
+    @Test
+    public void rulesShouldBeEvaluatedOncePerCycleWithRefraction() {
+        // Given
+        AtomicInteger evaluations = new AtomicInteger();
+        org.jeasy.rules.api.Rule counter = new RuleBuilder()
+                .name("counter")
+                .priority(1)
+                .when(facts -> {
+                    evaluations.incrementAndGet();
+                    return facts.<Integer>get("count") < 3;
+                })
+                .then(facts -> facts.put("count", facts.<Integer>get("count") + 1))
+                .build();
+        Facts facts = new Facts();
+        facts.put("count", 0);
+        RulesEngine rulesEngine = new InferenceRulesEngine(new RulesEngineParameters().refraction(true));
+
+        // When
+        rulesEngine.fire(new Rules(counter), facts);
+
+        // Then
+        assertThat(facts.<Integer>get("count")).isEqualTo(3);
+        assertThat(evaluations).hasValue(4);
+    }
+
+    @Test
+    public void onlyRulesReadingChangedFactsShouldBeEvaluatedAgainWithRefraction() {
+        // Given
+        AtomicInteger readerEvaluations = new AtomicInteger();
+        AtomicInteger opaqueEvaluations = new AtomicInteger();
+        org.jeasy.rules.api.Rule counter = new RuleBuilder()
+                .name("counter")
+                .when(facts -> facts.<Integer>get("count") < 3)
+                .then(facts -> facts.put("count", facts.<Integer>get("count") + 1))
+                .reads("count")
+                .build();
+        org.jeasy.rules.api.Rule reader = new RuleBuilder()
+                .name("reader")
+                .when(facts -> readerEvaluations.incrementAndGet() < 0)
+                .reads("other")
+                .build();
+        org.jeasy.rules.api.Rule opaque = new RuleBuilder()
+                .name("opaque")
+                .when(facts -> opaqueEvaluations.incrementAndGet() < 0)
+                .build();
+        Facts facts = new Facts();
+        facts.put("count", 0);
+        RulesEngine rulesEngine = new InferenceRulesEngine(new RulesEngineParameters().refraction(true));
+
+        // When
+        rulesEngine.fire(new Rules(counter, reader, opaque), facts);
+
+        // Then
+        assertThat(facts.<Integer>get("count")).isEqualTo(3);
+        assertThat(readerEvaluations).hasValue(1);
+        assertThat(opaqueEvaluations).hasValue(4);
+    }
+
+    @Test
+    public void candidateShouldBeEvaluatedAgainWhenAPreviousRuleOfTheCycleChangesItsFactsWithRefraction() {
+        // Given
+        AtomicInteger withdrawals = new AtomicInteger();
+        org.jeasy.rules.api.Rule close = new RuleBuilder()
+                .name("close")
+                .priority(1)
+                .when(facts -> facts.<Boolean>get("open"))
+                .then(facts -> facts.put("open", false))
+                .reads("open")
+                .build();
+        org.jeasy.rules.api.Rule withdraw = new RuleBuilder()
+                .name("withdraw")
+                .priority(2)
+                .when(facts -> facts.<Boolean>get("open"))
+                .then(facts -> withdrawals.incrementAndGet())
+                .reads("open")
+                .build();
+        Facts facts = new Facts();
+        facts.put("open", true);
+        RulesEngine rulesEngine = new InferenceRulesEngine(new RulesEngineParameters().refraction(true));
+
+        // When
+        rulesEngine.fire(new Rules(close, withdraw), facts);
+
+        // Then
+        assertThat(facts.<Boolean>get("open")).isFalse();
+        assertThat(withdrawals).hasValue(0);
+    }
+
+    @Test
+    public void annotatedRulesShouldBeEvaluatedAgainWhenInjectedFactsChangeWithRefraction() {
+        // Given
+        Facts facts = new Facts();
+        facts.put("foo", true);
+        facts.put("bar", true);
+        DummyRule dummyRule = new DummyRule();
+        AnotherDummyRule anotherDummyRule = new AnotherDummyRule();
+        RulesEngine rulesEngine = new InferenceRulesEngine(new RulesEngineParameters().refraction(true));
+
+        // When
+        rulesEngine.fire(new Rules(dummyRule, anotherDummyRule), facts);
+
+        // Then
+        assertThat(dummyRule.isExecuted()).isTrue();
+        assertThat(anotherDummyRule.isExecuted()).isTrue();
+        assertThat(facts.asMap()).isEmpty();
+    }
+
+    @Test
+    public void inferenceShouldStopAfterMaxCycles() {
+        // Given
+        AtomicInteger executions = new AtomicInteger();
+        org.jeasy.rules.api.Rule rule = new RuleBuilder()
+                .when(facts -> true)
+                .then(facts -> executions.incrementAndGet())
+                .build();
+        RulesEngine rulesEngine = new InferenceRulesEngine(new RulesEngineParameters().maxCycles(3));
+
+        // When
+        rulesEngine.fire(new Rules(rule), new Facts());
+
+        // Then
+        assertThat(executions).hasValue(3);
+    }
+
+    @Test
+    public void inferenceShouldStopAfterMaxDuration() {
+        // Given
+        org.jeasy.rules.api.Rule rule = new RuleBuilder()
+                .when(facts -> true)
+                .then(facts -> facts.put("count", facts.<Integer>get("count") + 1))
+                .build();
+        Facts facts = new Facts();
+        facts.put("count", 0);
+        RulesEngine rulesEngine = new InferenceRulesEngine(new RulesEngineParameters()
+                .refraction(true)
+                .maxDuration(Duration.ofMillis(50)));
+
+        // When
+        rulesEngine.fire(new Rules(rule), facts);
+
+        // Then
+        assertThat(facts.<Integer>get("count")).isPositive();
+    }
+
     @Rule
 	static class DummyRule {
 
@@ -34,6 +34,9 @@ import org.junit.Test;
 
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 /**
  * Null facts are not accepted by design, a declared fact can be missing though.
  */
@@ -54,6 +57,112 @@ public class MissingFactAnnotationParameterTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void testMissingFactWithIgnorePolicy() {
+        // given
+        org.jeasy.rules.api.Rule rule = RuleProxy.asRule(new AnnotatedParametersRule(), MissingFactPolicy.IGNORE);
+        Facts facts = new Facts();
+        facts.put("fact1", new Object());
+
+        // when
+        boolean evaluationResult = rule.evaluate(facts);
+
+        // then
+        assertThat(evaluationResult).isFalse();
+    }
+
+    @Test
+    public void testMissingFactWithFailPolicy() {
+        // given
+        org.jeasy.rules.api.Rule rule = RuleProxy.asRule(new AnnotatedParametersRule(), MissingFactPolicy.FAIL);
+        Facts facts = new Facts();
+        facts.put("fact1", new Object());
+
+        // when / then
+        assertThatThrownBy(() -> rule.evaluate(facts))
+                .isInstanceOf(NoSuchFactException.class)
+                .extracting("missingFact").isEqualTo("fact2");
+    }
+
+    @Test
+    public void testMissingFactInActionFailsWhateverThePolicy() {
+        // given
+        org.jeasy.rules.api.Rule rule = RuleProxy.asRule(new AnnotatedParametersRule(), MissingFactPolicy.IGNORE);
+        Facts facts = new Facts();
+        facts.put("fact1", new Object());
+
+        // when / then
+        assertThatThrownBy(() -> rule.execute(facts))
+                .isInstanceOf(NoSuchFactException.class)
+                .extracting("missingFact").isEqualTo("fact2");
+    }
+
+    @Test
+    public void testMissingFactPolicyIsPerRule() {
+        // given
+        org.jeasy.rules.api.Rule failingRule = RuleProxy.asRule(new AnnotatedParametersRule(), MissingFactPolicy.FAIL);
+        org.jeasy.rules.api.Rule rule = RuleProxy.asRule(new AnnotatedParametersRule());
+        Facts facts = new Facts();
+        facts.put("fact1", new Object());
+
+        // when / then
+        assertThatThrownBy(() -> failingRule.evaluate(facts)).isInstanceOf(NoSuchFactException.class);
+        assertThat(rule.evaluate(facts)).isFalse();
+    }
+
+    @Test
+    public void testMissingFactMessageRendersFactsKnownWhenThrown() {
+        // given
+        Facts facts = new Facts();
+        facts.put("fact1", "value1");
+        NoSuchFactException exception = MissingFacts.noSuchFact("fact2", facts);
+
+        // when
+        facts.put("fact3", "value3");
+        facts.remove("fact1");
+
+        // then
+        assertThat(exception.getMissingFact()).isEqualTo("fact2");
+        assertThat(exception.getMessage())
+                .startsWith("No fact named 'fact2' found in known facts:")
+                .contains("Fact{name='fact1', value=value1}")
+                .doesNotContain("fact3");
+    }
+
+    @Test
+    public void testMissingFactMessageIsBoundedForLargeFacts() {
+        // given
+        Facts facts = new Facts();
+        StringBuilder largeValue = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            largeValue.append('x');
+        }
+        facts.put("large", largeValue.toString());
+
+        // when
+        String message = MissingFacts.noSuchFact("missing", facts).getMessage();
+
+        // then
+        assertThat(message).contains("Fact{name='large', value=xxx").endsWith("...]");
+        assertThat(message.length()).isLessThan(600);
+    }
+
+    @Test
+    public void testRenderedFactsAreBounded() {
+        // given
+        Facts facts = new Facts();
+        for (int i = 0; i < 1000; i++) {
+            facts.put("fact" + i, "value" + i);
+        }
+
+        // when
+        String renderedFacts = MissingFacts.render(facts).toString();
+
+        // then
+        assertThat(renderedFacts).startsWith("[Fact{name='").endsWith("...]");
+        assertThat(renderedFacts.length()).isLessThan(600);
+    }
+
     @Rule
     public static class AnnotatedParametersRule {
 
@@ -0,0 +1,299 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Fact;
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.api.RuleListener;
+import org.jeasy.rules.api.Rules;
+import org.jeasy.rules.api.RulesEngine;
+import org.jeasy.rules.api.RulesEngineParameters;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReteRulesEngineTest {
+
+    @Test
+    public void testCandidateSelection() {
+        // Given
+        Facts facts = new Facts();
+        facts.put("foo", true);
+        InferenceRulesEngineTest.DummyRule dummyRule = new InferenceRulesEngineTest.DummyRule();
+        InferenceRulesEngineTest.AnotherDummyRule anotherDummyRule = new InferenceRulesEngineTest.AnotherDummyRule();
+        Rules rules = new Rules(dummyRule, anotherDummyRule);
+        RulesEngine rulesEngine = new ReteRulesEngine();
+
+        // When
+        rulesEngine.fire(rules, facts);
+
+        // Then
+        assertThat(dummyRule.isExecuted()).isTrue();
+        assertThat(anotherDummyRule.isExecuted()).isFalse();
+    }
+
+    @Test
+    public void testCandidateOrdering() {
+        // Given
+        Facts facts = new Facts();
+        facts.put("foo", true);
+        facts.put("bar", true);
+        InferenceRulesEngineTest.DummyRule dummyRule = new InferenceRulesEngineTest.DummyRule();
+        InferenceRulesEngineTest.AnotherDummyRule anotherDummyRule = new InferenceRulesEngineTest.AnotherDummyRule();
+        Rules rules = new Rules(dummyRule, anotherDummyRule);
+        RulesEngine rulesEngine = new ReteRulesEngine();
+
+        // When
+        rulesEngine.fire(rules, facts);
+
+        // Then
+        assertThat(dummyRule.isExecuted()).isTrue();
+        assertThat(anotherDummyRule.isExecuted()).isTrue();
+        assertThat(dummyRule.getTimestamp()).isLessThanOrEqualTo(anotherDummyRule.getTimestamp());
+    }
+
+    @Test
+    public void patternRulesShouldBeChained() {
+        // Given
+        Facts facts = new Facts();
+        facts.put("order", 150);
+        Rule invoice = new PatternRuleBuilder()
+                .name("invoice")
+                .priority(1)
+                .when("order", Integer.class, amount -> amount > 100)
+                .then(f -> {
+                    f.put("invoice", f.<Integer>get("order"));
+                    f.remove("order");
+                })
+                .build();
+        Rule ship = new PatternRuleBuilder()
+                .name("ship")
+                .priority(2)
+                .when("invoice", Integer.class, amount -> amount > 0)
+                .then(f -> {
+                    f.put("shipped", true);
+                    f.remove("invoice");
+                })
+                .build();
+        Rules rules = new Rules(ship, invoice);
+
+        // When
+        new ReteRulesEngine().fire(rules, facts);
+
+        // Then
+        assertThat(facts.<Boolean>get("shipped")).isTrue();
+        assertThat(facts.asMap()).containsOnlyKeys("shipped");
+    }
+
+    @Test
+    public void factRemovedThroughIteratorShouldNoLongerMatch() {
+        // Given
+        AtomicInteger executions = new AtomicInteger();
+        Facts facts = new Facts();
+        facts.put("order", 150);
+        Rule consume = new PatternRuleBuilder()
+                .name("consume")
+                .priority(1)
+                .when("order", Integer.class, amount -> amount > 100)
+                .then(f -> {
+                    executions.incrementAndGet();
+                    Iterator<Fact<?>> iterator = f.iterator();
+                    while (iterator.hasNext()) {
+                        if (iterator.next().getName().equals("order")) {
+                            iterator.remove();
+                        }
+                    }
+                })
+                .build();
+        Rule restock = new PatternRuleBuilder()
+                .name("restock")
+                .priority(2)
+                .when("order", Integer.class, amount -> amount > 100)
+                .then(f -> f.put("restocked", true))
+                .build();
+        RulesEngine rulesEngine = new ReteRulesEngine(new RulesEngineParameters().maxCycles(10));
+
+        // When
+        rulesEngine.fire(new Rules(consume, restock), facts);
+
+        // Then
+        assertThat(executions).hasValue(1);
+        assertThat(facts.asMap()).isEmpty();
+    }
+
+    @Test
+    public void patternsShouldOnlyBeEvaluatedWhenTheirFactChanges() {
+        // Given
+        AtomicInteger evaluations = new AtomicInteger();
+        Predicate<String> stable = value -> {
+            evaluations.incrementAndGet();
+            return true;
+        };
+        Facts facts = new Facts();
+        facts.put("step", 0);
+        facts.put("stable", "value");
+        Rule counter = new PatternRuleBuilder()
+                .name("counter")
+                .when("step", Integer.class, step -> step < 5)
+                .then(f -> f.put("step", f.<Integer>get("step") + 1))
+                .build();
+        Rule never1 = new PatternRuleBuilder()
+                .name("never1")
+                .when("stable", String.class, stable)
+                .when("step", Integer.class, step -> step == 99)
+                .build();
+        Rule never2 = new PatternRuleBuilder()
+                .name("never2")
+                .when("stable", String.class, stable)
+                .when("step", Integer.class, step -> step == 98)
+                .build();
+        Rules rules = new Rules(counter, never1, never2);
+
+        // When
+        new ReteRulesEngine().fire(rules, facts);
+
+        // Then
+        assertThat(facts.<Integer>get("step")).isEqualTo(5);
+        // shared by both rules and never changed: evaluated once
+        assertThat(evaluations).hasValue(1);
+    }
+
+    @Test
+    public void joinShouldBeEvaluatedOnceAllPatternsMatch() {
+        // Given
+        AtomicInteger joins = new AtomicInteger();
+        Facts facts = new Facts();
+        facts.put("customer", "gold");
+        facts.put("order", 150);
+        Rule discount = new PatternRuleBuilder()
+                .name("discount")
+                .when("customer", String.class, "gold"::equals)
+                .when("order", Integer.class, amount -> amount > 100)
+                .join(f -> joins.incrementAndGet() > 0 && !f.<Integer>get("order").equals(42))
+                .then(f -> f.put("order", 42))
+                .build();
+        Rules rules = new Rules(discount);
+
+        // When
+        new ReteRulesEngine().fire(rules, facts);
+
+        // Then
+        assertThat(facts.<Integer>get("order")).isEqualTo(42);
+        // the pattern on order no longer matches after the action, the join is not evaluated again
+        assertThat(joins).hasValue(1);
+    }
+
+    @Test
+    public void testCheck() {
+        // Given
+        Facts facts = new Facts();
+        facts.put("age", 20);
+        Rule adult = new PatternRuleBuilder()
+                .name("adult")
+                .when("age", Integer.class, age -> age >= 18)
+                .build();
+        Rule child = new PatternRuleBuilder()
+                .name("child")
+                .when("age", Integer.class, age -> age < 18)
+                .build();
+        Rules rules = new Rules(adult, child);
+
+        // When
+        Map<Rule, Boolean> result = new ReteRulesEngine().check(rules, facts);
+
+        // Then
+        assertThat(result).hasSize(2).containsEntry(adult, true).containsEntry(child, false);
+    }
+
+    @Test
+    public void ruleListenersShouldBeInvokedWhenRulesAreExecuted() {
+        // Given
+        List<String> events = new ArrayList<>();
+        Facts facts = new Facts();
+        facts.put("foo", true);
+        Rule rule = new PatternRuleBuilder()
+                .name("rule")
+                .when("foo", Boolean.class, foo -> foo)
+                .then(f -> f.remove("foo"))
+                .build();
+        ReteRulesEngine rulesEngine = new ReteRulesEngine();
+        rulesEngine.registerRuleListener(new RuleListener() {
+            @Override
+            public void beforeExecute(Rule rule, Facts facts) {
+                events.add("beforeExecute " + rule.getName());
+            }
+
+            @Override
+            public void onSuccess(Rule rule, Facts facts) {
+                events.add("onSuccess " + rule.getName());
+            }
+        });
+
+        // When
+        rulesEngine.fire(new Rules(rule), facts);
+
+        // Then
+        assertThat(events).containsExactly("beforeExecute rule", "onSuccess rule");
+    }
+
+    @Test
+    public void patternRulesCanBeFiredByTheDefaultRulesEngine() {
+        // Given
+        Facts facts = new Facts();
+        facts.put("age", 20);
+        Rule adult = new PatternRuleBuilder()
+                .name("adult")
+                .when("age", Integer.class, age -> age >= 18)
+                .then(f -> f.put("adult", true))
+                .build();
+
+        // When
+        new DefaultRulesEngine().fire(new Rules(adult), facts);
+
+        // Then
+        assertThat(facts.<Boolean>get("adult")).isTrue();
+    }
+
+    @Test
+    public void readFactsOfPatternRuleShouldBeTheFactsOfItsPatterns() {
+        // given
+        org.jeasy.rules.api.Rule rule = new PatternRuleBuilder()
+                .when("foo", Integer.class, value -> value > 0)
+                .when("bar", String.class, String::isEmpty)
+                .join(facts -> true)
+                .build();
+
+        // then
+        assertThat(rule.getReadFacts()).containsExactly("foo", "bar");
+    }
+
+}
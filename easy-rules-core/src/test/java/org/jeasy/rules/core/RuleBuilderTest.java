@@ -25,6 +25,7 @@ package org.jeasy.rules.core;
 
 import org.jeasy.rules.api.Action;
 import org.jeasy.rules.api.Condition;
+import org.jeasy.rules.api.FactKey;
 import org.jeasy.rules.api.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -73,4 +74,16 @@ public class RuleBuilderTest {
         assertThat(rule).extracting("condition").isSameAs(condition);
         assertThat(rule).extracting("actions").asList().containsExactly(action1, action2);
     }
+
+    @Test
+    public void testReadFactsDeclaredWithKeys() {
+        // when
+        Rule rule = new RuleBuilder()
+                .when(condition)
+                .reads(FactKey.of("foo"), FactKey.of("bar"))
+                .build();
+
+        // then
+        assertThat(rule.getReadFacts()).containsExactly("foo", "bar");
+    }
 }
@@ -26,14 +26,20 @@ package org.jeasy.rules.core;
 import org.jeasy.rules.annotation.Action;
 import org.jeasy.rules.annotation.AnnotatedRuleWithMetaRuleAnnotation;
 import org.jeasy.rules.annotation.Condition;
+import org.jeasy.rules.annotation.Fact;
 import org.jeasy.rules.annotation.Priority;
+import org.jeasy.rules.api.Facts;
 import org.jeasy.rules.api.Rule;
 import org.jeasy.rules.api.Rules;
 import org.junit.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class RuleProxyTest {
@@ -279,6 +285,178 @@ public class RuleProxyTest {
         assertEquals(Rule.DEFAULT_PRIORITY, proxy.getPriority());
     }
 
+    @Test
+    public void testPrimitiveFactInjection() {
+
+        @org.jeasy.rules.annotation.Rule
+        class MyRule {
+            @Condition
+            public boolean when(@Fact("age") int age) { return age >= 18; }
+
+            @Action
+            public void then() { }
+        }
+
+        Facts facts = new Facts();
+        facts.put("age", 20);
+        Rule proxy = RuleProxy.asRule(new MyRule());
+        assertTrue(proxy.evaluate(facts));
+    }
+
+    @Test
+    public void testPrimitiveFactsInjection() throws Exception {
+
+        @org.jeasy.rules.annotation.Rule
+        class MyRule {
+            @Condition
+            public boolean when(@Fact("count") long count, @Fact("enabled") boolean enabled) { return enabled && count < 10; }
+
+            @Action
+            public void then(@Fact("count") long count, @Fact("score") double score, Facts facts) {
+                facts.putLong("count", count + 1);
+                facts.putDouble("score", score * 2);
+            }
+        }
+
+        Facts facts = new Facts();
+        facts.putLong("count", 1);
+        facts.putBoolean("enabled", true);
+        facts.putDouble("score", 1.5);
+        Rule proxy = RuleProxy.asRule(new MyRule());
+        assertTrue(proxy.evaluate(facts));
+        proxy.execute(facts);
+        assertEquals(2, facts.getLong("count"));
+        assertEquals(3.0, facts.getDouble("score"), 0);
+
+        facts.remove("score");
+        try {
+            proxy.execute(facts);
+            fail("Missing fact should not be bound");
+        } catch (NoSuchFactException e) {
+            assertEquals("score", e.getMissingFact());
+        }
+        facts.putDouble("count", 1);
+        assertFalse(proxy.evaluate(facts));
+    }
+
+    @Test
+    public void testPrimitiveFactIsWidenedToParameterType() throws Exception {
+
+        @org.jeasy.rules.annotation.Rule
+        class MyRule {
+            @Condition
+            public boolean when(@Fact("age") long age) { return age >= 18; }
+
+            @Action
+            public void then(@Fact("age") double age, @Fact("weight") float weight, Facts facts) {
+                facts.put("bmi", weight / (age / 10));
+            }
+        }
+
+        Facts facts = new Facts();
+        facts.put("age", 30);
+        facts.put("weight", 75);
+        Rule proxy = RuleProxy.asRule(new MyRule());
+        assertTrue(proxy.evaluate(facts));
+        facts.putInt("age", 30);
+        assertTrue(proxy.evaluate(facts));
+        proxy.execute(facts);
+        assertEquals(25.0, (double) facts.get("bmi"), 0.001);
+    }
+
+    @Test
+    public void readFactsShouldBeTheFactsInjectedInTheConditionMethod() {
+
+        @org.jeasy.rules.annotation.Rule
+        class MyRule {
+            @Condition
+            public boolean when(@Fact("age") int age, @Fact("name") String name) { return true; }
+
+            @Action
+            public void then(Facts facts) { }
+        }
+
+        @org.jeasy.rules.annotation.Rule
+        class MyOtherRule {
+            @Condition
+            public boolean when(Facts facts) { return true; }
+
+            @Action
+            public void then() { }
+        }
+
+        assertThat(RuleProxy.asRule(new MyRule()).getReadFacts()).containsExactly("age", "name");
+        assertThat(RuleProxy.asRule(new MyOtherRule()).getReadFacts()).isNull();
+    }
+
+    @Test
+    public void testConditionWithMismatchedFactTypeIsEvaluatedToFalse() {
+
+        @org.jeasy.rules.annotation.Rule
+        class MyRule {
+            @Condition
+            public boolean when(@Fact("age") int age) { return true; }
+
+            @Action
+            public void then() { }
+        }
+
+        Facts facts = new Facts();
+        facts.put("age", "twenty");
+        Rule proxy = RuleProxy.asRule(new MyRule());
+        assertFalse(proxy.evaluate(facts));
+    }
+
+    @Test
+    public void testActionExceptionIsPropagatedAsIs() {
+
+        IllegalStateException exception = new IllegalStateException("boom");
+
+        @org.jeasy.rules.annotation.Rule
+        class MyRule {
+            @Condition
+            public boolean when() { return true; }
+
+            @Action
+            public void then() { throw exception; }
+        }
+
+        Rule proxy = RuleProxy.asRule(new MyRule());
+        try {
+            proxy.execute(new Facts());
+            fail("Should have thrown " + exception);
+        } catch (Exception e) {
+            assertSame(exception, e);
+        }
+    }
+
+    @Test
+    public void testMetadataIsSharedByInstancesOfTheSameClass() {
+
+        @org.jeasy.rules.annotation.Rule
+        class MyRule {
+            private final int priority;
+
+            MyRule(int priority) { this.priority = priority; }
+
+            @Condition
+            public boolean when() { return true; }
+
+            @Action
+            public void then() { }
+
+            @Priority
+            public int getPriority() { return priority; }
+        }
+
+        Rule proxy1 = RuleProxy.asRule(new MyRule(1));
+        Rule proxy2 = RuleProxy.asRule(new MyRule(2));
+        assertSame(RuleMetadata.of(MyRule.class), RuleMetadata.of(MyRule.class));
+        assertEquals(1, proxy1.getPriority());
+        assertEquals(2, proxy2.getPriority());
+        assertEquals(proxy1.getName(), proxy2.getName());
+    }
+
     @org.jeasy.rules.annotation.Rule
 	static class DummyRule {
         @Condition
@@ -0,0 +1,286 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.core;
+
+import org.jeasy.rules.api.Rule;
+import org.jeasy.rules.api.RuleSession;
+import org.jeasy.rules.api.Rules;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RuleSessionTest {
+
+    private final InferenceRulesEngine rulesEngine = new InferenceRulesEngine();
+
+    @Test
+    public void onlyRulesReadingChangedFactsShouldBeEvaluatedAgain() {
+        // given
+        AtomicInteger fooEvaluations = new AtomicInteger();
+        AtomicInteger barEvaluations = new AtomicInteger();
+        List<String> alerts = new ArrayList<>();
+        Rule fooRule = new RuleBuilder()
+                .name("foo")
+                .when(facts -> fooEvaluations.incrementAndGet() > 0 && facts.<Integer>get("foo") > 10)
+                .then(facts -> alerts.add("foo"))
+                .reads("foo")
+                .build();
+        Rule barRule = new RuleBuilder()
+                .name("bar")
+                .when(facts -> barEvaluations.incrementAndGet() > 0 && facts.<Integer>get("bar") > 10)
+                .then(facts -> alerts.add("bar"))
+                .reads("bar")
+                .build();
+
+        try (RuleSession session = rulesEngine.newSession(new Rules(fooRule, barRule))) {
+            session.insert("foo", 1);
+            session.insert("bar", 1);
+            assertThat(session.fireAll()).isZero();
+
+            // when
+            session.update("foo", 20);
+            int executions = session.fireAll();
+
+            // then
+            assertThat(executions).isEqualTo(1);
+            assertThat(alerts).containsExactly("foo");
+            assertThat(fooEvaluations).hasValue(2);
+            assertThat(barEvaluations).hasValue(1);
+
+            // and a rule that stays applicable is not fired again
+            assertThat(session.fireAll()).isZero();
+            session.update("foo", 30);
+            assertThat(session.fireAll()).isEqualTo(1);
+            assertThat(alerts).containsExactly("foo", "foo");
+        }
+    }
+
+    @Test
+    public void retractedFactsShouldNotMatchAnymore() {
+        // given
+        AtomicInteger executions = new AtomicInteger();
+        Rule rule = new RuleBuilder()
+                .when(facts -> facts.get("foo") != null)
+                .then(facts -> executions.incrementAndGet())
+                .reads("foo")
+                .build();
+
+        try (RuleSession session = rulesEngine.newSession(new Rules(rule))) {
+            session.insert("foo", 1);
+            session.retract("foo");
+
+            // when
+            session.fireAll();
+
+            // then
+            assertThat(executions).hasValue(0);
+            assertThat(session.getFacts().asMap()).isEmpty();
+        }
+    }
+
+    @Test
+    public void insertShouldRejectExistingFactsAndUpdateMissingFacts() {
+        try (RuleSession session = rulesEngine.newSession(new Rules())) {
+            session.insert("foo", 1);
+
+            assertThatThrownBy(() -> session.insert("foo", 2)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> session.update("bar", 2)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(session.getFacts().<Integer>get("foo")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void fireUntilHaltShouldFireRulesAsFactsAreInserted() throws Exception {
+        // given
+        List<Integer> events = Collections.synchronizedList(new ArrayList<>());
+        Rule rule = new RuleBuilder()
+                .when(facts -> facts.get("event") != null)
+                .then(facts -> events.add(facts.get("event")))
+                .reads("event")
+                .build();
+        RuleSession session = rulesEngine.newSession(new Rules(rule));
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 3; i++) {
+                session.retract("event");
+                session.insert("event", i);
+                while (events.size() <= i) {
+                    Thread.yield();
+                }
+            }
+            session.halt();
+        });
+
+        // when
+        producer.start();
+        session.fireUntilHalt();
+        producer.join();
+        session.close();
+
+        // then
+        assertThat(events).containsExactly(0, 1, 2);
+    }
+
+    @Test(timeout = 30_000) // halt used to block on the session lock held by the firing thread
+    public void haltFromAnotherThreadShouldStopSelfRetriggeringRules() throws Exception {
+        // given
+        AtomicInteger executions = new AtomicInteger();
+        Rule counter = new RuleBuilder()
+                .name("counter")
+                .when(facts -> facts.<Integer>get("count") >= 0)
+                .then(facts -> {
+                    facts.put("count", facts.<Integer>get("count") + 1);
+                    executions.incrementAndGet();
+                })
+                .reads("count")
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            executions.set(0);
+            RuleSession session = rulesEngine.newSession(new Rules(counter));
+            session.insert("count", 0);
+            Thread firing = new Thread(() -> {
+                try {
+                    session.fireUntilHalt();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            firing.setDaemon(true);
+            firing.start();
+            while (executions.get() < 100) {
+                Thread.yield();
+            }
+
+            // when
+            session.halt();
+            firing.join(TimeUnit.SECONDS.toMillis(5));
+
+            // then
+            assertThat(firing.isAlive()).as("session still firing after halt").isFalse();
+            session.close();
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void haltBeforeFireUntilHaltShouldNotBeLost() throws Exception {
+        // given
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        for (int i = 0; i < 10; i++) {
+            RuleSession session = rulesEngine.newSession(new Rules());
+            CountDownLatch halted = new CountDownLatch(1);
+            Future<?> firing = executorService.submit(() -> {
+                halted.await();
+                session.fireUntilHalt();
+                return null;
+            });
+
+            // when
+            session.halt();
+            halted.countDown();
+
+            // then
+            firing.get(5, TimeUnit.SECONDS);
+            session.close();
+        }
+        executorService.shutdown();
+    }
+
+    @Test
+    public void haltWhileNotFiringShouldOnlyStopTheNextFire() {
+        // given
+        AtomicInteger executions = new AtomicInteger();
+        Rule rule = new RuleBuilder()
+                .when(facts -> facts.get("foo") != null)
+                .then(facts -> executions.incrementAndGet())
+                .reads("foo")
+                .build();
+
+        try (RuleSession session = rulesEngine.newSession(new Rules(rule))) {
+            session.insert("foo", 1);
+
+            // when
+            session.halt();
+
+            // then
+            assertThat(session.fireAll()).isZero();
+            assertThat(session.fireAll()).isEqualTo(1);
+            assertThat(executions).hasValue(1);
+        }
+    }
+
+    @Test
+    public void haltFromRuleActionShouldStopFiring() {
+        // given
+        AtomicReference<RuleSession> currentSession = new AtomicReference<>();
+        AtomicInteger executions = new AtomicInteger();
+        Rule halting = new RuleBuilder()
+                .name("halting")
+                .priority(1)
+                .when(facts -> true)
+                .then(facts -> currentSession.get().halt())
+                .build();
+        Rule other = new RuleBuilder()
+                .name("other")
+                .priority(2)
+                .when(facts -> true)
+                .then(facts -> executions.incrementAndGet())
+                .build();
+
+        try (RuleSession session = rulesEngine.newSession(new Rules(halting, other))) {
+            currentSession.set(session);
+
+            // when
+            int fired = session.fireAll();
+
+            // then
+            assertThat(fired).isEqualTo(1);
+            assertThat(executions).hasValue(0);
+        }
+    }
+
+    @Test
+    public void closedSessionShouldNotBeUsable() {
+        // given
+        RuleSession session = rulesEngine.newSession(new Rules());
+
+        // when
+        session.close();
+
+        // then
+        assertThatThrownBy(() -> session.insert("foo", 1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(session::fireAll).isInstanceOf(IllegalStateException.class);
+    }
+}
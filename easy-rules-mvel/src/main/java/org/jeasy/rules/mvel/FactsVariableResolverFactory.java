@@ -0,0 +1,244 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.mvel;
+
+import org.jeasy.rules.api.Fact;
+import org.jeasy.rules.api.FactKey;
+import org.jeasy.rules.api.Facts;
+import org.mvel2.UnresolveablePropertyException;
+import org.mvel2.ast.FunctionInstance;
+import org.mvel2.integration.VariableResolver;
+import org.mvel2.integration.impl.BaseVariableResolverFactory;
+import org.mvel2.integration.impl.MapVariableResolver;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An MVEL {@link org.mvel2.integration.VariableResolverFactory} that resolves
+ * variables directly from {@link Facts}, without copying them into a map.
+ *
+ * <ul>
+ *     <li>Reading a variable returns the value of the fact with the same name.</li>
+ *     <li>Assigning a variable (like {@code discount = 10}) adds or replaces the
+ *     fact with the same name, so writes made by actions are visible to subsequent rules.
+ *     When the factory is read only (as for {@link MVELCondition}), the variable is
+ *     kept in the local scope instead and facts are not modified.</li>
+ *     <li>Typed local variables (like {@code int i = 0}) and functions defined in the
+ *     expression are kept in a local scope and are discarded after the evaluation.</li>
+ * </ul>
+ *
+ * Variable resolvers are cached by name and are not tied to a given facts instance,
+ * so a factory can be reused across evaluations. Each resolver reads its fact with
+ * a {@link FactKey}. {@link MVELCondition} and
+ * {@link MVELAction} use one factory per thread for steady-state evaluation without allocation.
+ *
+ * A factory is not thread safe and must not be shared between concurrent evaluations.
+ */
+public class FactsVariableResolverFactory extends BaseVariableResolverFactory {
+
+    private static final ThreadLocal<FactsVariableResolverFactory> FACTORIES = ThreadLocal.withInitial(FactsVariableResolverFactory::new);
+
+    private final Map<String, Object> localVariables = new HashMap<>();
+    private final Map<String, VariableResolver> localVariableResolvers = new HashMap<>();
+    private Facts facts;
+    private boolean readOnly;
+
+    private FactsVariableResolverFactory() {
+    }
+
+    /**
+     * Create a new {@link FactsVariableResolverFactory}.
+     *
+     * @param facts to resolve variables from, must not be null
+     */
+    public FactsVariableResolverFactory(Facts facts) {
+        this.facts = Objects.requireNonNull(facts, "facts must not be null");
+    }
+
+    /**
+     * Get a factory bound to the given facts. The factory of the calling thread is
+     * returned unless it is already in use (for instance when an action fires rules
+     * on other facts), in which case a new factory is created.
+     * Factories obtained with this method must be given back with {@link #release()}.
+     *
+     * @param facts to resolve variables from
+     * @param readOnly true if assigned variables must not be written to the facts
+     */
+    static FactsVariableResolverFactory acquire(Facts facts, boolean readOnly) {
+        FactsVariableResolverFactory factory = FACTORIES.get();
+        if (factory.facts != null) {
+            factory = new FactsVariableResolverFactory();
+        }
+        factory.facts = facts;
+        factory.readOnly = readOnly;
+        return factory;
+    }
+
+    /**
+     * Unbind this factory from its facts and discard local variables.
+     */
+    void release() {
+        facts = null;
+        readOnly = false;
+        if (!localVariables.isEmpty()) {
+            localVariables.clear();
+            localVariableResolvers.clear();
+        }
+        setTiltFlag(false);
+    }
+
+    @Override
+    public VariableResolver createVariable(String name, Object value) {
+        VariableResolver resolver = localVariableResolvers.get(name);
+        if (resolver == null && (readOnly || value instanceof FunctionInstance)) {
+            resolver = createLocalVariable(name, null);
+        }
+        if (resolver == null) {
+            resolver = getFactVariableResolver(name);
+        }
+        resolver.setValue(value);
+        return resolver;
+    }
+
+    @Override
+    public VariableResolver createVariable(String name, Object value, Class<?> type) {
+        if (localVariableResolvers.containsKey(name)) {
+            throw new RuntimeException("variable already defined within scope: " + type + " " + name);
+        }
+        VariableResolver resolver = createLocalVariable(name, type);
+        resolver.setValue(value);
+        return resolver;
+    }
+
+    @Override
+    public VariableResolver getVariableResolver(String name) {
+        VariableResolver resolver = localVariableResolvers.get(name);
+        if (resolver != null) {
+            return resolver;
+        }
+        FactVariableResolver factResolver = (FactVariableResolver) variableResolvers.get(name);
+        if (factResolver != null) {
+            if (facts.getFact(factResolver.key) != null) {
+                return factResolver;
+            }
+        } else if (facts.getFact(name) != null) {
+            return getFactVariableResolver(name);
+        }
+        if (nextFactory != null) {
+            return nextFactory.getVariableResolver(name);
+        }
+        throw new UnresolveablePropertyException("unable to resolve variable '" + name + "'");
+    }
+
+    @Override
+    public boolean isResolveable(String name) {
+        return isTarget(name) || (nextFactory != null && nextFactory.isResolveable(name));
+    }
+
+    @Override
+    public boolean isTarget(String name) {
+        return localVariableResolvers.containsKey(name) || facts.getFact(name) != null;
+    }
+
+    @Override
+    public Set<String> getKnownVariables() {
+        Set<String> knownVariables = new HashSet<>(localVariables.keySet());
+        for (Fact<?> fact : facts) {
+            knownVariables.add(fact.getName());
+        }
+        if (nextFactory != null) {
+            knownVariables.addAll(nextFactory.getKnownVariables());
+        }
+        return knownVariables;
+    }
+
+    private VariableResolver createLocalVariable(String name, Class<?> type) {
+        VariableResolver resolver = new MapVariableResolver(localVariables, name, type);
+        localVariableResolvers.put(name, resolver);
+        return resolver;
+    }
+
+    private VariableResolver getFactVariableResolver(String name) {
+        VariableResolver resolver = variableResolvers.get(name);
+        if (resolver == null) {
+            resolver = new FactVariableResolver(name);
+            variableResolvers.put(name, resolver);
+        }
+        return resolver;
+    }
+
+    /*
+     * Reads and writes the fact having the resolver's name in the facts the factory is currently bound to.
+     */
+    private class FactVariableResolver implements VariableResolver {
+
+        private final String name;
+        private final FactKey<Object> key;
+
+        FactVariableResolver(String name) {
+            this.name = name;
+            this.key = FactKey.of(name);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Class getType() {
+            return Object.class;
+        }
+
+        @Override
+        public void setStaticType(Class type) {
+            // facts are dynamically typed
+        }
+
+        @Override
+        public int getFlags() {
+            return 0;
+        }
+
+        @Override
+        public Object getValue() {
+            return facts.get(key);
+        }
+
+        @Override
+        public void setValue(Object value) {
+            if (readOnly) {
+                createLocalVariable(name, null).setValue(value);
+            } else if (value == null) {
+                facts.remove(name);
+            } else {
+                facts.put(key, value);
+            }
+        }
+    }
+}
@@ -68,11 +68,14 @@ public class MVELAction implements Action {
 
     @Override
     public void execute(Facts facts) {
+        FactsVariableResolverFactory factory = FactsVariableResolverFactory.acquire(facts, false);
         try {
-            MVEL.executeExpression(compiledExpression, facts.asMap());
+            MVEL.executeExpression(compiledExpression, factory);
         } catch (Exception e) {
             LOGGER.error("Unable to evaluate expression: '" + expression + "' on facts: " + facts, e);
             throw e;
+        } finally {
+            factory.release();
         }
     }
 }
@@ -29,16 +29,24 @@ import org.mvel2.MVEL;
 import org.mvel2.ParserContext;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * This class is an implementation of {@link Condition} that uses
  * <a href="https://github.com/mvel/mvel">MVEL</a> to evaluate the condition.
  *
+ * The facts read by the condition are the input variables found by MVEL when
+ * analysing the expression. They are unknown if the expression defines functions.
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public class MVELCondition implements Condition {
 
     private final Serializable compiledExpression;
+    private final Set<String> readFacts;
 
     /**
      * Create a new {@link MVELCondition}.
@@ -47,6 +55,7 @@ public class MVELCondition implements Condition {
      */
     public MVELCondition(String expression) {
         compiledExpression = MVEL.compileExpression(expression);
+        readFacts = analyze(expression, new ParserContext());
     }
 
     /**
@@ -57,11 +66,35 @@ public class MVELCondition implements Condition {
      */
     public MVELCondition(String expression, ParserContext parserContext) {
         compiledExpression = MVEL.compileExpression(expression, parserContext);
+        readFacts = analyze(expression, new ParserContext(parserContext.getParserConfiguration()));
+    }
+
+    private static Set<String> analyze(String expression, ParserContext analysisContext) {
+        try {
+            MVEL.analysisCompile(expression, analysisContext);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        Map<?, ?> functions = analysisContext.getFunctions();
+        if (functions != null && !functions.isEmpty()) {
+            return null; // inputs of function bodies are not reported
+        }
+        return Collections.unmodifiableSet(new LinkedHashSet<>(analysisContext.getInputs().keySet()));
     }
 
     @Override
     public boolean evaluate(Facts facts) {
         // MVEL.evalToBoolean does not accept compiled expressions..
-        return (boolean) MVEL.executeExpression(compiledExpression, facts.asMap());
+        FactsVariableResolverFactory factory = FactsVariableResolverFactory.acquire(facts, true);
+        try {
+            return (boolean) MVEL.executeExpression(compiledExpression, factory);
+        } finally {
+            factory.release();
+        }
+    }
+
+    @Override
+    public Set<String> getReadFacts() {
+        return readFacts;
     }
 }
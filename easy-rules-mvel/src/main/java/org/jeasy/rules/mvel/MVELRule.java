@@ -32,6 +32,7 @@ import org.mvel2.ParserContext;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A {@link org.jeasy.rules.api.Rule} implementation that uses
@@ -120,6 +121,11 @@ public class MVELRule extends BasicRule {
         return condition.evaluate(facts);
     }
 
+    @Override
+    public Set<String> getReadFacts() {
+        return condition.getReadFacts();
+    }
+
     @Override
     public void execute(Facts facts) throws Exception {
         for (Action action : actions) {
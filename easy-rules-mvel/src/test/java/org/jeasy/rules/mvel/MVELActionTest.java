@@ -66,6 +66,37 @@ public class MVELActionTest {
         assertThat(systemOutRule.getLog()).contains("Hello from MVEL!");
     }
 
+    @Test
+    public void testMVELActionAssignmentsAreWrittenBackToFacts() throws Exception {
+        // given
+        Action action = new MVELAction("discount = 10; person = new org.jeasy.rules.mvel.Person('bar', 30);");
+        Facts facts = new Facts();
+        facts.put("person", new Person("foo", 20));
+
+        // when
+        action.execute(facts);
+
+        // then
+        assertThat((Integer) facts.get("discount")).isEqualTo(10);
+        assertThat(((Person) facts.get("person")).getName()).isEqualTo("bar");
+    }
+
+    @Test
+    public void testMVELActionLocalVariablesAreNotWrittenToFacts() throws Exception {
+        // given
+        Action action = new MVELAction("int base = 5; def bonus() { 1 }; total = base + bonus();");
+        Facts facts = new Facts();
+
+        // when
+        action.execute(facts);
+        action.execute(facts); // local variables do not leak from one execution to the next
+
+        // then
+        assertThat((Integer) facts.get("total")).isEqualTo(6);
+        assertThat(facts.getFact("base")).isNull();
+        assertThat(facts.getFact("bonus")).isNull();
+    }
+
     @Test
     public void testMVELActionExecutionWithFailure() {
         // given
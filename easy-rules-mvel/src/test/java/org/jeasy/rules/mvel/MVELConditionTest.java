@@ -47,6 +47,21 @@ public class MVELConditionTest {
     }
 
     // Note this behaviour is different in SpEL, where a missing fact is silently ignored and returns false
+    @Test
+    public void conditionShouldNotModifyFacts() {
+        // given
+        Condition condition = new MVELCondition("x = 5; age = 30; x > 3 && age > 18");
+        Facts facts = new Facts();
+        facts.put("age", 10);
+
+        // when
+        boolean evaluationResult = condition.evaluate(facts);
+
+        // then
+        assertThat(evaluationResult).isTrue();
+        assertThat(facts.asMap()).containsOnlyKeys("age").containsEntry("age", 10);
+    }
+
     @Test(expected = RuntimeException.class)
     public void whenDeclaredFactIsNotPresent_thenShouldThrowRuntimeException() {
         // given
@@ -73,4 +88,23 @@ public class MVELConditionTest {
         // then
         assertThat(evaluationResult).isTrue();
     }
+
+    @Test
+    public void readFactsShouldBeTheInputVariablesOfTheExpression() {
+        // given
+        Condition condition = new MVELCondition("x = 2; person.age > 18 && x < limit");
+
+        // then
+        assertThat(condition.getReadFacts()).containsOnly("person", "limit");
+    }
+
+    @Test
+    public void readFactsShouldBeUnknownWhenTheExpressionDefinesFunctions() {
+        // given
+        Condition condition = new MVELCondition("def twice(y) { y * 2 }; twice(n) > 1");
+
+        // then
+        assertThat(condition.getReadFacts()).isNull();
+    }
+
 }
@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.spel;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.Indexer;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Finds the names of the facts referenced by a parsed SpEL expression: properties
+ * and string indexes of the root object ({@code person.age}, {@code ['person']}) and
+ * variables ({@code #person}).
+ *
+ * References are unknown when the expression uses {@code #root} or {@code #this},
+ * calls a method on the root object, or indexes it with a computed key.
+ */
+final class FactReferences {
+
+    private FactReferences() {
+    }
+
+    /**
+     * Find the names of the facts referenced by an expression.
+     *
+     * @param expression parsed expression
+     * @return the fact names, or null if unknown
+     */
+    static Set<String> of(Expression expression) {
+        Set<String> factNames = new LinkedHashSet<>();
+        return collect(expression, factNames) ? Collections.unmodifiableSet(factNames) : null;
+    }
+
+    private static boolean collect(Expression expression, Set<String> factNames) {
+        if (expression instanceof SpelExpression) {
+            return collect(((SpelExpression) expression).getAST(), true, factNames);
+        }
+        if (expression instanceof CompositeStringExpression) {
+            for (Expression part : ((CompositeStringExpression) expression).getExpressions()) {
+                if (!collect(part, factNames)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return expression instanceof LiteralExpression;
+    }
+
+    /*
+     * Nodes at the start of a chain apply to the root object (the facts), others
+     * apply to the value of the previous node of the chain. Arguments and indexes
+     * are evaluated against the root object.
+     */
+    private static boolean collect(SpelNode node, boolean chainStart, Set<String> factNames) {
+        if (node instanceof VariableReference) {
+            String name = node.toStringAST().substring(1);
+            if (name.equals("root") || name.equals("this")) {
+                return false;
+            }
+            factNames.add(name);
+            return true;
+        }
+        if (node instanceof PropertyOrFieldReference) {
+            if (chainStart) {
+                factNames.add(((PropertyOrFieldReference) node).getName());
+            }
+            return true;
+        }
+        if (node instanceof Indexer && chainStart) {
+            SpelNode index = node.getChild(0);
+            if (!(index instanceof StringLiteral)) {
+                return false;
+            }
+            factNames.add((String) ((StringLiteral) index).getLiteralValue().getValue());
+            return true;
+        }
+        if (node instanceof MethodReference && chainStart) {
+            return false;
+        }
+        boolean compound = node instanceof CompoundExpression;
+        for (int i = 0; i < node.getChildCount(); i++) {
+            if (!collect(node.getChild(i), !compound || i == 0 && chainStart, factNames)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.spel;
+
+import org.jeasy.rules.api.Facts;
+
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Evaluation context having facts as root object (see {@link FactsMap}) and as
+ * variables. Facts are resolved through a {@link FactsPropertyAccessor} and
+ * variables are looked up in facts directly, so nothing is copied when binding
+ * the context to facts. Variables assigned by an expression (like {@code #x = 1})
+ * are discarded after the evaluation.
+ *
+ * Contexts are confined to a thread and reused across evaluations by all
+ * conditions and actions: a context is bound to facts with
+ * {@link #acquire(Facts, BeanResolver)} and unbound with {@link #release()}.
+ */
+class FactsEvaluationContext extends StandardEvaluationContext {
+
+    private static final ThreadLocal<FactsEvaluationContext> CONTEXTS = ThreadLocal.withInitial(FactsEvaluationContext::new);
+
+    private final FactsMap factsMap = new FactsMap();
+    private final Map<String, Object> variables = new HashMap<>();
+    private Facts facts;
+    private TypedValue root = TypedValue.NULL;
+
+    private FactsEvaluationContext() {
+        addPropertyAccessor(new FactsPropertyAccessor());
+    }
+
+    /**
+     * Get the context of the calling thread bound to the given facts. If this
+     * context is already in use (for instance when an action fires rules on the
+     * same thread), a new context is returned.
+     *
+     * @param facts to bind the context to
+     * @param beanResolver to resolve bean references, may be null
+     * @return a context to release after the evaluation
+     */
+    static FactsEvaluationContext acquire(Facts facts, BeanResolver beanResolver) {
+        FactsEvaluationContext context = CONTEXTS.get();
+        if (context.facts != null) {
+            context = new FactsEvaluationContext();
+        }
+        context.facts = facts;
+        context.factsMap.setFacts(facts);
+        context.root = new TypedValue(context.factsMap);
+        context.setBeanResolver(beanResolver);
+        return context;
+    }
+
+    /**
+     * Unbind this context from its facts and discard variables.
+     */
+    void release() {
+        facts = null;
+        factsMap.setFacts(null);
+        root = TypedValue.NULL;
+        setBeanResolver(null);
+        if (!variables.isEmpty()) {
+            variables.clear();
+        }
+    }
+
+    @Override
+    public TypedValue getRootObject() {
+        return root;
+    }
+
+    @Override
+    public void setVariable(String name, Object value) {
+        if (value != null) {
+            variables.put(name, value);
+        } else {
+            variables.remove(name);
+        }
+    }
+
+    @Override
+    public Object lookupVariable(String name) {
+        if (facts != null) {
+            Object value = facts.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        Object value = variables.get(name);
+        return value != null ? value : super.lookupVariable(name);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.spel;
+
+import org.jeasy.rules.api.Facts;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Root object of a {@link FactsEvaluationContext}: an unmodifiable map view of
+ * the facts the context is bound to, so that expressions can use map operations
+ * on the root object (like {@code #root['person']}, {@code containsKey('person')}
+ * or {@code size()}). Facts are also read as properties of the root object by the
+ * {@link FactsPropertyAccessor}.
+ *
+ * The view is reused by its context, so it is only valid during an evaluation.
+ */
+final class FactsMap extends AbstractMap<String, Object> {
+
+    private Facts facts;
+
+    Facts getFacts() {
+        return facts;
+    }
+
+    void setFacts(Facts facts) {
+        this.facts = facts;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof String ? facts.get((String) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && facts.getFact((String) key) != null;
+    }
+
+    @Override
+    public int size() {
+        return facts.asUnmodifiableMap().size();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return facts.asUnmodifiableMap().entrySet();
+    }
+}
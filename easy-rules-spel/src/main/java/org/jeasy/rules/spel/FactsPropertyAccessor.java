@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.spel;
+
+import org.jeasy.rules.api.FactKey;
+import org.jeasy.rules.api.Facts;
+
+import org.springframework.asm.MethodVisitor;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
+import org.springframework.expression.spel.CompilablePropertyAccessor;
+
+/**
+ * A SpEL {@link org.springframework.expression.PropertyAccessor} that reads and writes
+ * facts by name when the target object is a {@link Facts} instance or the root object
+ * of the evaluation contexts of SpEL conditions and actions. With facts as root
+ * object, both {@code person.age} and {@code ['person'].age} resolve to the fact named
+ * {@code person}, and assigning a property (like {@code discount = 10}) adds or replaces
+ * the corresponding fact. Reading a missing fact returns {@code null}.
+ *
+ * This accessor is compilable, so expressions using it can be compiled to bytecode
+ * when a {@link org.springframework.expression.spel.SpelCompilerMode} other than
+ * {@code OFF} is used. Compiled expressions read facts with {@link FactKey}s held
+ * in static fields of the compiled class.
+ */
+public class FactsPropertyAccessor implements CompilablePropertyAccessor {
+
+    private static final Class<?>[] TARGET_CLASSES = {Facts.class, FactsMap.class};
+    private static final String FACTS_INTERNAL_NAME = Facts.class.getName().replace('.', '/');
+    private static final String ACCESSOR_INTERNAL_NAME = FactsPropertyAccessor.class.getName().replace('.', '/');
+    private static final String FACT_KEY_INTERNAL_NAME = FactKey.class.getName().replace('.', '/');
+    private static final String FACT_KEY_DESCRIPTOR = "L" + FACT_KEY_INTERNAL_NAME + ";";
+
+    @Override
+    public Class<?>[] getSpecificTargetClasses() {
+        return TARGET_CLASSES;
+    }
+
+    @Override
+    public boolean canRead(EvaluationContext context, Object target, String name) {
+        return target instanceof Facts || target instanceof FactsMap;
+    }
+
+    @Override
+    public TypedValue read(EvaluationContext context, Object target, String name) {
+        Object value = facts(target).get(name);
+        return value != null ? new TypedValue(value) : TypedValue.NULL;
+    }
+
+    @Override
+    public boolean canWrite(EvaluationContext context, Object target, String name) {
+        return target instanceof Facts || target instanceof FactsMap;
+    }
+
+    @Override
+    public void write(EvaluationContext context, Object target, String name, Object newValue) {
+        Facts facts = facts(target);
+        if (newValue == null) {
+            facts.remove(name);
+        } else {
+            facts.put(name, newValue);
+        }
+    }
+
+    /**
+     * Get the facts a target object of this accessor holds. Called by compiled expressions.
+     *
+     * @param target facts or root object of the evaluation context of a SpEL condition or action
+     * @return the facts of the target
+     */
+    public static Facts facts(Object target) {
+        return target instanceof FactsMap ? ((FactsMap) target).getFacts() : (Facts) target;
+    }
+
+    @Override
+    public boolean isCompilable() {
+        return true;
+    }
+
+    @Override
+    public Class<?> getPropertyType() {
+        return Object.class;
+    }
+
+    @Override
+    public void generateCode(String propertyName, MethodVisitor mv, CodeFlow cf) {
+        String descriptor = cf.lastDescriptor();
+        if (descriptor == null || !descriptor.equals("L" + FACTS_INTERNAL_NAME)) {
+            if (descriptor == null) {
+                cf.loadTarget(mv);
+            }
+            mv.visitMethodInsn(INVOKESTATIC, ACCESSOR_INTERNAL_NAME, "facts", "(Ljava/lang/Object;)L" + FACTS_INTERNAL_NAME + ";", false);
+        }
+        String className = cf.getClassName();
+        String fieldName = "factKey$" + cf.nextFieldId();
+        cf.registerNewField((classWriter, codeFlow) ->
+                classWriter.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, fieldName, FACT_KEY_DESCRIPTOR, null, null));
+        cf.registerNewClinit((methodVisitor, codeFlow) -> {
+            methodVisitor.visitLdcInsn(propertyName);
+            methodVisitor.visitMethodInsn(INVOKESTATIC, FACT_KEY_INTERNAL_NAME, "of", "(Ljava/lang/String;)" + FACT_KEY_DESCRIPTOR, false);
+            methodVisitor.visitFieldInsn(PUTSTATIC, className, fieldName, FACT_KEY_DESCRIPTOR);
+        });
+        mv.visitFieldInsn(GETSTATIC, className, fieldName, FACT_KEY_DESCRIPTOR);
+        mv.visitMethodInsn(INVOKEVIRTUAL, FACTS_INTERNAL_NAME, "get", "(" + FACT_KEY_DESCRIPTOR + ")Ljava/lang/Object;", false);
+    }
+}
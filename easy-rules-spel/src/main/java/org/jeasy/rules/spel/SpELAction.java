@@ -30,10 +30,8 @@ import org.slf4j.LoggerFactory;
 
 import org.springframework.expression.BeanResolver;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
 
 /**
  * This class is an implementation of {@link Action} that uses
@@ -42,7 +40,13 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
  *
  * Each fact is set as a variable in the {@link org.springframework.expression.EvaluationContext}.
  *
- * The facts map is set as the root object of the {@link org.springframework.expression.EvaluationContext}.
+ * The root object of the {@link org.springframework.expression.EvaluationContext} is an
+ * unmodifiable map view of the facts, which can be referenced by name (like {@code person.age})
+ * or by index (like {@code ['person'].age}).
+ * Assigning a value to a fact (like {@code discount = 10}) adds or replaces the fact.
+ *
+ * Expressions are interpreted by default. A {@link SpelCompilerMode} other than
+ * {@link SpelCompilerMode#OFF} can be used to compile hot expressions to bytecode.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -50,10 +54,9 @@ public class SpELAction implements Action {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SpELAction.class);
 
-    private final ExpressionParser parser = new SpelExpressionParser();
     private final String expression;
     private final Expression compiledExpression;
-    private BeanResolver beanResolver;
+    private final BeanResolver beanResolver;
 
     /**
      * Create a new {@link SpELAction}.
@@ -81,8 +84,7 @@ public class SpELAction implements Action {
      * @param parserContext the SpEL parser context
      */
     public SpELAction(String expression, ParserContext parserContext) {
-        this.expression = expression;
-        compiledExpression = parser.parseExpression(expression, parserContext);
+        this(expression, parserContext, null);
     }
 
     /**
@@ -93,24 +95,33 @@ public class SpELAction implements Action {
      * @param parserContext the SpEL parser context
      */
     public SpELAction(String expression, ParserContext parserContext, BeanResolver beanResolver) {
+        this(expression, parserContext, beanResolver, SpelCompilerMode.OFF);
+    }
+
+    /**
+     * Create a new {@link SpELAction}.
+     *
+     * @param expression    the action written in expression language
+     * @param parserContext the SpEL parser context
+     * @param beanResolver  the bean resolver used to resolve bean references
+     * @param compilerMode  the SpEL compiler mode
+     */
+    public SpELAction(String expression, ParserContext parserContext, BeanResolver beanResolver, SpelCompilerMode compilerMode) {
         this.expression = expression;
         this.beanResolver = beanResolver;
-        compiledExpression = parser.parseExpression(expression, parserContext);
+        compiledExpression = ExpressionParsers.forCompilerMode(compilerMode).parseExpression(expression, parserContext);
     }
 
     @Override
     public void execute(Facts facts) {
+        FactsEvaluationContext context = FactsEvaluationContext.acquire(facts, beanResolver);
         try {
-            StandardEvaluationContext context = new StandardEvaluationContext();
-            context.setRootObject(facts.asMap());
-            context.setVariables(facts.asMap());
-            if (beanResolver != null) {
-                context.setBeanResolver(beanResolver);
-            }
             compiledExpression.getValue(context);
         } catch (Exception e) {
             LOGGER.error("Unable to evaluate expression: '" + expression + "' on facts: " + facts, e);
             throw e;
+        } finally {
+            context.release();
         }
     }
 }
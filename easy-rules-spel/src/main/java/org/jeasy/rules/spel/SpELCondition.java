@@ -28,10 +28,10 @@ import org.jeasy.rules.api.Facts;
 
 import org.springframework.expression.BeanResolver;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.util.Set;
 
 /**
  * This class is an implementation of {@link Condition} that uses
@@ -40,15 +40,23 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
  *
  * Each fact is set as a variable in the {@link org.springframework.expression.EvaluationContext}.
  *
- * The facts map is set as the root object of the {@link org.springframework.expression.EvaluationContext}.
+ * The root object of the {@link org.springframework.expression.EvaluationContext} is an
+ * unmodifiable map view of the facts, which can be referenced by name (like {@code person.age})
+ * or by index (like {@code ['person'].age}).
+ *
+ * Expressions are interpreted by default. A {@link SpelCompilerMode} other than
+ * {@link SpelCompilerMode#OFF} can be used to compile hot expressions to bytecode.
+ *
+ * The facts read by the condition are found in the parsed expression (see
+ * {@link #getReadFacts()}).
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public class SpELCondition implements Condition {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
     private final Expression compiledExpression;
-    private BeanResolver beanResolver;
+    private final BeanResolver beanResolver;
+    private final Set<String> readFacts;
 
     /**
      * Create a new {@link SpELCondition}.
@@ -76,7 +84,7 @@ public class SpELCondition implements Condition {
      * @param parserContext the SpEL parser context
      */
     public SpELCondition(String expression, ParserContext parserContext) {
-        compiledExpression = parser.parseExpression(expression, parserContext);
+        this(expression, parserContext, null);
     }
 
     /**
@@ -87,18 +95,43 @@ public class SpELCondition implements Condition {
      * @param parserContext the SpEL parser context
      */
     public SpELCondition(String expression, ParserContext parserContext, BeanResolver beanResolver) {
+        this(expression, parserContext, beanResolver, SpelCompilerMode.OFF);
+    }
+
+    /**
+     * Create a new {@link SpELCondition}.
+     *
+     * @param expression    the condition written in expression language
+     * @param parserContext the SpEL parser context
+     * @param beanResolver  the bean resolver used to resolve bean references
+     * @param compilerMode  the SpEL compiler mode
+     */
+    public SpELCondition(String expression, ParserContext parserContext, BeanResolver beanResolver, SpelCompilerMode compilerMode) {
         this.beanResolver = beanResolver;
-        compiledExpression = parser.parseExpression(expression, parserContext);
+        compiledExpression = ExpressionParsers.forCompilerMode(compilerMode).parseExpression(expression, parserContext);
+        readFacts = FactReferences.of(compiledExpression);
     }
 
     @Override
     public boolean evaluate(Facts facts) {
-        StandardEvaluationContext context = new StandardEvaluationContext();
-        context.setRootObject(facts.asMap());
-        context.setVariables(facts.asMap());
-        if (beanResolver != null) {
-            context.setBeanResolver(beanResolver);
+        FactsEvaluationContext context = FactsEvaluationContext.acquire(facts, beanResolver);
+        try {
+            return compiledExpression.getValue(context, Boolean.class);
+        } finally {
+            context.release();
         }
-        return compiledExpression.getValue(context, Boolean.class);
+    }
+
+    /**
+     * Return the names of the facts referenced by the expression, as properties or
+     * string indexes of the root object or as variables.
+     *
+     * @return the fact names, or null if the expression uses {@code #root} or
+     * {@code #this}, calls a method on the root object, or indexes it with a
+     * computed key
+     */
+    @Override
+    public Set<String> getReadFacts() {
+        return readFacts;
     }
 }
@@ -31,9 +31,11 @@ import org.jeasy.rules.core.BasicRule;
 
 import org.springframework.expression.BeanResolver;
 import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A {@link Rule} implementation that uses 
@@ -48,6 +50,7 @@ public class SpELRule extends BasicRule {
     private final List<Action> actions = new ArrayList<>();
     private final ParserContext parserContext;
     private BeanResolver beanResolver;
+    private SpelCompilerMode compilerMode = SpelCompilerMode.OFF;
 
     /**
      * Create a new SpEL rule.
@@ -89,6 +92,18 @@ public class SpELRule extends BasicRule {
         this.beanResolver = beanResolver;
     }
 
+    /**
+     * Create a new SpEL rule.
+     *
+     * @param parserContext used when parsing expressions
+     * @param beanResolver used to resolve bean references in expressions
+     * @param compilerMode used to compile condition/action expressions
+     */
+    public SpELRule(ParserContext parserContext, BeanResolver beanResolver, SpelCompilerMode compilerMode) {
+        this(parserContext, beanResolver);
+        this.compilerMode = compilerMode;
+    }
+
     /**
      * Set rule name.
      *
@@ -128,7 +143,7 @@ public class SpELRule extends BasicRule {
      * @return this rule
      */
     public SpELRule when(String condition) {
-        this.condition = new SpELCondition(condition, parserContext, beanResolver);
+        this.condition = new SpELCondition(condition, parserContext, beanResolver, compilerMode);
         return this;
     }
 
@@ -138,7 +153,7 @@ public class SpELRule extends BasicRule {
      * @return this rule
      */
     public SpELRule then(String action) {
-        this.actions.add(new SpELAction(action, parserContext, beanResolver));
+        this.actions.add(new SpELAction(action, parserContext, beanResolver, compilerMode));
         return this;
     }
 
@@ -147,6 +162,11 @@ public class SpELRule extends BasicRule {
         return condition.evaluate(facts);
     }
 
+    @Override
+    public Set<String> getReadFacts() {
+        return condition.getReadFacts();
+    }
+
     @Override
     public void execute(Facts facts) throws Exception {
         for (Action action : actions) {
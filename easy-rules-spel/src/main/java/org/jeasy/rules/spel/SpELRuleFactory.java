@@ -33,6 +33,7 @@ import org.jeasy.rules.support.reader.YamlRuleDefinitionReader;
 
 import org.springframework.expression.BeanResolver;
 import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
 
 import java.io.Reader;
 import java.util.List;
@@ -47,6 +48,7 @@ public class SpELRuleFactory extends AbstractRuleFactory {
     private final RuleDefinitionReader reader;
     private BeanResolver beanResolver;
     private ParserContext parserContext;
+    private SpelCompilerMode compilerMode = SpelCompilerMode.OFF;
 
     /**
      * Create a new {@link SpELRuleFactory} with a given reader.
@@ -100,6 +102,21 @@ public class SpELRuleFactory extends AbstractRuleFactory {
         this.beanResolver = beanResolver;
     }
 
+    /**
+     * Create a new {@link SpELRuleFactory} with a given reader.
+     *
+     * @param reader used to read rule definitions
+     * @param parserContext used to parse SpEL expressions
+     * @param beanResolver used to resolve bean references in SpEL expressions
+     * @param compilerMode used to compile SpEL expressions
+     * @see YamlRuleDefinitionReader
+     * @see JsonRuleDefinitionReader
+     */
+    public SpELRuleFactory(RuleDefinitionReader reader, ParserContext parserContext, BeanResolver beanResolver, SpelCompilerMode compilerMode) {
+        this(reader, parserContext, beanResolver);
+        this.compilerMode = compilerMode;
+    }
+
     /**
      * Create a new {@link SpELRule} from a Reader.
      * 
@@ -136,7 +153,7 @@ public class SpELRuleFactory extends AbstractRuleFactory {
     }
 
     protected Rule createSimpleRule(RuleDefinition ruleDefinition) {
-        SpELRule spELRule = new SpELRule(parserContext, beanResolver)
+        SpELRule spELRule = new SpELRule(parserContext, beanResolver, compilerMode)
                 .name(ruleDefinition.getName())
                 .description(ruleDefinition.getDescription())
                 .priority(ruleDefinition.getPriority())
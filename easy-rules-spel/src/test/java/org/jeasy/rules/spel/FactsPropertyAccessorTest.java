@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.spel;
+
+import org.jeasy.rules.api.Facts;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FactsPropertyAccessorTest {
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, null));
+    private StandardEvaluationContext context;
+    private Facts facts;
+
+    @Before
+    public void setUp() {
+        facts = new Facts();
+        context = new StandardEvaluationContext(facts);
+        context.addPropertyAccessor(new FactsPropertyAccessor());
+    }
+
+    @Test
+    public void testReadFact() {
+        facts.put("person", new Person("foo", 20));
+
+        assertThat(parser.parseExpression("person.name").getValue(context)).isEqualTo("foo");
+        assertThat(parser.parseExpression("['person'].age").getValue(context)).isEqualTo(20);
+    }
+
+    @Test
+    public void testReadMissingFact() {
+        assertThat(parser.parseExpression("person").getValue(context)).isNull();
+    }
+
+    @Test
+    public void testWriteFact() {
+        parser.parseExpression("discount = 10").getValue(context);
+
+        assertThat((Integer) facts.get("discount")).isEqualTo(10);
+    }
+
+    @Test
+    public void testExpressionIsCompilable() {
+        facts.put("person", new Person("foo", 20));
+        SpelExpression expression = parser.parseRaw("person.age > 18");
+        expression.getValue(context);
+
+        assertThat(expression.compileExpression()).isTrue();
+        assertThat(expression.getValue(context, Boolean.class)).isTrue();
+        facts.put("person", new Person("bar", 10));
+        assertThat(expression.getValue(context, Boolean.class)).isFalse();
+    }
+
+    @Test
+    public void testExpressionIsCompilableOnFactsMapRoot() {
+        facts.put("person", new Person("foo", 20));
+        FactsEvaluationContext factsContext = FactsEvaluationContext.acquire(facts, null);
+        try {
+            SpelExpression expression = parser.parseRaw("person.age > 18");
+            expression.getValue(factsContext);
+
+            assertThat(expression.compileExpression()).isTrue();
+            assertThat(expression.getValue(factsContext, Boolean.class)).isTrue();
+            facts.put("person", new Person("bar", 10));
+            assertThat(expression.getValue(factsContext, Boolean.class)).isFalse();
+        } finally {
+            factsContext.release();
+        }
+    }
+}
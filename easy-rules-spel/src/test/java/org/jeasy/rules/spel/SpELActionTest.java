@@ -39,6 +39,19 @@ public class SpELActionTest {
     @Rule
     public final SystemOutRule systemOutRule = new SystemOutRule().enableLog();
 
+    @Test
+    public void testSpELActionAssignmentsAreWrittenBackToFacts() throws Exception {
+        // given
+        Action action = new SpELAction("#{ discount = 10 }");
+        Facts facts = new Facts();
+
+        // when
+        action.execute(facts);
+
+        // then
+        assertThat((Integer) facts.get("discount")).isEqualTo(10);
+    }
+
     @Test
     public void testSpELActionExecution() throws Exception {
         // given
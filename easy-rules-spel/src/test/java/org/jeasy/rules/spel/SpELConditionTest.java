@@ -34,6 +34,7 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.expression.BeanResolver;
 import org.springframework.expression.ParserContext;
 import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -52,6 +53,62 @@ public class SpELConditionTest {
         assertThat(evaluationResult).isTrue();
     }
 
+    @Test
+    public void testSpELExpressionEvaluationWithFactReferencedByName() {
+        // given
+        Condition isAdult = new SpELCondition("#{ person.age > 18 and #person.adult == false }");
+        Facts facts = new Facts();
+        facts.put("person", new Person("foo", 20));
+
+        // when
+        boolean evaluationResult = isAdult.evaluate(facts);
+
+        // then
+        assertThat(evaluationResult).isTrue();
+    }
+
+    @Test
+    public void testSpELExpressionEvaluationInCompiledMode() {
+        for (SpelCompilerMode compilerMode : SpelCompilerMode.values()) {
+            // given
+            Condition isAdult = new SpELCondition("#{ person.age > 18 }", ParserContext.TEMPLATE_EXPRESSION, null, compilerMode);
+            Facts adult = new Facts();
+            adult.put("person", new Person("foo", 20));
+            Facts child = new Facts();
+            child.put("person", new Person("bar", 10));
+
+            // when/then (the expression is interpreted first and compiled on subsequent evaluations)
+            for (int i = 0; i < 200; i++) {
+                assertThat(isAdult.evaluate(adult)).isTrue();
+                assertThat(isAdult.evaluate(child)).isFalse();
+            }
+        }
+    }
+
+    @Test
+    public void variablesShouldNotLeakBetweenEvaluations() {
+        // given
+        Condition condition = new SpELCondition("#{ (#tmp = (#tmp == null ? 1 : #tmp + 1)) > 1 }");
+
+        // when/then
+        assertThat(condition.evaluate(new Facts())).isFalse();
+        assertThat(condition.evaluate(new Facts())).isFalse();
+    }
+
+    @Test
+    public void rootObjectShouldBeAMapOfFacts() {
+        // given
+        Facts facts = new Facts();
+        facts.put("x", 1);
+        facts.put("y", 2);
+
+        // when/then
+        assertThat(new SpELCondition("#{ #root['x'] == 1 }").evaluate(facts)).isTrue();
+        assertThat(new SpELCondition("#{ #root.get('y') == 2 }").evaluate(facts)).isTrue();
+        assertThat(new SpELCondition("#{ containsKey('x') and !containsKey('z') }").evaluate(facts)).isTrue();
+        assertThat(new SpELCondition("#{ size() == 2 }").evaluate(facts)).isTrue();
+    }
+
     // Note this behaviour is different in MVEL, where a missing fact yields an exception
     @Test
     public void whenDeclaredFactIsNotPresent_thenShouldReturnFalse() {
@@ -107,4 +164,20 @@ public class SpELConditionTest {
         Assertions.assertThat(systemOutRule.getLog()).contains("Bonjour jack!");
 
     }
+
+    @Test
+    public void readFactsShouldBeTheFactsReferencedByTheExpression() {
+        // given
+        Condition condition = new SpELCondition("#{ person.age > 18 and ['limit'] > #max.value and T(java.lang.Math).abs(delta) > 0 }");
+
+        // then
+        assertThat(condition.getReadFacts()).containsOnly("person", "limit", "max", "delta");
+    }
+
+    @Test
+    public void readFactsShouldBeUnknownWhenTheExpressionUsesTheRootObject() {
+        assertThat(new SpELCondition("#{ #root.get('person') != null }").getReadFacts()).isNull();
+        assertThat(new SpELCondition("#{ get('person') != null }").getReadFacts()).isNull();
+    }
+
 }
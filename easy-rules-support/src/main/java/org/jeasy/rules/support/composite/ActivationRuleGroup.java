@@ -37,7 +37,7 @@ import java.util.TreeSet;
  */
 public class ActivationRuleGroup extends CompositeRule {
 
-    private Rule selectedRule;
+    private final FireState<Rule> selectedRule = new FireState<>();
 
     /**
      * Create an activation rule group.
@@ -83,17 +83,19 @@ public class ActivationRuleGroup extends CompositeRule {
     public boolean evaluate(Facts facts) {
         for (Rule rule : rules) {
             if (rule.evaluate(facts)) {
-                selectedRule = rule;
+                selectedRule.put(facts, rule);
                 return true;
             }
         }
+        selectedRule.clear();
         return false;
     }
 
     @Override
     public void execute(Facts facts) throws Exception {
-        if (selectedRule != null) {
-            selectedRule.execute(facts);
+        Rule rule = selectedRule.remove(facts);
+        if (rule != null) {
+            rule.execute(facts);
         }
     }
 }
@@ -28,7 +28,9 @@ import org.jeasy.rules.api.Rule;
 import org.jeasy.rules.core.BasicRule;
 import org.jeasy.rules.core.RuleProxy;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -36,6 +38,11 @@ import java.util.TreeSet;
 /**
  * Base class representing a composite rule composed of a set of rules.
  *
+ * Composite rules do not keep fire state in fields between {@code evaluate} and
+ * {@code execute}, so once built, a composite rule can be shared by threads firing
+ * rules concurrently with their own facts. Adding or removing composing rules is
+ * not thread-safe.
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public abstract class CompositeRule extends BasicRule {
@@ -91,6 +98,24 @@ public abstract class CompositeRule extends BasicRule {
     @Override
     public abstract void execute(Facts facts) throws Exception;
 
+    /**
+     * Return the names of the facts read by the composing rules.
+     *
+     * @return the fact names, or null if unknown for one of the composing rules
+     */
+    @Override
+    public Set<String> getReadFacts() {
+        Set<String> readFacts = new LinkedHashSet<>();
+        for (Rule rule : rules) {
+            Set<String> ruleReadFacts = rule.getReadFacts();
+            if (ruleReadFacts == null) {
+                return null;
+            }
+            readFacts.addAll(ruleReadFacts);
+        }
+        return Collections.unmodifiableSet(readFacts);
+    }
+
     /**
      * Add a rule to the composite rule.
      * @param rule the rule to add
@@ -42,8 +42,7 @@ import java.util.Set;
  */
 public class ConditionalRuleGroup extends CompositeRule {
 
-    private Set<Rule> successfulEvaluations;
-    private Rule conditionalRule;
+    private final FireState<List<Rule>> successfulEvaluations = new FireState<>();
 
     /**
      * Create a conditional rule group.
@@ -90,16 +89,21 @@ public class ConditionalRuleGroup extends CompositeRule {
      */
     @Override
     public boolean evaluate(Facts facts) {
-        successfulEvaluations = new HashSet<>();
-        conditionalRule = getRuleWithHighestPriority();
+        Rule conditionalRule = getRuleWithHighestPriority();
         if (conditionalRule.evaluate(facts)) {
+            Set<Rule> evaluations = new HashSet<>();
             for (Rule rule : rules) {
                 if (rule != conditionalRule && rule.evaluate(facts)) {
-                    successfulEvaluations.add(rule);
+                    evaluations.add(rule);
                 }
             }
+            List<Rule> rulesToExecute = new ArrayList<>(evaluations.size() + 1);
+            rulesToExecute.add(conditionalRule);
+            rulesToExecute.addAll(sort(evaluations));
+            successfulEvaluations.put(facts, rulesToExecute);
             return true;
         }
+        successfulEvaluations.clear();
         return false;
     }
 
@@ -114,8 +118,11 @@ public class ConditionalRuleGroup extends CompositeRule {
      */
     @Override
     public void execute(Facts facts) throws Exception {
-        conditionalRule.execute(facts);
-        for (Rule rule : sort(successfulEvaluations)) {
+        List<Rule> rulesToExecute = successfulEvaluations.remove(facts);
+        if (rulesToExecute == null) {
+            return;
+        }
+        for (Rule rule : rulesToExecute) {
             rule.execute(facts);
         }
     }
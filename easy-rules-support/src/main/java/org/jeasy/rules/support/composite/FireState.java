@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.support.composite;
+
+import org.jeasy.rules.api.Facts;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * State computed by a composite rule in {@code evaluate} and consumed by the
+ * following {@code execute} call with the same facts.
+ *
+ * Rules engines evaluate and execute a rule on the same thread, so the state is
+ * held per thread and tagged with the facts it was computed for. This keeps
+ * composite rules free of mutable fields: a single rule set can be fired
+ * concurrently by several threads, each with its own facts.
+ *
+ * A rule may be evaluated without being executed (for example when rules are
+ * checked), in which case its state stays on the thread until the next
+ * evaluation. The state refers to the facts weakly so that it does not keep
+ * them reachable in the meantime.
+ *
+ * @param <S> type of the state
+ */
+final class FireState<S> {
+
+    private final ThreadLocal<Entry<S>> current = new ThreadLocal<>();
+
+    /**
+     * Store the state computed for the given facts on the current thread.
+     *
+     * @param facts the state was computed for
+     * @param state to store
+     */
+    void put(final Facts facts, final S state) {
+        current.set(new Entry<>(facts, state));
+    }
+
+    /**
+     * Remove and return the state computed for the given facts on the current thread.
+     *
+     * @param facts the state was computed for
+     * @return the state, or null if none was computed for these facts
+     */
+    S remove(final Facts facts) {
+        Entry<S> entry = current.get();
+        if (entry == null || entry.get() != facts) {
+            return null;
+        }
+        current.remove();
+        return entry.state;
+    }
+
+    /**
+     * Discard any state stored on the current thread.
+     */
+    void clear() {
+        current.remove();
+    }
+
+    private static final class Entry<S> extends WeakReference<Facts> {
+
+        private final S state;
+
+        private Entry(final Facts facts, final S state) {
+            super(facts);
+            this.state = state;
+        }
+    }
+}
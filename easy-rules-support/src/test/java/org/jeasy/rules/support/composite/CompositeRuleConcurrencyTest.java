@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.rules.support.composite;
+
+import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.Rules;
+import org.jeasy.rules.api.RulesEngine;
+import org.jeasy.rules.core.DefaultRulesEngine;
+import org.jeasy.rules.core.RuleBuilder;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompositeRuleConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    public void sharedCompositeRulesShouldBeFiredConcurrently() throws Exception {
+        // given
+        ActivationRuleGroup activationRuleGroup = new ActivationRuleGroup("activation");
+        activationRuleGroup.addRule(new RuleBuilder()
+                .name("small").priority(1)
+                .when(facts -> facts.<Integer>get("amount") < 50)
+                .then(facts -> facts.put("size", "small"))
+                .build());
+        activationRuleGroup.addRule(new RuleBuilder()
+                .name("large").priority(2)
+                .when(facts -> facts.<Integer>get("amount") >= 50)
+                .then(facts -> facts.put("size", "large"))
+                .build());
+
+        ConditionalRuleGroup conditionalRuleGroup = new ConditionalRuleGroup("conditional");
+        conditionalRuleGroup.addRule(new RuleBuilder()
+                .name("even").priority(1)
+                .when(facts -> facts.<Integer>get("amount") % 2 == 0)
+                .then(facts -> facts.put("parity", "even"))
+                .build());
+        conditionalRuleGroup.addRule(new RuleBuilder()
+                .name("tens").priority(2)
+                .when(facts -> facts.<Integer>get("amount") % 10 == 0)
+                .then(facts -> facts.put("tens", true))
+                .build());
+
+        UnitRuleGroup unitRuleGroup = new UnitRuleGroup("unit");
+        unitRuleGroup.addRule(new RuleBuilder()
+                .name("positive").priority(1)
+                .when(facts -> facts.<Integer>get("amount") > 0)
+                .then(facts -> facts.put("positive", true))
+                .build());
+        unitRuleGroup.addRule(new RuleBuilder()
+                .name("odd").priority(2)
+                .when(facts -> facts.<Integer>get("amount") % 2 == 1)
+                .then(facts -> facts.put("odd", true))
+                .build());
+
+        Rules rules = new Rules(activationRuleGroup, conditionalRuleGroup, unitRuleGroup);
+        RulesEngine rulesEngine = new DefaultRulesEngine();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int offset = t;
+            Callable<Integer> worker = () -> {
+                start.await();
+                int failures = 0;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    int amount = (i + offset) % 100;
+                    Facts facts = new Facts();
+                    facts.put("amount", amount);
+
+                    rulesEngine.fire(rules, facts);
+
+                    if (!isConsistent(facts, amount)) {
+                        failures++;
+                    }
+                }
+                return failures;
+            };
+            results.add(executorService.submit(worker));
+        }
+
+        // when
+        start.countDown();
+
+        // then
+        int failures = 0;
+        for (Future<Integer> result : results) {
+            failures += result.get();
+        }
+        executorService.shutdown();
+        assertThat(executorService.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(failures).isZero();
+    }
+
+    @Test
+    public void checkedFactsShouldNotBeRetainedByCompositeRules() throws Exception {
+        // given
+        ActivationRuleGroup activationRuleGroup = new ActivationRuleGroup("activation");
+        activationRuleGroup.addRule(new RuleBuilder().name("always").when(facts -> true).build());
+        Rules rules = new Rules(activationRuleGroup);
+        Facts facts = new Facts();
+        facts.put("payload", new byte[1024]);
+        WeakReference<Facts> reference = new WeakReference<>(facts);
+
+        // when
+        assertThat(new DefaultRulesEngine().check(rules, facts).values()).containsExactly(true);
+        facts = null;
+
+        // then
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(reference.get()).isNull();
+    }
+
+    private static boolean isConsistent(Facts facts, int amount) {
+        boolean even = amount % 2 == 0;
+        return (amount < 50 ? "small" : "large").equals(facts.get("size"))
+                && (even ? "even".equals(facts.get("parity")) : facts.get("parity") == null)
+                && (even && amount % 10 == 0 ? Boolean.TRUE.equals(facts.get("tens")) : facts.get("tens") == null)
+                && (!even && amount > 0 ? Boolean.TRUE.equals(facts.get("positive")) && Boolean.TRUE.equals(facts.get("odd"))
+                        : facts.get("positive") == null && facts.get("odd") == null);
+    }
+}
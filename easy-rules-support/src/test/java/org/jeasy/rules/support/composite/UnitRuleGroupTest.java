@@ -35,6 +35,8 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Collections;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -73,6 +75,19 @@ public class UnitRuleGroupTest {
         assertThat(evaluationResult).isFalse();
     }
 
+    @Test
+    public void readFactsShouldBeTheFactsReadByComposingRules() {
+        // given
+        when(rule1.getReadFacts()).thenReturn(Collections.singleton("foo"));
+        when(rule2.getReadFacts()).thenReturn(Collections.singleton("bar"));
+        unitRuleGroup = new UnitRuleGroup();
+        unitRuleGroup.addRule(rule1);
+        unitRuleGroup.addRule(rule2);
+
+        // then
+        assertThat(unitRuleGroup.getReadFacts()).containsOnly("foo", "bar");
+    }
+
     @Test
     public void compositeRuleAndComposingRulesMustBeExecuted() throws Exception {
         // Given
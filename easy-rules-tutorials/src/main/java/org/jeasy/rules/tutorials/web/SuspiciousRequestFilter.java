@@ -33,6 +33,7 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.annotation.WebFilter;
 import org.jeasy.rules.api.Facts;
+import org.jeasy.rules.api.FactsPool;
 import org.jeasy.rules.api.Rules;
 import org.jeasy.rules.api.RulesEngine;
 import org.jeasy.rules.core.DefaultRulesEngine;
@@ -42,19 +43,25 @@ public class SuspiciousRequestFilter implements Filter {
 
     private Rules rules;
     private RulesEngine rulesEngine;
+    private FactsPool factsPool;
 
     @Override
     public void init(FilterConfig filterConfig) {
         rulesEngine = new DefaultRulesEngine();
         rules = new Rules();
         rules.register(new SuspiciousRequestRule());
+        factsPool = new FactsPool();
     }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain) throws IOException, ServletException {
-        Facts facts = new Facts();
-        facts.put("request", request);
-        rulesEngine.fire(rules, facts);
+        Facts facts = factsPool.borrow();
+        try {
+            facts.put("request", request);
+            rulesEngine.fire(rules, facts);
+        } finally {
+            factsPool.release(facts);
+        }
         filterChain.doFilter(request, response);
     }
 